@@ -0,0 +1,89 @@
+package hello.reactive;
+
+import hello.springmvc.ch6.basic.requestmapping.user.UserService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+import static org.springframework.web.reactive.function.server.RequestPredicates.path;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * MappingController 와 같은 경로 (요청 매핑)
+ *
+ * @GetMapping(params = ..., headers = ..., consumes = ..., produces = ...) 조건은 RequestPredicate 로 옮겼다.
+ * 조건이 맞지 않으면 다음 라우트로 넘어가고 끝까지 없으면 404 (서블릿 쪽은 400, 405, 415 로 나뉨)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MappingHandler {
+
+    private final UserService userService;
+
+    public RouterFunction<ServerResponse> routes() {
+        return route()
+                //HTTP 메서드 모두 허용
+                .route(path("/hello-basic"), request -> ok("helloBasic"))
+                .GET("/mapping-get-v1", request -> ok("mappingGetV1"))
+                .GET("/mapping-get-v2", request -> ok("mapping-get-v2"))
+                .GET("/mapping/{userId}", this::mappingPath)
+                .GET("/mapping/users/{userId}/orders/{orderId}", this::mappingOrder)
+                .GET("/mapping-param", request -> request.queryParam("mode").filter("debug"::equals).isPresent(),
+                        request -> ok("mappingParam"))
+                .GET("/mapping-header", request -> "debug".equals(request.headers().firstHeader("mode")),
+                        request -> ok("mappingHeader"))
+                .POST("/mapping-consume", contentType(MediaType.APPLICATION_JSON), request -> ok("mappingConsumes"))
+                .POST("/mapping-consume-v2", contentType(MediaType.APPLICATION_JSON),
+                        request -> ok("mappingConsumesV2"))
+                .POST("/mapping-produces", MappingHandler::acceptsHtml, request -> ServerResponse.ok()
+                        .contentType(MediaType.TEXT_HTML)
+                        .bodyValue(logged("mappingProduces")))
+                .build();
+    }
+
+    private Mono<ServerResponse> mappingPath(ServerRequest request) {
+        log.info("mappingPath {}", kv("userId", request.pathVariable("userId")));
+        return ServerResponse.ok().bodyValue("ok");
+    }
+
+    /*
+        UserStore 조회는 맵 조회 한 번이라 이벤트 루프에서 바로 한다. 없으면 ResponseStatusException => 404
+     */
+    private Mono<ServerResponse> mappingOrder(ServerRequest request) {
+        String userId = request.pathVariable("userId");
+        long orderId = parseLong("orderId", request.pathVariable("orderId"));
+        log.info("mappingPath {}, {}", kv("userId", userId), kv("orderId", orderId));
+        return ServerResponse.ok().bodyValue(userService.getOrder(userId, orderId));
+    }
+
+    private static boolean acceptsHtml(ServerRequest request) {
+        return request.headers().accept().isEmpty()
+                || request.headers().accept().stream().anyMatch(MediaType.TEXT_HTML::isCompatibleWith);
+    }
+
+    private static Mono<ServerResponse> ok(String name) {
+        return ServerResponse.ok().bodyValue(logged(name));
+    }
+
+    private static String logged(String name) {
+        log.info(name);
+        return "ok";
+    }
+
+    private static long parseLong(String name, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("invalid " + name + " : " + value);
+        }
+    }
+}
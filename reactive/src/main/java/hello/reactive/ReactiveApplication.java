@@ -0,0 +1,31 @@
+package hello.reactive;
+
+import hello.springmvc.ch6.basic.requestmapping.user.UserJournalConfig;
+import hello.springmvc.ch6.basic.requestmapping.user.UserJournalProperties;
+import hello.springmvc.ch6.basic.requestmapping.user.UserService;
+import hello.springmvc.ch6.basic.requestmapping.user.UserStore;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+
+/**
+ * 서블릿 애플리케이션(hello.springmvc)의 MappingController, RequestParamController, RequestBodyJsonController 와
+ * 같은 경로를 WebFlux + Netty 로 띄운다. (서블릿 vs 리액티브 처리량, 연결당 메모리 비교용)
+ *
+ * 컴포넌트 스캔은 hello.reactive 만 한다. 서블릿 쪽 빈(WebConfig, 필터, 인터셉터 ...)은 올라오지 않고
+ * 사용자/주문 로직(UserService, UserStore, 저널 설정)만 가져다 쓴다.
+ * 설정 파일은 reactive.properties (클래스패스에 같이 있는 서블릿 쪽 application.properties 와 섞이지 않게)
+ */
+@SpringBootApplication
+@Import({UserService.class, UserStore.class, UserJournalConfig.class, UserJournalProperties.class})
+public class ReactiveApplication {
+
+	public static void main(String[] args) {
+		new SpringApplicationBuilder(ReactiveApplication.class)
+				.web(WebApplicationType.REACTIVE)
+				.properties("spring.config.name=reactive")
+				.run(args);
+	}
+
+}
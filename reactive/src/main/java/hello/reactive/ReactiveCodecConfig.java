@@ -0,0 +1,98 @@
+package hello.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * HelloData 를 읽고 쓰는 코덱
+ *
+ * Jackson2JsonDecoder 는 바디를 다 모으지 않고 들어오는 DataBuffer 를 Jackson 의 논블로킹 파서로 토큰화한다.
+ * (이벤트 루프 스레드를 막지 않음, 서블릿 쪽 JsonCodecs.read(InputStream) 와 달리 스트림을 기다리지 않는다)
+ * 부트가 만든 ObjectMapper 를 쓰므로 spring.jackson.* 설정이 서블릿 쪽 메시지 컨버터와 같다.
+ *
+ * CBOR, Smile 도 같은 Jackson 매핑으로 받는다. (서블릿 쪽 BinaryJsonConverterConfig 참고)
+ * 5.3 의 defaultCodecs() 에는 CBOR 자리가 없어서 customCodecs() 로 넣는데, 그러면 기본 JSON 코덱보다 앞에 온다.
+ *   - Jackson2CborEncoder(mapper) 처럼 MimeType 을 안 주면 application/json 을 맡는 코덱이 되므로 CBOR 만 준다.
+ *   - 타입이 없거나 *\/* 인 요청/응답(에러 응답 등)도 가져가지 않도록 application/cbor 가 명시된 경우만 맡긴다.
+ */
+@Configuration
+public class ReactiveCodecConfig {
+
+    @Bean
+    public CodecCustomizer helloDataCodecs(ObjectMapper objectMapper, Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cborMapper = builder.factory(new CBORFactory()).build();
+        ObjectMapper smileMapper = builder.factory(new SmileFactory()).build();
+        return configurer -> {
+            configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+            configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper));
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper));
+            configurer.customCodecs().register(new CborOnlyDecoder(cborMapper));
+            configurer.customCodecs().register(new CborOnlyEncoder(cborMapper));
+        };
+    }
+
+    private static boolean isCbor(MimeType mimeType) {
+        return mimeType != null && MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(mimeType);
+    }
+
+    private static class CborOnlyDecoder extends Jackson2CborDecoder {
+
+        CborOnlyDecoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+            return isCbor(mimeType) && super.canDecode(elementType, mimeType);
+        }
+    }
+
+    private static class CborOnlyEncoder extends Jackson2CborEncoder {
+
+        CborOnlyEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+            return isCbor(mimeType) && super.canEncode(elementType, mimeType);
+        }
+
+        /*
+            Jackson2CborEncoder 는 encode 를 통째로 막아 두어서(스트림 인코딩 미지원) bodyValue 도 실패한다.
+            값 하나(Mono)는 encodeValue 로 쓴다.
+         */
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            if (inputStream instanceof Mono) {
+                return Mono.from(inputStream)
+                        .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                        .flux();
+            }
+            return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package hello.reactive;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * 함수형 라우트 등록 (@RequestMapping 대신 RouterFunction)
+ *
+ * 라우트는 등록 순서대로 맞춰본다. 경로가 겹치지 않으니 순서는 상관없다.
+ */
+@Configuration
+public class ReactiveRoutes {
+
+    @Bean
+    public RouterFunction<ServerResponse> mappingRoutes(MappingHandler handler) {
+        return handler.routes();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> requestParamRoutes(RequestParamHandler handler) {
+        return handler.routes();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> requestBodyJsonRoutes(RequestBodyJsonHandler handler) {
+        return handler.routes();
+    }
+}
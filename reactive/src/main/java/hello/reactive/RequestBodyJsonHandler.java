@@ -0,0 +1,116 @@
+package hello.reactive;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.springmvc.ch6.basic.HelloData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RequestPredicate;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * RequestBodyJsonController 와 같은 경로 (HTTP 요청 메시지 - JSON)
+ *
+ * HelloData 는 bodyToMono 로 읽는다. Jackson2JsonDecoder 가 DataBuffer 가 들어오는 대로 파싱한다. (ReactiveCodecConfig)
+ * 서블릿 쪽에서 스트림 파싱(-stream), 요청 스레드 밖 실행(-async)으로 나눴던 것은 여기서는 모두 같은 방식이다.
+ * 바디가 없거나 JSON 이 깨지면 400
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RequestBodyJsonHandler {
+
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    /*
+        v3 ~ v6 의 consumes, produces (서블릿 쪽과 같은 순서, Accept 가 없거나 *\/* 이면 JSON)
+     */
+    private static final List<MediaType> BODY_TYPES =
+            List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+    private static final RequestPredicate CONSUMES_BODY_TYPES = contentType(BODY_TYPES.toArray(new MediaType[0]));
+
+    private final ObjectMapper objectMapper;
+
+    public RouterFunction<ServerResponse> routes() {
+        return route()
+                //문자열로 먼저 받아서 ObjectMapper 로 변환 (v1, v2)
+                .POST("/request-body-json-v1", this::fromString)
+                .POST("/request-body-json-v2", this::fromString)
+                .POST("/request-body-json-stream", this::decode)
+                .POST("/request-body-json-async", this::decode)
+                .POST("/request-body-json-v3", CONSUMES_BODY_TYPES, this::decode)
+                .POST("/request-body-json-v4", CONSUMES_BODY_TYPES, this::decode)
+                .POST("/request-body-json-v5", CONSUMES_BODY_TYPES, request -> echo(request, HttpStatus.OK))
+                .POST("/request-body-resp-entity", CONSUMES_BODY_TYPES, request -> echo(request, HttpStatus.OK))
+                .POST("/request-body-entity", CONSUMES_BODY_TYPES, request -> echo(request, HttpStatus.CREATED))
+                .build();
+    }
+
+    private Mono<ServerResponse> fromString(ServerRequest request) {
+        return request.bodyToMono(String.class)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Required request body is missing")))
+                .map(this::readHelloData)
+                .doOnNext(RequestBodyJsonHandler::logHelloData)
+                .then(ServerResponse.ok().bodyValue("ok"));
+    }
+
+    private Mono<ServerResponse> decode(ServerRequest request) {
+        return helloData(request)
+                .doOnNext(RequestBodyJsonHandler::logHelloData)
+                .then(ServerResponse.ok().bodyValue("ok"));
+    }
+
+    /*
+        받은 HelloData 를 그대로 돌려준다. 응답 형식은 Accept 로 고른다.
+     */
+    private Mono<ServerResponse> echo(ServerRequest request, HttpStatus status) {
+        MediaType produce = produce(request);
+        return helloData(request)
+                .doOnNext(RequestBodyJsonHandler::logHelloData)
+                .flatMap(data -> ServerResponse.status(status).contentType(produce).bodyValue(data));
+    }
+
+    private static Mono<HelloData> helloData(ServerRequest request) {
+        return request.bodyToMono(HelloData.class)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Required request body is missing")));
+    }
+
+    private HelloData readHelloData(String messageBody) {
+        try {
+            return objectMapper.readValue(messageBody, HelloData.class);
+        } catch (JsonProcessingException e) {
+            throw new ServerWebInputException("invalid HelloData : " + e.getOriginalMessage());
+        }
+    }
+
+    private static MediaType produce(ServerRequest request) {
+        List<MediaType> accept = new ArrayList<>(request.headers().accept());
+        MediaType.sortBySpecificityAndQuality(accept);
+        for (MediaType acceptable : accept) {
+            for (MediaType bodyType : BODY_TYPES) {
+                if (acceptable.isCompatibleWith(bodyType)) {
+                    return bodyType;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private static void logHelloData(HelloData data) {
+        log.info("{}, {}", kv("username", data.getUsername()), kv("age", data.getAge()));
+    }
+}
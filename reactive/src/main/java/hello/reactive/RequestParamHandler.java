@@ -0,0 +1,130 @@
+package hello.reactive;
+
+import hello.springmvc.ch6.basic.HelloData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Consumer;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+import static org.springframework.web.reactive.function.server.RequestPredicates.path;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * RequestParamController 와 같은 경로 (쿼리 파라미터, HTML Form)
+ *
+ * 서블릿의 request.getParameter 는 쿼리 파라미터와 폼 바디를 합쳐서 보여준다.
+ * WebFlux 는 폼 바디를 따로 (논블로킹으로) 읽어야 하므로 Content-Type 이 폼일 때만 formData 를 읽어서 합친다.
+ *
+ * 필수 파라미터가 없거나 age 가 숫자가 아니면 400 (ServerWebInputException)
+ */
+@Slf4j
+@Component
+public class RequestParamHandler {
+
+    public RouterFunction<ServerResponse> routes() {
+        return route()
+                //HTTP 메서드 모두 허용 (@RequestMapping)
+                .route(path("/request-param-v1"), request -> handle(request, this::optional))
+                .route(path("/request-param-v2"), request -> handle(request, this::required))
+                .route(path("/request-param-v3"), request -> handle(request, this::required))
+                .route(path("/request-param-v4"), request -> handle(request, this::optional))
+                .route(path("/request-required"), request -> handle(request, this::withDefaults))
+                .route(path("/request-map"), request -> handle(request, this::map))
+                .route(path("/request-multi-map"), request -> handle(request, this::multiMap))
+                .route(path("/model-attribute-v1"), request -> handle(request, this::modelAttribute))
+                .route(path("/model-attribute-v2"), request -> handle(request, this::modelAttribute))
+                .build();
+    }
+
+    private static Mono<ServerResponse> handle(ServerRequest request, Consumer<MultiValueMap<String, String>> handler) {
+        return params(request)
+                .doOnNext(handler)
+                .then(ServerResponse.ok().bodyValue("ok"));
+    }
+
+    /*
+        username, age 가 없어도 된다. (v1 RequestParams, v4 애노테이션 생략)
+     */
+    private void optional(MultiValueMap<String, String> params) {
+        String age = params.getFirst("age");
+        log.info("{}, {}", kv("username", params.getFirst("username")), kv("age", age == null ? null : parseAge(age)));
+    }
+
+    private void required(MultiValueMap<String, String> params) {
+        log.info("{}, {}", kv("username", require(params, "username")), kv("age", parseAge(require(params, "age"))));
+    }
+
+    private void withDefaults(MultiValueMap<String, String> params) {
+        String username = params.getFirst("username");
+        String age = params.getFirst("age");
+        log.info("{}, {}", kv("username", username == null || username.isEmpty() ? "guest" : username),
+                kv("age", age == null || age.isEmpty() ? 10 : parseAge(age)));
+    }
+
+    private void map(MultiValueMap<String, String> params) {
+        log.info("{}, {}", kv("username", params.getFirst("username")), kv("age", params.getFirst("age")));
+    }
+
+    private void multiMap(MultiValueMap<String, String> params) {
+        log.info("{}, {}", kv("username", params.get("username")), kv("age", params.get("age")));
+    }
+
+    /*
+        @ModelAttribute HelloData - 파라미터 이름으로 프로퍼티를 채운다.
+     */
+    private void modelAttribute(MultiValueMap<String, String> params) {
+        HelloData helloData = new HelloData();
+        String username = params.getFirst("username");
+        if (username != null) {
+            helloData.setUsername(username);
+        }
+        String age = params.getFirst("age");
+        if (age != null && !age.isEmpty()) {
+            helloData.setAge(parseAge(age));
+        }
+        log.info("{}, {}", kv("username", helloData.getUsername()), kv("age", helloData.getAge()));
+    }
+
+    /*
+        쿼리 파라미터 + (폼이면) 폼 바디
+     */
+    private static Mono<MultiValueMap<String, String>> params(ServerRequest request) {
+        boolean form = request.headers().contentType()
+                .filter(MediaType.APPLICATION_FORM_URLENCODED::isCompatibleWith)
+                .isPresent();
+        if (!form) {
+            return Mono.just(request.queryParams());
+        }
+        return request.formData().map(formData -> {
+            MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+            params.addAll(request.queryParams());
+            params.addAll(formData);
+            return params;
+        });
+    }
+
+    private static String require(MultiValueMap<String, String> params, String name) {
+        String value = params.getFirst(name);
+        if (value == null) {
+            throw new ServerWebInputException("Required request parameter '" + name + "' is not present");
+        }
+        return value;
+    }
+
+    private static int parseAge(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("age is not a number : " + value);
+        }
+    }
+}
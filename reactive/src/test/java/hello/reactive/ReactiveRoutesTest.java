@@ -0,0 +1,67 @@
+package hello.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+
+@SpringBootTest(properties = "spring.config.name=reactive")
+@AutoConfigureWebTestClient
+class ReactiveRoutesTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Test
+    void requestParamsFromQueryAndForm() {
+        webTestClient.get().uri("/request-param-v2?username=hello&age=20")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("ok");
+
+        webTestClient.post().uri("/request-param-v3?username=hello")
+                .body(BodyInserters.fromFormData("age", "20"))
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get().uri("/request-param-v2?username=hello")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void helloDataBodyEchoedByAccept() {
+        webTestClient.post().uri("/request-body-entity")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"username\":\"hello\",\"age\":20}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().jsonPath("$.username").isEqualTo("hello");
+
+        //CBOR 는 Accept 로 명시했을 때만
+        webTestClient.post().uri("/request-body-entity")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_CBOR)
+                .bodyValue("{\"username\":\"hello\",\"age\":20}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR);
+
+        webTestClient.post().uri("/request-body-json-v3")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"username\":")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void missingOrderIsNotFound() {
+        webTestClient.get().uri("/mapping/users/nobody/orders/1")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
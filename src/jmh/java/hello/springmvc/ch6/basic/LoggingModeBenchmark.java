@@ -0,0 +1,106 @@
+package hello.springmvc.ch6.basic;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Spring MVC Chapter 6 - 기본기능
+ * 2. 로깅 - 출력 방식별 요청 스레드 지연시간
+ *
+ * logback-spring.xml 의 네 가지 출력 방식을 같은 구성으로 만들고 (콘솔 대신 파일)
+ * 핸들러와 같은 kv 로그 한 줄을 여러 스레드에서 동시에 남길 때 호출 스레드가 얼마나 묶이는지 측정한다.
+ * 백분위 지연시간은 -PjmhLatency 로 실행한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoggingModeBenchmark {
+
+    @Param({"CONSOLE", "ASYNC_CONSOLE", "JSON", "ASYNC_JSON"})
+    private String appender;
+
+    private LoggerContext context;
+    private Logger log;
+    private File file;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = new LoggerContext();
+        file = Files.createTempFile("logging-mode-", ".log").toFile();
+
+        boolean json = appender.endsWith("JSON");
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setFile(file.getAbsolutePath());
+        fileAppender.setEncoder(json ? jsonEncoder() : patternEncoder());
+        fileAppender.start();
+
+        Appender<ILoggingEvent> root = fileAppender;
+        if (appender.startsWith("ASYNC")) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.addAppender(fileAppender);
+            asyncAppender.start();
+            root = asyncAppender;
+        }
+
+        log = context.getLogger(LoggingModeBenchmark.class);
+        log.setLevel(Level.INFO);
+        log.setAdditive(false);
+        log.addAppender(root);
+    }
+
+    private Encoder<ILoggingEvent> patternEncoder() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} %5p [%t] %logger{39} : %m%n");
+        encoder.start();
+        return encoder;
+    }
+
+    private Encoder<ILoggingEvent> jsonEncoder() {
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.start();
+        return encoder;
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+        file.delete();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void handlerLog() {
+        log.info("{}, {}", kv("username", "hello"), kv("age", 20));
+    }
+}
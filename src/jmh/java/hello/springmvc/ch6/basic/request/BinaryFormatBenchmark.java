@@ -0,0 +1,76 @@
+package hello.springmvc.ch6.basic.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import hello.springmvc.ch6.basic.HelloData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring MVC Chapter 6 - 기본기능
+ * 10. HTTP 요청 메시지 - JSON / CBOR / Smile
+ *
+ * 같은 HelloData 를 형식별 ObjectMapper(ObjectReader, ObjectWriter)로 읽고 쓰는 시간 비교
+ * 형식별 바이트 수는 setUp 에서 한 번 출력한다.
+ * recordCount=1 은 HelloData 하나 (v5 에코), 그보다 크면 HelloData 배열
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BinaryFormatBenchmark {
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    private String format;
+
+    @Param({"1", "100"})
+    private int recordCount;
+
+    private Object value;
+    private ObjectReader reader;
+    private ObjectWriter writer;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = objectMapper(format);
+        HelloData[] array = CompressionBenchmark.helloDataArray(recordCount);
+        value = recordCount == 1 ? array[0] : array;
+        reader = objectMapper.readerFor(value.getClass());
+        writer = objectMapper.writerFor(value.getClass());
+        encoded = writer.writeValueAsBytes(value);
+        System.out.printf("%nformat=%s recordCount=%d size=%dB%n", format, recordCount, encoded.length);
+    }
+
+    @Benchmark
+    public Object parse() throws IOException {
+        return reader.readValue(encoded);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(value);
+    }
+
+    private static ObjectMapper objectMapper(String format) {
+        switch (format) {
+            case "CBOR":
+                return new ObjectMapper(new CBORFactory());
+            case "SMILE":
+                return new ObjectMapper(new SmileFactory());
+            default:
+                return new ObjectMapper();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package hello.springmvc.ch6.basic.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.springmvc.ch6.basic.HelloData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Spring MVC Chapter 6 - 기본기능
+ * 10. HTTP 요청 메시지 - JSON (압축)
+ *
+ * HelloData 배열 JSON(recordCount 건)을 gzip, deflate 로 압축/해제하는 CPU 비용
+ * - compress*     : 응답 압축 (톰캣 server.compression 과 같은 기본 압축 레벨)
+ * - read*         : RequestDecompressionFilter 처럼 스트림으로 풀면서 바로 파싱 (JsonCodecs)
+ * 압축 전후 바이트 수는 setUp 에서 한 번 출력한다. (줄어든 바이트 vs 늘어난 시간 비교용)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CompressionBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int recordCount;
+
+    private JsonCodecs jsonCodecs;
+    private byte[] json;
+    private byte[] gzip;
+    private byte[] deflate;
+
+    @Setup
+    public void setUp() throws IOException {
+        jsonCodecs = new JsonCodecs(new ObjectMapper());
+        json = jsonCodecs.writer(HelloData[].class).writeValueAsBytes(helloDataArray(recordCount));
+        gzip = compressGzip();
+        deflate = compressDeflate();
+        System.out.printf("%nrecordCount=%d json=%dB gzip=%dB (%.1f%%) deflate=%dB (%.1f%%)%n",
+                recordCount, json.length,
+                gzip.length, 100.0 * gzip.length / json.length,
+                deflate.length, 100.0 * deflate.length / json.length);
+    }
+
+    @Benchmark
+    public byte[] compressGzip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (OutputStream gzipOut = new GZIPOutputStream(out, 8192)) {
+            gzipOut.write(json);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] compressDeflate() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (OutputStream deflateOut = new DeflaterOutputStream(out)) {
+            deflateOut.write(json);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public HelloData[] readIdentity() throws IOException {
+        return jsonCodecs.read(new ByteArrayInputStream(json), HelloData[].class);
+    }
+
+    @Benchmark
+    public HelloData[] readGzip() throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip), 8192)) {
+            return jsonCodecs.read(in, HelloData[].class);
+        }
+    }
+
+    @Benchmark
+    public HelloData[] readDeflate() throws IOException {
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(deflate))) {
+            return jsonCodecs.read(in, HelloData[].class);
+        }
+    }
+
+    /*
+        username 은 "user" + 난수, age 는 0 ~ 99 (같은 시드라서 매번 같은 바디)
+     */
+    static HelloData[] helloDataArray(int count) {
+        Random random = new Random(42);
+        List<HelloData> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            HelloData helloData = new HelloData();
+            helloData.setUsername("user" + random.nextInt(1_000_000));
+            helloData.setAge(random.nextInt(100));
+            list.add(helloData);
+        }
+        return list.toArray(new HelloData[0]);
+    }
+}
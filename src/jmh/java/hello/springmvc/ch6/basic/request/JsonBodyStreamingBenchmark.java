@@ -0,0 +1,71 @@
+package hello.springmvc.ch6.basic.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.springmvc.ch6.basic.HelloData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring MVC Chapter 6 - 기본기능
+ * 10. HTTP 요청 메시지 - JSON
+ *
+ * requestBodyJsonV1(copyToString + readValue) 과 requestBodyJsonStream(JsonCodecs.read) 의
+ * 바디 크기별 요청당 할당 바이트(gc.alloc.rate.norm) 비교
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JsonBodyStreamingBenchmark {
+
+    /*
+        1 KB, 100 KB, 10 MB
+     */
+    @Param({"1024", "102400", "10485760"})
+    private int bodySize;
+
+    private byte[] body;
+    private ObjectMapper objectMapper;
+    private JsonCodecs jsonCodecs;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        jsonCodecs = new JsonCodecs(objectMapper);
+        body = helloDataJson(bodySize);
+    }
+
+    @Benchmark
+    public HelloData copyToStringThenReadValue() throws IOException {
+        String messageBody = StreamUtils.copyToString(new ByteArrayInputStream(body), StandardCharsets.UTF_8);
+        return objectMapper.readValue(messageBody, HelloData.class);
+    }
+
+    @Benchmark
+    public HelloData streamingParser() throws IOException {
+        return jsonCodecs.read(new ByteArrayInputStream(body), HelloData.class);
+    }
+
+    /*
+        {"username":"aaaa...","age":20} 형태로 전체 크기가 size 바이트가 되도록 username 을 채운다.
+     */
+    static byte[] helloDataJson(int size) {
+        String prefix = "{\"username\":\"";
+        String suffix = "\",\"age\":20}";
+        char[] username = new char[Math.max(1, size - prefix.length() - suffix.length())];
+        Arrays.fill(username, 'a');
+        return (prefix + new String(username) + suffix).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,100 @@
+package hello.springmvc.ch6.basic.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.springmvc.ch6.basic.HelloData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring MVC Chapter 6 - 기본기능
+ * 10. HTTP 요청 메시지 - JSON
+ *
+ * 컨트롤러마다 new ObjectMapper() 를 쓰는 방식과 미리 데워둔 JsonCodecs(ObjectReader) 비교
+ * - firstRequest* : 배포 직후 첫 요청(캐시가 빈 ObjectMapper) 지연시간, SingleShotTime
+ * - steadyState*  : 캐시가 찬 이후 요청당 처리량
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JsonCodecsBenchmark {
+
+    private static final byte[] JSON = "{\"username\":\"hello\", \"age\":20}".getBytes(StandardCharsets.UTF_8);
+
+    /*
+        호출 때마다 새로 만든(=배포 직후) ObjectMapper 와 JsonCodecs
+     */
+    @State(Scope.Thread)
+    public static class Cold {
+        ObjectMapper objectMapper;
+        JsonCodecs jsonCodecs;
+
+        @Setup(Level.Invocation)
+        public void setUp() throws IOException {
+            objectMapper = new ObjectMapper();
+            jsonCodecs = new JsonCodecs(new ObjectMapper());
+            jsonCodecs.warmUp();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Warm {
+        ObjectMapper objectMapper;
+        JsonCodecs jsonCodecs;
+
+        @Setup
+        public void setUp() throws IOException {
+            objectMapper = new ObjectMapper();
+            jsonCodecs = new JsonCodecs(objectMapper);
+            jsonCodecs.warmUp();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public HelloData firstRequestObjectMapper(Cold cold) throws IOException {
+        return cold.objectMapper.readValue(JSON, HelloData.class);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public HelloData firstRequestPreWarmedReader(Cold cold) throws IOException {
+        return cold.jsonCodecs.reader(HelloData.class).readValue(JSON);
+    }
+
+    @Benchmark
+    public HelloData steadyStateObjectMapper(Warm warm) throws IOException {
+        return warm.objectMapper.readValue(JSON, HelloData.class);
+    }
+
+    @Benchmark
+    public HelloData steadyStateReader(Warm warm) throws IOException {
+        return warm.jsonCodecs.reader(HelloData.class).readValue(JSON);
+    }
+
+    @Benchmark
+    public byte[] steadyStateObjectMapperWrite(Warm warm) throws IOException {
+        HelloData helloData = new HelloData();
+        helloData.setUsername("hello");
+        helloData.setAge(20);
+        return warm.objectMapper.writeValueAsBytes(helloData);
+    }
+
+    @Benchmark
+    public byte[] steadyStateWriter(Warm warm) throws IOException {
+        HelloData helloData = new HelloData();
+        helloData.setUsername("hello");
+        helloData.setAge(20);
+        return warm.jsonCodecs.writer(HelloData.class).writeValueAsBytes(helloData);
+    }
+}
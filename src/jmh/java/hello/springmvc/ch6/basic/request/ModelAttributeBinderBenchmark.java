@@ -0,0 +1,71 @@
+package hello.springmvc.ch6.basic.request;
+
+import hello.springmvc.ch6.basic.HelloData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.MethodParameter;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.support.ConfigurableWebBindingInitializer;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.ServletModelAttributeMethodProcessor;
+import org.springframework.web.servlet.mvc.method.annotation.ServletRequestDataBinderFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring MVC Chapter 6 - 기본기능
+ * 8. HTTP 요청 파라미터 - @ModelAttribute
+ *
+ * 기본 ServletModelAttributeMethodProcessor(WebDataBinder) 와
+ * DirectModelAttributeResolver(HelloDataBinder) 의 HelloData 바인딩 비용 비교
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ModelAttributeBinderBenchmark {
+
+    private MethodParameter parameter;
+    private WebDataBinderFactory binderFactory;
+    private ServletModelAttributeMethodProcessor defaultResolver;
+    private DirectModelAttributeResolver directResolver;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() throws Exception {
+        parameter = new MethodParameter(
+                RequestParamController.class.getMethod("modelAttributeV1", HelloData.class), 0);
+
+        ConfigurableWebBindingInitializer initializer = new ConfigurableWebBindingInitializer();
+        initializer.setConversionService(new DefaultFormattingConversionService());
+        binderFactory = new ServletRequestDataBinderFactory(Collections.emptyList(), initializer);
+
+        defaultResolver = new ServletModelAttributeMethodProcessor(false);
+        directResolver = new DirectModelAttributeResolver(List.of(new HelloDataBinder()));
+
+        request = new MockHttpServletRequest("GET", "/model-attribute-v1");
+        request.addParameter("username", "hello");
+        request.addParameter("age", "20");
+    }
+
+    @Benchmark
+    public Object webDataBinder() throws Exception {
+        return defaultResolver.resolveArgument(parameter, new ModelAndViewContainer(),
+                new ServletWebRequest(request), binderFactory);
+    }
+
+    @Benchmark
+    public Object directBinder() throws Exception {
+        return directResolver.resolveArgument(parameter, new ModelAndViewContainer(),
+                new ServletWebRequest(request), binderFactory);
+    }
+}
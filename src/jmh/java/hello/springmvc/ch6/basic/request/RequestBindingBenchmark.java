@@ -0,0 +1,142 @@
+package hello.springmvc.ch6.basic.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Spring MVC Chapter 6 - 기본기능
+ * 6 ~ 10. 요청 파라미터 / 요청 메시지 바인딩 방식 비교 벤치마크
+ *
+ * 같은 username, age 를 받는 핸들러들을 MockMvc(DispatcherServlet) 로 호출해서
+ * 바인딩 방식별 처리량과 요청당 할당 바이트(-prof gc)를 나란히 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RequestBindingBenchmark {
+
+    private static final String JSON_BODY = "{\"username\":\"hello\", \"age\":20}";
+
+    private MockMvc mockMvc;
+
+    @Setup
+    public void setUp() throws Exception {
+        JsonCodecs jsonCodecs = new JsonCodecs(new ObjectMapper());
+        jsonCodecs.warmUp();
+        RequestBodyExecutor requestBodyExecutor = new RequestBodyExecutor(new RequestBodyExecutionProperties());
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new RequestParamController(),
+                        new RequestBodyJsonController(jsonCodecs, requestBodyExecutor))
+                .setCustomArgumentResolvers(new RequestParamsArgumentResolver())
+                .build();
+    }
+
+    /*
+        요청 파라미터 - 쿼리 파라미터
+     */
+    @Benchmark
+    public MvcResult requestParamV1() throws Exception {
+        return perform(params(get("/request-param-v1")));
+    }
+
+    @Benchmark
+    public MvcResult requestParamV2() throws Exception {
+        return perform(params(get("/request-param-v2")));
+    }
+
+    @Benchmark
+    public MvcResult requestParamV3() throws Exception {
+        return perform(params(get("/request-param-v3")));
+    }
+
+    @Benchmark
+    public MvcResult requestParamV4() throws Exception {
+        return perform(params(get("/request-param-v4")));
+    }
+
+    @Benchmark
+    public MvcResult requestParamMap() throws Exception {
+        return perform(params(get("/request-map")));
+    }
+
+    @Benchmark
+    public MvcResult requestParamMultiMap() throws Exception {
+        return perform(params(get("/request-multi-map")));
+    }
+
+    @Benchmark
+    public MvcResult modelAttributeV1() throws Exception {
+        return perform(params(get("/model-attribute-v1")));
+    }
+
+    @Benchmark
+    public MvcResult modelAttributeV2() throws Exception {
+        return perform(params(get("/model-attribute-v2")));
+    }
+
+    /*
+        요청 메시지 - JSON
+        v1, v2 : 바디를 String 으로 읽은 뒤 objectMapper.readValue
+        v3 ~ v5 : HTTP 메시지 컨버터 바인딩
+     */
+    @Benchmark
+    public MvcResult requestBodyJsonV1() throws Exception {
+        return perform(json(post("/request-body-json-v1")));
+    }
+
+    @Benchmark
+    public MvcResult requestBodyJsonV2() throws Exception {
+        return perform(json(post("/request-body-json-v2")));
+    }
+
+    @Benchmark
+    public MvcResult requestBodyJsonV3() throws Exception {
+        return perform(json(post("/request-body-json-v3")));
+    }
+
+    @Benchmark
+    public MvcResult requestBodyJsonV4() throws Exception {
+        return perform(json(post("/request-body-json-v4")));
+    }
+
+    @Benchmark
+    public MvcResult requestBodyJsonV5() throws Exception {
+        return perform(json(post("/request-body-json-v5")));
+    }
+
+    /*
+        v1 은 DeferredResult 를 반환한다. (sync 모드면 이미 채워져 있음) 응답까지 쓰도록 비동기 디스패치를 이어서 한다.
+     */
+    private MvcResult perform(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            return mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        return result;
+    }
+
+    private static MockHttpServletRequestBuilder params(MockHttpServletRequestBuilder request) {
+        return request.param("username", "hello").param("age", "20");
+    }
+
+    private static MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request) {
+        return request.contentType(MediaType.APPLICATION_JSON).content(JSON_BODY);
+    }
+}
@@ -0,0 +1,84 @@
+package hello.springmvc.ch6.basic.request;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.annotation.RequestParamMapMethodArgumentResolver;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring MVC Chapter 6 - 기본기능
+ * 7. HTTP 요청 파라미터 - @RequestParam Map, MultiValueMap
+ *
+ * 파라미터가 paramCount 개인 요청에서 username, age 두 개만 읽을 때
+ * 기본 RequestParamMapMethodArgumentResolver(전체 복사) 와 LazyRequestParamMapResolver(뷰) 비교
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RequestParamMapBenchmark {
+
+    @Param({"2", "50", "200"})
+    private int paramCount;
+
+    private MethodParameter mapParameter;
+    private MethodParameter multiMapParameter;
+    private RequestParamMapMethodArgumentResolver defaultResolver;
+    private LazyRequestParamMapResolver lazyResolver;
+    private ServletWebRequest webRequest;
+
+    @Setup
+    public void setUp() throws Exception {
+        mapParameter = new MethodParameter(
+                RequestParamController.class.getMethod("requestMapParam", Map.class), 0);
+        multiMapParameter = new MethodParameter(
+                RequestParamController.class.getMethod("requestMultiMapParam", MultiValueMap.class), 0);
+        defaultResolver = new RequestParamMapMethodArgumentResolver();
+        lazyResolver = new LazyRequestParamMapResolver();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/request-map");
+        request.addParameter("username", "hello");
+        request.addParameter("age", "20");
+        for (int i = 2; i < paramCount; i++) {
+            request.addParameter("param" + i, "value" + i);
+        }
+        webRequest = new ServletWebRequest(request);
+    }
+
+    @Benchmark
+    public void defaultMap(Blackhole blackhole) throws Exception {
+        read((Map<?, ?>) defaultResolver.resolveArgument(mapParameter, null, webRequest, null), blackhole);
+    }
+
+    @Benchmark
+    public void lazyMap(Blackhole blackhole) throws Exception {
+        read((Map<?, ?>) lazyResolver.resolveArgument(mapParameter, null, webRequest, null), blackhole);
+    }
+
+    @Benchmark
+    public void defaultMultiValueMap(Blackhole blackhole) throws Exception {
+        read((Map<?, ?>) defaultResolver.resolveArgument(multiMapParameter, null, webRequest, null), blackhole);
+    }
+
+    @Benchmark
+    public void lazyMultiValueMap(Blackhole blackhole) throws Exception {
+        read((Map<?, ?>) lazyResolver.resolveArgument(multiMapParameter, null, webRequest, null), blackhole);
+    }
+
+    private static void read(Map<?, ?> params, Blackhole blackhole) {
+        blackhole.consume(params.get("username"));
+        blackhole.consume(params.get("age"));
+    }
+}
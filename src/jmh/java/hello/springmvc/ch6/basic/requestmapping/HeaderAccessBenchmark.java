@@ -0,0 +1,140 @@
+package hello.springmvc.ch6.basic.requestmapping;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Spring MVC Chapter 6 - 기본기능
+ * 5. HTTP 요청 - 헤더 조회 비용
+ *
+ * legacyHeaders : 이전 RequestHeaderController.headers (@RequestHeader MultiValueMap)
+ * lazyHeaders   : 지금의 RequestHeaderController.headers (RequestHeaders)
+ * cookieResolver : DEFAULT = 스프링 기본 @CookieValue resolver (request.getCookies), SINGLE = SingleCookieValueResolver
+ * 헤더/쿠키 개수(headerCount)를 늘려도 lazyHeaders + SINGLE 의 요청당 할당 바이트가 그대로인지 본다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class HeaderAccessBenchmark {
+
+    @Param({"4", "32"})
+    private int headerCount;
+
+    @Param({"DEFAULT", "SINGLE"})
+    private String cookieResolver;
+
+    private AnnotationConfigWebApplicationContext context;
+    private MockMvc mockMvc;
+    private String cookieHeader;
+
+    @RestController
+    static class LegacyHeaderController {
+        @RequestMapping("/headers-legacy")
+        public String headers(HttpServletRequest request,
+                              HttpServletResponse response,
+                              HttpMethod httpMethod,
+                              Locale locale,
+                              @RequestHeader MultiValueMap<String, String> headerMap,
+                              @RequestHeader("host") String host,
+                              @CookieValue(value = "myCookie", required = false) String cookie) {
+            return "ok";
+        }
+    }
+
+    @Configuration
+    @EnableWebMvc
+    static class MvcConfig {
+        @Bean
+        RequestHeaderController requestHeaderController() {
+            return new RequestHeaderController();
+        }
+
+        @Bean
+        LegacyHeaderController legacyHeaderController() {
+            return new LegacyHeaderController();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.register(MvcConfig.class);
+        context.refresh();
+
+        //HandlerAdapterCustomizer 와 같이 맨 앞에 등록 (기본 @CookieValue resolver 보다 먼저)
+        RequestMappingHandlerAdapter adapter = context.getBean(RequestMappingHandlerAdapter.class);
+        List<HandlerMethodArgumentResolver> resolvers = new ArrayList<>();
+        resolvers.add(new RequestHeadersArgumentResolver());
+        if ("SINGLE".equals(cookieResolver)) {
+            resolvers.add(new SingleCookieValueResolver(context.getBeanFactory()));
+        }
+        resolvers.addAll(adapter.getArgumentResolvers());
+        adapter.setArgumentResolvers(resolvers);
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        StringBuilder cookies = new StringBuilder();
+        for (int i = 0; i < headerCount; i++) {
+            cookies.append("cookie").append(i).append("=value").append(i).append("; ");
+        }
+        cookieHeader = cookies.append("myCookie=hello").toString();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult legacyHeaders() throws Exception {
+        return mockMvc.perform(request("/headers-legacy")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult lazyHeaders() throws Exception {
+        return mockMvc.perform(request("/headers")).andReturn();
+    }
+
+    private MockHttpServletRequestBuilder request(String path) {
+        MockHttpServletRequestBuilder request = get(path)
+                .header("host", "localhost:8080")
+                .header("Cookie", cookieHeader);
+        for (int i = 0; i < headerCount; i++) {
+            request.header("X-Header-" + i, "value" + i);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,87 @@
+package hello.springmvc.ch6.basic.requestmapping.user;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 저널을 켠 UserStore 변경 처리량 (변경마다 디스크에 내려갈 때까지 기다림)
+ *
+ * groupCommitMicros: 0 이면 쓰기 스레드가 모으지 않고 바로 force, 요청이 몰리면 그동안 쌓인 만큼만 같이 간다.
+ * 스레드 수를 늘려가며 ops/s 가 fsync 횟수가 아니라 디스크 대역폭에 묶이는지 본다.
+ * 결과는 임시 디렉터리의 디스크에 따라 크게 다르다. (tmpfs 면 fsync 가 공짜라 의미 없음)
+ *  ./gradlew jmh -PjmhIncludes=UserJournalBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+public class UserJournalBenchmark {
+
+    private static final int USERS = 100_000;
+
+    @Param({"0", "2000"})
+    private long groupCommitMicros;
+
+    private Path directory;
+    private FileUserJournal journal;
+    private UserStore store;
+    private String[] userIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("user-journal-bench");
+        journal = new FileUserJournal(directory, 64L << 20, Duration.ofNanos(groupCommitMicros * 1000), 8);
+        store = new UserStore(journal, USERS);
+        userIds = new String[USERS];
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < USERS; i++) {
+            userIds[i] = "user" + i;
+            store.create(userIds[i], now);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        journal.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean update1() {
+        return update();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean update16() {
+        return update();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean update64() {
+        return update();
+    }
+
+    private boolean update() {
+        return store.update(userIds[ThreadLocalRandom.current().nextInt(USERS)], System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,84 @@
+package hello.springmvc.ch6.basic.requestmapping.user;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 저널 복구 시간 (재시작할 때 UserStore 를 되살리는 시간)
+ *
+ * Setup 에서 records 건(사용자 생성 1 + 주문 추가 9 씩)을 세그먼트 파일로 써 두고
+ * 매번 새 UserStore 를 만들어 전부 다시 적용하는 시간을 잰다. (compaction 없음, 세그먼트만 읽음)
+ *  ./gradlew jmh -PjmhIncludes=UserJournalRecoveryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class UserJournalRecoveryBenchmark {
+
+    private static final int ORDERS_PER_USER = 9;
+
+    @Param({"10000000"})
+    private int records;
+
+    private Path directory;
+    private FileUserJournal journal;
+
+    @Setup(Level.Trial)
+    public void write() throws Exception {
+        directory = Files.createTempDirectory("user-journal-recovery");
+        FileUserJournal writer = newJournal();
+        writer.open(new UserStore());
+        long now = System.currentTimeMillis();
+        long sequence = 0;
+        int users = records / (ORDERS_PER_USER + 1);
+        for (int i = 0; i < users; i++) {
+            String userId = "user" + i;
+            writer.append(UserMutation.CREATE, userId, 0, now);
+            for (int order = 0; order < ORDERS_PER_USER; order++) {
+                sequence = writer.append(UserMutation.ADD_ORDER, userId, (long) i * ORDERS_PER_USER + order, now);
+            }
+        }
+        writer.awaitDurable(sequence);
+        writer.close();
+    }
+
+    @TearDown(Level.Invocation)
+    public void close() throws Exception {
+        journal.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws Exception {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public UserStore recover() {
+        journal = newJournal();
+        return new UserStore(journal, records / (ORDERS_PER_USER + 1));
+    }
+
+    private FileUserJournal newJournal() {
+        return new FileUserJournal(directory, 64L << 20, Duration.ZERO, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,95 @@
+package hello.springmvc.ch6.basic.requestmapping.user;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserStore 읽기/쓰기 혼합 부하
+ *
+ * users      : 저장된 사용자 수 (사용자마다 주문 2건)
+ * readPercent: 읽기(주문 포함 여부) 비율, 나머지는 주문 추가/삭제, 사용자 수정
+ *
+ * SampleTime 모드라 결과에 p99, p99.9 가 같이 나온다.
+ * 힙 사용량은 Setup 에서 채우기 전후 used heap 차이를 사용자 수로 나눠 찍는다. (userId 문자열은 제외)
+ *  ./gradlew jmh -PjmhIncludes=UserStoreBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+@Threads(8)
+public class UserStoreBenchmark {
+
+    @Param({"1000000", "10000000"})
+    private int users;
+
+    @Param({"95", "50"})
+    private int readPercent;
+
+    private String[] userIds;
+    private UserStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        userIds = new String[users];
+        for (int i = 0; i < users; i++) {
+            userIds[i] = "user" + i;
+        }
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long before = usedHeap(memory);
+        store = new UserStore(users);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < users; i++) {
+            store.create(userIds[i], now);
+            store.addOrder(userIds[i], i * 2L, now);
+            store.addOrder(userIds[i], i * 2L + 1, now);
+        }
+        long after = usedHeap(memory);
+        System.out.printf("%nusers=%d, heap=%.1f MB, %.1f bytes/user (excluding userId strings)%n",
+                users, (after - before) / 1024.0 / 1024.0, (after - before) / (double) users);
+    }
+
+    private static long usedHeap(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    @Benchmark
+    public boolean mixed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int index = random.nextInt(users);
+        String userId = userIds[index];
+        int dice = random.nextInt(100);
+        if (dice < readPercent) {
+            UserStore.UserEntry user = store.get(userId);
+            return user != null && user.hasOrder(index * 2L);
+        }
+
+        long now = System.currentTimeMillis();
+        switch (dice % 3) {
+            case 0:
+                return store.addOrder(userId, users * 2L + random.nextInt(1024), now);
+            case 1:
+                return store.removeOrder(userId, users * 2L + random.nextInt(1024), now);
+            default:
+                return store.update(userId, now);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package hello.springmvc.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 사용자 단건 요청 vs 일괄 처리(/mapping/users/_bulk) 처리량 비교
+ *
+ * 같은 operations 건의 사용자 추가(이미 있어도 성공)를
+ *  1) POST /mapping/users/{userId} 로 한 건씩
+ *  2) POST /mapping/users/_bulk 로 batch-size 건씩 묶어서
+ * clients 개의 스레드로 보내고 초당 처리 건수(ops/s)와 요청 지연시간(p50, p99)을 찍는다.
+ *
+ *  ./gradlew bootRun
+ *  ./gradlew loadTest -PloadTestMain=BulkUserLoadTest -PloadTestArgs="--operations=200000 --batch-size=100"
+ */
+public class BulkUserLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(args);
+        URI baseUri = URI.create(options.get("url", "http://localhost:8080"));
+        int operations = options.getInt("operations", 200_000);
+        int batchSize = options.getInt("batch-size", 100);
+        int clients = options.getInt("clients", 32);
+        int users = options.getInt("users", 10_000);
+
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        //JIT, 커넥션 워밍업
+        run("warm-up single", clients, operations / 10, 1,
+                (from, count) -> single(httpClient, baseUri, from, users));
+        run("warm-up bulk", clients, operations / 10, batchSize,
+                (from, count) -> bulk(httpClient, baseUri, from, count, users));
+
+        run("single", clients, operations, 1,
+                (from, count) -> single(httpClient, baseUri, from, users));
+        run("bulk", clients, operations, batchSize,
+                (from, count) -> bulk(httpClient, baseUri, from, count, users));
+    }
+
+    interface Call {
+        boolean send(int from, int count) throws Exception;
+    }
+
+    private static void run(String name, int clients, int operations, int batchSize, Call call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        long start = System.nanoTime();
+
+        List<Future<LatencyRecorder>> futures = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            futures.add(executor.submit(() -> {
+                LatencyRecorder recorder = new LatencyRecorder();
+                int from;
+                while ((from = next.getAndAdd(batchSize)) < operations) {
+                    int count = Math.min(batchSize, operations - from);
+                    long requestStart = System.nanoTime();
+                    if (call.send(from, count)) {
+                        recorder.record(System.nanoTime() - requestStart);
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                }
+                return recorder;
+            }));
+        }
+
+        LatencyRecorder latency = new LatencyRecorder();
+        for (Future<LatencyRecorder> future : futures) {
+            latency.merge(future.get());
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        executor.shutdown();
+
+        System.out.printf("%-15s : %.0f ops/s, %d requests, %d failed, request p50=%.2fms, p99=%.2fms%n",
+                name, operations / seconds, latency.count(), failed.get(),
+                latency.percentileMillis(50), latency.percentileMillis(99));
+    }
+
+    private static boolean single(HttpClient httpClient, URI baseUri, int index, int users) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/mapping/users/user" + (index % users)))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+    }
+
+    private static boolean bulk(HttpClient httpClient, URI baseUri, int from, int count, int users) throws Exception {
+        StringBuilder body = new StringBuilder(count * 40 + 32).append("{\"operations\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"op\":\"add\",\"userId\":\"user").append((from + i) % users).append("\"}");
+        }
+        body.append("]}");
+
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/mapping/users/_bulk"))
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        return response.statusCode() == 200 && response.body().contains("\"failed\":0");
+    }
+}
@@ -0,0 +1,171 @@
+package hello.springmvc.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 요청 합치기(@Coalesce) 효과 - 핸들러 실행 수, p50/p99
+ *
+ * users 명의 사용자와 주문 1건을 만든 뒤, 인기 순위가 Zipf 분포(지수 zipf-s)를 따르도록 사용자를 골라
+ *   GET /mapping/users/{userId}
+ *   GET /mapping/users/{userId}/orders/1
+ * 을 반반 보낸다. 상위 몇 명에게 요청이 몰리므로 같은 키의 동시 요청이 생긴다.
+ * 실제 핸들러 실행 수는 actuator 의 hello.coalesce.requests{result=leader} 전후 차이다. (joined 는 합쳐진 요청 수)
+ *
+ * 응답 캐시가 있으면 핸들러까지 오지 않으므로 끄고(max-tags=0), 사용자별 요청 수 제한도 풀고 돌린다.
+ * 전후 비교는 hello.coalesce.enabled 만 바꿔서 같은 테스트를 돌린다. (false 면 요청 수 = 핸들러 실행 수)
+ *
+ *  ./gradlew :bootRun --args='--hello.response-cache.max-tags=0 --hello.rate-limit.rules[1].permits-per-second=1000000
+ *      --hello.rate-limit.rules[1].burst=1000000 --hello.coalesce.enabled=true'
+ *  ./gradlew loadTest -PloadTestMain=CoalesceLoadTest -PloadTestArgs="--clients=128 --users=1000 --zipf-s=1.1"
+ */
+public class CoalesceLoadTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(args);
+        URI baseUri = URI.create(options.get("url", "http://localhost:8080"));
+        URI metricsUri = URI.create(options.get("metrics", "http://127.0.0.1:8081"));
+        int clients = options.getInt("clients", 128);
+        int users = options.getInt("users", 1000);
+        double exponent = Double.parseDouble(options.get("zipf-s", "1.1"));
+        long durationNanos = TimeUnit.SECONDS.toNanos(options.getInt("duration", 20));
+
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        for (int i = 0; i < users; i++) {
+            post(httpClient, baseUri.resolve("/mapping/users/user-" + i));
+            post(httpClient, baseUri.resolve("/mapping/users/user-" + i + "/orders/1"));
+        }
+        double[] cdf = zipfCdf(users, exponent);
+        System.out.printf("%d users, zipf s=%.2f : top 1%% of users get %.0f%% of requests%n",
+                users, exponent, cdf[Math.max(0, users / 100 - 1)] * 100);
+
+        run(httpClient, baseUri, metricsUri, clients, durationNanos / 4, cdf, "warm-up");
+        run(httpClient, baseUri, metricsUri, clients, durationNanos, cdf, "zipf");
+    }
+
+    private static void run(HttpClient httpClient, URI baseUri, URI metricsUri, int clients, long durationNanos,
+                            double[] cdf, String name) throws Exception {
+        double leaderBefore = coalesced(httpClient, metricsUri, "leader");
+        double joinedBefore = coalesced(httpClient, metricsUri, "joined");
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        long deadline = System.nanoTime() + durationNanos;
+        LongAdder unavailable = new LongAdder();
+        LongAdder failed = new LongAdder();
+        List<Future<LatencyRecorder>> futures = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            futures.add(executor.submit(() -> {
+                LatencyRecorder recorder = new LatencyRecorder();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    String path = "/mapping/users/user-" + sample(cdf, random.nextDouble());
+                    if (random.nextBoolean()) {
+                        path += "/orders/1";
+                    }
+                    HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path)).GET().build();
+                    long start = System.nanoTime();
+                    int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    if (status == 200) {
+                        recorder.record(System.nanoTime() - start);
+                    } else if (status == 503) {
+                        unavailable.increment();
+                    } else {
+                        failed.increment();
+                    }
+                }
+                return recorder;
+            }));
+        }
+
+        LatencyRecorder latency = new LatencyRecorder();
+        for (Future<LatencyRecorder> future : futures) {
+            latency.merge(future.get());
+        }
+        executor.shutdown();
+
+        double leader = coalesced(httpClient, metricsUri, "leader") - leaderBefore;
+        double joined = coalesced(httpClient, metricsUri, "joined") - joinedBefore;
+        double seconds = durationNanos / 1_000_000_000.0;
+        System.out.printf("%-8s : %.0f req/s, p50=%.2fms, p99=%.2fms, %d coalesce 503, %d failed%n",
+                name, latency.count() / seconds, latency.percentileMillis(50), latency.percentileMillis(99),
+                unavailable.sum(), failed.sum());
+        if (leader + joined > 0) {
+            System.out.printf("%-8s : handler calls %.0f, joined %.0f => %.1f%% of requests ran the handler%n",
+                    name, leader, joined, leader * 100 / (leader + joined));
+        } else {
+            System.out.printf("%-8s : no hello.coalesce.requests (hello.coalesce.enabled=false?), "
+                    + "every request ran the handler%n", name);
+        }
+    }
+
+    /*
+        순위 k (1..n) 의 확률이 1/k^s 에 비례하는 누적 분포
+     */
+    static double[] zipfCdf(int n, double exponent) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1 / Math.pow(k, exponent);
+            cdf[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    /*
+        u (0 <= u < 1) 이상인 첫 누적 확률의 위치 = 사용자 번호 (이분 탐색)
+     */
+    static int sample(double[] cdf, double u) {
+        int low = 0;
+        int high = cdf.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cdf[mid] < u) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static void post(HttpClient httpClient, URI uri) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.noBody()).build();
+        int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status / 100 != 2) {
+            throw new IllegalStateException("POST " + uri + " : " + status);
+        }
+    }
+
+    /*
+        hello.coalesce.requests{result} 합계 (모든 핸들러), 아직 없으면 0
+     */
+    private static double coalesced(HttpClient httpClient, URI metricsUri, String result) throws Exception {
+        URI uri = metricsUri.resolve("/actuator/metrics/hello.coalesce.requests?tag=result:" + result);
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(uri).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 404) {
+            return 0;
+        }
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(uri + " : " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).path("measurements").path(0).path("value").asDouble();
+    }
+}
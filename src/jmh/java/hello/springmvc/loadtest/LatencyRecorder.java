@@ -0,0 +1,42 @@
+package hello.springmvc.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * 부하 테스트용 지연시간 기록 (스레드마다 하나씩 쓰고 마지막에 merge)
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int size;
+
+    public void record(long nanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+    }
+
+    public int count() {
+        return size;
+    }
+
+    public void merge(LatencyRecorder other) {
+        for (int i = 0; i < other.size; i++) {
+            record(other.samples[i]);
+        }
+    }
+
+    /*
+        percentile: 0 ~ 100, 결과는 밀리초
+     */
+    public double percentileMillis(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.min(size - 1, Math.ceil(percentile / 100.0 * size) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,35 @@
+package hello.springmvc.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 부하 테스트 공통 옵션 (--name=value)
+ */
+public class LoadTestOptions {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    public LoadTestOptions(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("options must look like --name=value : " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+    }
+
+    public String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    public int getInt(String name, int defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+}
@@ -0,0 +1,206 @@
+package hello.springmvc.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서블릿(Tomcat) vs 리액티브(WebFlux, Netty) 비교
+ *
+ * 같은 경로를 두 애플리케이션에 번갈아 보낸다.
+ *  1) 처리량 : clients 개의 스레드가 duration 초 동안 요청 (req/s, p50, p99)
+ *       GET  /hello-basic
+ *       GET  /request-param-v2?username=hello&age=20
+ *       POST /request-body-json-v3 (HelloData JSON)
+ *  2) 연결당 메모리 : 요청 하나 보내고 keep-alive 로 열어 둔 연결 idle-connections 개를 만들고
+ *     actuator 지표(heap, direct buffer, 스레드 수)의 전후 차이를 연결 수로 나눈다.
+ *     heap 은 GC 시점에 따라 흔들리므로 여러 번 돌려서 본다. (두 쪽 모두 같은 -Xmx, GC 로 띄울 것)
+ *
+ *  ./gradlew :bootRun --args='--server.tomcat.max-connections=20000'
+ *  ./gradlew :reactive:bootRun
+ *  ./gradlew loadTest -PloadTestMain=ServletVsReactiveLoadTest -PloadTestArgs="--clients=256 --idle-connections=10000"
+ */
+public class ServletVsReactiveLoadTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String HELLO_DATA = "{\"username\":\"hello\",\"age\":20}";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(args);
+        int clients = options.getInt("clients", 256);
+        long durationNanos = TimeUnit.SECONDS.toNanos(options.getInt("duration", 30));
+        int idleConnections = options.getInt("idle-connections", 10_000);
+
+        List<Target> targets = List.of(
+                new Target("servlet", URI.create(options.get("servlet-url", "http://localhost:8080")),
+                        URI.create(options.get("servlet-metrics", "http://127.0.0.1:8081"))),
+                new Target("reactive", URI.create(options.get("reactive-url", "http://localhost:8090")),
+                        URI.create(options.get("reactive-metrics", "http://127.0.0.1:8091"))));
+
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        for (Target target : targets) {
+            //JIT, 커넥션 워밍업
+            throughput(httpClient, clients, durationNanos / 3, helloBasic(target), "warm-up " + target.name);
+        }
+        for (Target target : targets) {
+            throughput(httpClient, clients, durationNanos, helloBasic(target), target.name + " GET /hello-basic");
+            throughput(httpClient, clients, durationNanos,
+                    HttpRequest.newBuilder(target.baseUri.resolve("/request-param-v2?username=hello&age=20"))
+                            .GET().build(),
+                    target.name + " GET /request-param-v2");
+            throughput(httpClient, clients, durationNanos,
+                    HttpRequest.newBuilder(target.baseUri.resolve("/request-body-json-v3"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(HELLO_DATA))
+                            .build(),
+                    target.name + " POST /request-body-json-v3");
+        }
+        for (Target target : targets) {
+            memoryPerConnection(httpClient, target, idleConnections);
+        }
+    }
+
+    private static HttpRequest helloBasic(Target target) {
+        return HttpRequest.newBuilder(target.baseUri.resolve("/hello-basic")).GET().build();
+    }
+
+    private static void throughput(HttpClient httpClient, int clients, long durationNanos, HttpRequest request,
+                                   String name) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        long deadline = System.nanoTime() + durationNanos;
+        List<Future<LatencyRecorder>> futures = new ArrayList<>();
+        long[] failed = new long[clients];
+        for (int i = 0; i < clients; i++) {
+            int client = i;
+            futures.add(executor.submit(() -> {
+                LatencyRecorder recorder = new LatencyRecorder();
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        recorder.record(System.nanoTime() - start);
+                    } else {
+                        failed[client]++;
+                    }
+                }
+                return recorder;
+            }));
+        }
+
+        LatencyRecorder latency = new LatencyRecorder();
+        for (Future<LatencyRecorder> future : futures) {
+            latency.merge(future.get());
+        }
+        executor.shutdown();
+        long failures = 0;
+        for (long count : failed) {
+            failures += count;
+        }
+
+        double seconds = durationNanos / 1_000_000_000.0;
+        System.out.printf("%-40s : %.0f req/s, %d failed, p50=%.2fms, p99=%.2fms%n",
+                name, latency.count() / seconds, failures, latency.percentileMillis(50), latency.percentileMillis(99));
+    }
+
+    private static void memoryPerConnection(HttpClient httpClient, Target target, int connections) throws Exception {
+        Snapshot before = Snapshot.read(httpClient, target.metricsUri);
+
+        byte[] request = ("GET /hello-basic HTTP/1.1\r\n"
+                + "Host: " + target.baseUri.getHost() + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        InetSocketAddress address = new InetSocketAddress(target.baseUri.getHost(), target.baseUri.getPort());
+        ByteBuffer response = ByteBuffer.allocate(1024);
+        List<SocketChannel> channels = new ArrayList<>(connections);
+        int failed = 0;
+        for (int i = 0; i < connections; i++) {
+            try {
+                SocketChannel channel = SocketChannel.open(address);
+                channel.write(ByteBuffer.wrap(request));
+                response.clear();
+                if (channel.read(response) <= 0) {
+                    failed++;
+                }
+                channels.add(channel);
+            } catch (IOException e) {
+                failed++;
+            }
+        }
+        //서버 쪽 버퍼, 세션 정리가 끝나도록 잠시 둔다.
+        Thread.sleep(5_000);
+        Snapshot after = Snapshot.read(httpClient, target.metricsUri);
+
+        int open = channels.size();
+        System.out.printf("%-8s %d idle connections (%d failed) : heap %+.1f KB/conn, direct %+.1f KB/conn, "
+                        + "threads %+d (%d -> %d)%n",
+                target.name, open, failed,
+                (after.heap - before.heap) / 1024.0 / Math.max(1, open),
+                (after.direct - before.direct) / 1024.0 / Math.max(1, open),
+                (int) (after.threads - before.threads), (int) before.threads, (int) after.threads);
+
+        for (SocketChannel channel : channels) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                //종료 중
+            }
+        }
+    }
+
+    static class Target {
+        final String name;
+        final URI baseUri;
+        final URI metricsUri;
+
+        Target(String name, URI baseUri, URI metricsUri) {
+            this.name = name;
+            this.baseUri = baseUri;
+            this.metricsUri = metricsUri;
+        }
+    }
+
+    /*
+        /actuator/metrics 의 한 시점 값
+     */
+    static class Snapshot {
+        final double heap;
+        final double direct;
+        final double threads;
+
+        Snapshot(double heap, double direct, double threads) {
+            this.heap = heap;
+            this.direct = direct;
+            this.threads = threads;
+        }
+
+        static Snapshot read(HttpClient httpClient, URI metricsUri) throws Exception {
+            return new Snapshot(
+                    metric(httpClient, metricsUri, "jvm.memory.used?tag=area:heap"),
+                    metric(httpClient, metricsUri, "jvm.buffer.memory.used?tag=id:direct"),
+                    metric(httpClient, metricsUri, "jvm.threads.live"));
+        }
+
+        private static double metric(HttpClient httpClient, URI metricsUri, String query) throws Exception {
+            HttpRequest request = HttpRequest.newBuilder(metricsUri.resolve("/actuator/metrics/" + query)).build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException(metricsUri + " " + query + " : " + response.statusCode());
+            }
+            JsonNode measurements = objectMapper.readTree(response.body()).path("measurements");
+            return measurements.path(0).path("value").asDouble();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package hello.springmvc.loadtest;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 느린 업로더 부하 테스트
+ *
+ * 슬로우 클라이언트 slow-connections 개가 바디를 tick-millis 마다 1 바이트씩 보내는 동안
+ * 빠른 클라이언트들이 fast-path 를 얼마나 처리 받는지(처리량, p99) 측정한다.
+ * 같은 테스트를 실행 모드만 바꿔서 (sync / callable / virtual) 돌려 비교한다.
+ *
+ *  ./gradlew bootRun --args='--hello.request-body.execution.endpoints.request-body-string-async=callable --server.tomcat.max-connections=20000'
+ *  ./gradlew loadTest -PloadTestArgs="--slow-connections=10000 --duration=60"
+ */
+public class SlowClientLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(args);
+        URI baseUri = URI.create(options.get("url", "http://localhost:8080"));
+        String slowPath = options.get("slow-path", "/request-body-string-async");
+        String fastPath = options.get("fast-path", "/hello-basic");
+        int slowConnections = options.getInt("slow-connections", 10_000);
+        int fastClients = options.getInt("fast-clients", 32);
+        int bodySize = options.getInt("body-size", 64);
+        int tickMillis = options.getInt("tick-millis", 100);
+        long durationNanos = TimeUnit.SECONDS.toNanos(options.getInt("duration", 60));
+
+        SlowClients slowClients = new SlowClients(baseUri, slowPath, bodySize);
+        slowClients.open(slowConnections);
+        System.out.printf("opened %d slow connections%n", slowClients.size());
+
+        ExecutorService fastExecutor = Executors.newFixedThreadPool(fastClients);
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest fastRequest = HttpRequest.newBuilder(baseUri.resolve(fastPath)).GET().build();
+        long deadline = System.nanoTime() + durationNanos;
+
+        List<Future<LatencyRecorder>> futures = new ArrayList<>();
+        for (int i = 0; i < fastClients; i++) {
+            futures.add(fastExecutor.submit(() -> {
+                LatencyRecorder recorder = new LatencyRecorder();
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    HttpResponse<Void> response = httpClient.send(fastRequest, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        recorder.record(System.nanoTime() - start);
+                    }
+                }
+                return recorder;
+            }));
+        }
+
+        while (System.nanoTime() < deadline) {
+            slowClients.tick();
+            Thread.sleep(tickMillis);
+        }
+
+        LatencyRecorder fast = new LatencyRecorder();
+        for (Future<LatencyRecorder> future : futures) {
+            fast.merge(future.get());
+        }
+        fastExecutor.shutdown();
+        slowClients.close();
+
+        double seconds = durationNanos / 1_000_000_000.0;
+        System.out.printf("fast %s : %.1f req/s, p50=%.2fms, p99=%.2fms%n",
+                fastPath, fast.count() / seconds, fast.percentileMillis(50), fast.percentileMillis(99));
+        System.out.printf("slow %s : %d completed, %d failed%n",
+                slowPath, slowClients.completed, slowClients.failed);
+    }
+
+    /*
+        논블로킹 소켓으로 직접 HTTP 요청을 보낸다. (스레드 하나로 수만 개 연결 유지)
+        요청이 끝나면 같은 자리에 새 연결을 다시 열어서 느린 연결 수를 일정하게 유지한다.
+     */
+    static class SlowClients {
+        private final InetSocketAddress address;
+        private final byte[] head;
+        private final int bodySize;
+        private final List<SlowClient> clients = new ArrayList<>();
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(1024);
+        private final ByteBuffer oneByte = ByteBuffer.allocate(1);
+        long completed;
+        long failed;
+
+        SlowClients(URI baseUri, String path, int bodySize) {
+            this.address = new InetSocketAddress(baseUri.getHost(), baseUri.getPort() < 0 ? 80 : baseUri.getPort());
+            this.bodySize = bodySize;
+            this.head = ("POST " + path + " HTTP/1.1\r\n"
+                    + "Host: " + baseUri.getHost() + "\r\n"
+                    + "Content-Type: text/plain\r\n"
+                    + "Content-Length: " + bodySize + "\r\n"
+                    + "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        }
+
+        void open(int count) {
+            for (int i = 0; i < count; i++) {
+                try {
+                    clients.add(connect());
+                } catch (IOException e) {
+                    failed++;
+                }
+            }
+        }
+
+        int size() {
+            return clients.size();
+        }
+
+        void tick() {
+            for (int i = 0; i < clients.size(); i++) {
+                SlowClient client = clients.get(i);
+                try {
+                    if (client.sent < bodySize) {
+                        oneByte.clear();
+                        oneByte.put((byte) 'a').flip();
+                        client.sent += client.channel.write(oneByte);
+                    } else {
+                        readBuffer.clear();
+                        int read = client.channel.read(readBuffer);
+                        if (read != 0) {
+                            if (read > 0 && startsWith200(readBuffer)) {
+                                completed++;
+                            } else {
+                                failed++;
+                            }
+                            client.channel.close();
+                            clients.set(i, connect());
+                        }
+                    }
+                } catch (IOException e) {
+                    failed++;
+                    try {
+                        client.channel.close();
+                        clients.set(i, connect());
+                    } catch (IOException ignored) {
+                        //다음 tick 에 다시 시도
+                    }
+                }
+            }
+        }
+
+        private SlowClient connect() throws IOException {
+            SocketChannel channel = SocketChannel.open(address);
+            channel.write(ByteBuffer.wrap(head));
+            channel.configureBlocking(false);
+            return new SlowClient(channel);
+        }
+
+        private static boolean startsWith200(ByteBuffer buffer) {
+            String status = new String(buffer.array(), 0, Math.min(buffer.position(), 12), StandardCharsets.US_ASCII);
+            return status.endsWith(" 200");
+        }
+
+        void close() {
+            for (SlowClient client : clients) {
+                try {
+                    client.channel.close();
+                } catch (IOException ignored) {
+                    //종료 중
+                }
+            }
+        }
+    }
+
+    static class SlowClient {
+        final SocketChannel channel;
+        int sent;
+
+        SlowClient(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+}
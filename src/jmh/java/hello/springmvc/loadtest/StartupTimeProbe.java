@@ -0,0 +1,124 @@
+package hello.springmvc.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 시작 구성별 첫 요청까지 걸리는 시간 (time-to-first-request)
+ *
+ * 구성마다 애플리케이션을 새 JVM 으로 runs 번 띄우고,
+ * 프로세스 시작부터 /hello-basic 이 처음 200 을 돌려줄 때까지의 시간을 잰다.
+ *   default            : 기본 설정
+ *   faststart          : 지연 초기화 (application-faststart.properties)
+ *   faststart+nothymeleaf : 지연 초기화 + 타임리프 자동 구성 제외
+ *   faststart+cds      : 지연 초기화 + AppCDS 아카이브 (--cds-archive 가 있을 때, JDK 13 이상)
+ *
+ *  ./gradlew cdsArchive startupTime
+ */
+public class StartupTimeProbe {
+
+    private static final String MAIN_CLASS = "hello.springmvc.SpringmvcApplication";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(args);
+        String classpath = options.get("app-classpath", null);
+        if (classpath == null) {
+            throw new IllegalArgumentException("--app-classpath is required");
+        }
+        String path = options.get("path", "/hello-basic");
+        int runs = options.getInt("runs", 5);
+        String cdsArchive = options.get("cds-archive", null);
+
+        Map<String, List<String>> configurations = new LinkedHashMap<>();
+        configurations.put("default", List.of());
+        configurations.put("faststart", List.of("--spring.profiles.active=faststart"));
+        configurations.put("faststart+nothymeleaf", List.of("--spring.profiles.active=faststart,nothymeleaf"));
+        if (cdsArchive != null && new File(cdsArchive).exists()) {
+            configurations.put("faststart+cds", List.of("-XX:SharedArchiveFile=" + cdsArchive,
+                    "--spring.profiles.active=faststart"));
+        } else {
+            System.out.println("no CDS archive, skipping faststart+cds (run ./gradlew cdsArchive first)");
+        }
+
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        System.out.printf("%-24s %10s %10s %10s%n", "configuration", "min(ms)", "median(ms)", "max(ms)");
+        for (Map.Entry<String, List<String>> configuration : configurations.entrySet()) {
+            long[] millis = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                millis[i] = timeToFirstRequest(httpClient, classpath, path, configuration.getValue());
+            }
+            Arrays.sort(millis);
+            System.out.printf("%-24s %10d %10d %10d%n",
+                    configuration.getKey(), millis[0], millis[runs / 2], millis[runs - 1]);
+        }
+    }
+
+    private static long timeToFirstRequest(HttpClient httpClient, String classpath, String path, List<String> options)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        //-XX: 옵션은 JVM 에, --name=value 는 애플리케이션에 넘긴다.
+        List<String> command = new ArrayList<>();
+        command.add(javaExecutable());
+        for (String option : options) {
+            if (option.startsWith("-XX:")) {
+                command.add(option);
+            }
+        }
+        command.add("-cp");
+        command.add(classpath);
+        command.add(MAIN_CLASS);
+        command.add("--server.port=" + port);
+        command.add("--management.server.port=" + freePort());
+        for (String option : options) {
+            if (option.startsWith("--")) {
+                command.add(option);
+            }
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            while (process.isAlive()) {
+                try {
+                    HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException notYetListening) {
+                    Thread.sleep(5);
+                }
+            }
+            throw new IllegalStateException("application exited with " + process.exitValue() + ": " + command);
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /*
+        probe 를 실행한 것과 같은 JDK (CDS 아카이브는 만든 JDK 에서만 쓸 수 있다.)
+     */
+    private static String javaExecutable() {
+        return System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+    }
+}
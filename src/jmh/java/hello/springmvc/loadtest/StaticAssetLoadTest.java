@@ -0,0 +1,99 @@
+package hello.springmvc.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 정적 리소스 처리량, 응답 바이트 수
+ *
+ * 같은 경로(기본 /index.html)를 Accept-Encoding 별로, 그리고 ETag 로 재검증(If-None-Match)하면서 보낸다.
+ * HttpClient 는 압축을 풀지 않으므로 받은 바디 크기가 곧 전송된 바디 바이트 수다.
+ * 전후 비교는 같은 테스트를 hello.static-assets.enabled 만 바꿔서 돌린다.
+ *   false : 부트 기본 리소스 핸들러 + 톰캣 응답 압축 (server.compression)
+ *   true  : StaticAssets (미리 압축한 바이트, 메모리 캐시)
+ *
+ *  ./gradlew :bootRun --args='--hello.static-assets.enabled=false'
+ *  ./gradlew loadTest -PloadTestMain=StaticAssetLoadTest -PloadTestArgs="--duration=20"
+ */
+public class StaticAssetLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(args);
+        URI uri = URI.create(options.get("url", "http://localhost:8080")).resolve(options.get("path", "/index.html"));
+        int clients = options.getInt("clients", 32);
+        long durationNanos = TimeUnit.SECONDS.toNanos(options.getInt("duration", 20));
+
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpResponse<byte[]> first =
+                httpClient.send(request(uri, "gzip", null), HttpResponse.BodyHandlers.ofByteArray());
+        String etag = first.headers().firstValue("ETag").orElse(null);
+        System.out.printf("%s : %d, Cache-Control=%s, ETag=%s%n", uri, first.statusCode(),
+                first.headers().firstValue("Cache-Control").orElse("-"), etag);
+
+        run(httpClient, clients, durationNanos / 4, request(uri, "gzip", null), "warm-up");
+        run(httpClient, clients, durationNanos, request(uri, null, null), "identity");
+        run(httpClient, clients, durationNanos, request(uri, "gzip", null), "gzip");
+        run(httpClient, clients, durationNanos, request(uri, "br, gzip", null), "br, gzip");
+        if (etag != null) {
+            run(httpClient, clients, durationNanos, request(uri, "gzip", etag), "gzip + If-None-Match");
+        } else {
+            System.out.println("no ETag, skipping revalidation");
+        }
+    }
+
+    private static HttpRequest request(URI uri, String acceptEncoding, String ifNoneMatch) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).GET();
+        if (acceptEncoding != null) {
+            builder.header("Accept-Encoding", acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            builder.header("If-None-Match", ifNoneMatch);
+        }
+        return builder.build();
+    }
+
+    private static void run(HttpClient httpClient, int clients, long durationNanos, HttpRequest request, String name)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        long deadline = System.nanoTime() + durationNanos;
+        LongAdder bytes = new LongAdder();
+        LongAdder failed = new LongAdder();
+        List<Future<LatencyRecorder>> futures = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            futures.add(executor.submit(() -> {
+                LatencyRecorder recorder = new LatencyRecorder();
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                    if (response.statusCode() == 200 || response.statusCode() == 304) {
+                        recorder.record(System.nanoTime() - start);
+                        bytes.add(response.body().length);
+                    } else {
+                        failed.increment();
+                    }
+                }
+                return recorder;
+            }));
+        }
+
+        LatencyRecorder latency = new LatencyRecorder();
+        for (Future<LatencyRecorder> future : futures) {
+            latency.merge(future.get());
+        }
+        executor.shutdown();
+
+        double seconds = durationNanos / 1_000_000_000.0;
+        System.out.printf("%-22s : %.0f req/s, %.0f body bytes/response, %.1f MB/s, %d failed, p99=%.2fms%n",
+                name, latency.count() / seconds, bytes.sum() / (double) Math.max(1, latency.count()),
+                bytes.sum() / seconds / 1024 / 1024, failed.sum(), latency.percentileMillis(99));
+    }
+}
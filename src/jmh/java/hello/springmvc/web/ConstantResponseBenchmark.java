@@ -0,0 +1,105 @@
+package hello.springmvc.web;
+
+import hello.springmvc.ch6.basic.requestmapping.MappingController;
+import hello.springmvc.ch6.basic.requestmapping.user.UserService;
+import hello.springmvc.ch6.basic.requestmapping.user.UserStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.method.ControllerAdviceBean;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandlerComposite;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Spring MVC Chapter 6 - 기본기능
+ * 3. 요청 매핑 - "ok" 응답 쓰기 비용
+ *
+ * DEFAULT  : RequestResponseBodyMethodProcessor + StringHttpMessageConverter
+ * CONSTANT : ConstantResponseReturnValueHandler (HandlerAdapterCustomizer 와 같은 방식으로 맨 앞에 등록)
+ * /hello-basic 을 Accept 없이, Accept: *\/* 로, Accept: text/html(콘텐츠 협상 fallback) 로 호출한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConstantResponseBenchmark {
+
+    @Param({"DEFAULT", "CONSTANT"})
+    private String returnValueHandler;
+
+    private AnnotationConfigWebApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Configuration
+    @EnableWebMvc
+    static class MvcConfig {
+        @Bean
+        MappingController mappingController() {
+            return new MappingController(new UserService(new UserStore()));
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.register(MvcConfig.class);
+        context.refresh();
+
+        if ("CONSTANT".equals(returnValueHandler)) {
+            RequestMappingHandlerAdapter adapter = context.getBean(RequestMappingHandlerAdapter.class);
+            RequestMappingHandlerMapping mapping =
+                    context.getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class);
+            List<HandlerMethodReturnValueHandler> defaultHandlers = adapter.getReturnValueHandlers();
+            List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>();
+            handlers.add(new ConstantResponseReturnValueHandler(mapping.getHandlerMethods(),
+                    ControllerAdviceBean.findAnnotatedBeans(context),
+                    new HandlerMethodReturnValueHandlerComposite().addHandlers(defaultHandlers)));
+            handlers.addAll(defaultHandlers);
+            adapter.setReturnValueHandlers(handlers);
+        }
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult helloBasic() throws Exception {
+        return mockMvc.perform(get("/hello-basic")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult helloBasicAcceptAll() throws Exception {
+        return mockMvc.perform(get("/hello-basic").accept(MediaType.ALL)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult helloBasicNegotiated() throws Exception {
+        return mockMvc.perform(get("/hello-basic").accept(MediaType.TEXT_HTML)).andReturn();
+    }
+}
@@ -0,0 +1,148 @@
+package hello.springmvc.web;
+
+import hello.springmvc.ch6.basic.requestmapping.MappingClassController;
+import hello.springmvc.ch6.basic.requestmapping.MappingController;
+import hello.springmvc.ch6.basic.requestmapping.user.UserService;
+import hello.springmvc.ch6.basic.requestmapping.user.UserStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring MVC Chapter 6 - 기본기능
+ * 3. 요청 매핑 - 매핑 조회 비용
+ *
+ * MappingController, MappingClassController 와 같은 모양(경로 변수, params, headers, consumes, produces)의
+ * 매핑을 mappingCount 세트 등록하고, 기본 RequestMappingHandlerMapping 과
+ * CachingRequestMappingHandlerMapping 의 조회 지연시간을 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappingLookupBenchmark {
+
+    @Param({"10", "1000", "5000"})
+    private int mappingCount;
+
+    private RequestMappingHandlerMapping defaultMapping;
+    private CachingRequestMappingHandlerMapping cachingMapping;
+
+    private MockHttpServletRequest pathVariableRequest;
+    private MockHttpServletRequest paramRequest;
+    private MockHttpServletRequest headerRequest;
+    private MockHttpServletRequest consumesRequest;
+
+    @Setup
+    public void setUp() throws Exception {
+        defaultMapping = register(new RequestMappingHandlerMapping());
+        cachingMapping = register(new CachingRequestMappingHandlerMapping(10_000));
+
+        int last = mappingCount - 1;
+        pathVariableRequest = request("GET", "/mapping" + last + "/users/userA/orders/100");
+        paramRequest = request("GET", "/mapping-param" + last);
+        paramRequest.addParameter("mode", "debug");
+        headerRequest = request("GET", "/mapping-header" + last);
+        headerRequest.addHeader("mode", "debug");
+        consumesRequest = request("POST", "/mapping-consume" + last);
+        consumesRequest.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        consumesRequest.setContent("{}".getBytes());
+    }
+
+    private <T extends RequestMappingHandlerMapping> T register(T mapping) throws Exception {
+        PathPatternParser patternParser = new PathPatternParser();
+        mapping.setPatternParser(patternParser);
+        RequestMappingInfo.BuilderConfiguration config = new RequestMappingInfo.BuilderConfiguration();
+        config.setPatternParser(patternParser);
+
+        //조회(lookup)만 재므로 핸들러는 호출되지 않는다.
+        UserService userService = new UserService(new UserStore());
+        MappingController mappingController = new MappingController(userService);
+        MappingClassController mappingClassController = new MappingClassController(userService, null);
+        Method mappingPath = MappingController.class.getMethod("mappingPath", String.class, Long.class);
+        Method mappingParam = MappingController.class.getMethod("mappingParam");
+        Method mappingHeaders = MappingController.class.getMethod("mappingHeaders");
+        Method mappingConsumes = MappingController.class.getMethod("mappingConsumes");
+        Method mappingProduces = MappingController.class.getMethod("mappingProduces");
+        Method getUserId = MappingClassController.class.getMethod("getUserId", String.class);
+
+        for (int i = 0; i < mappingCount; i++) {
+            mapping.registerMapping(RequestMappingInfo.paths("/mapping" + i + "/users/{userId}/orders/{orderId}")
+                    .methods(RequestMethod.GET).options(config).build(), mappingController, mappingPath);
+            mapping.registerMapping(RequestMappingInfo.paths("/mapping" + i + "/users/{userId}")
+                    .methods(RequestMethod.GET).options(config).build(), mappingClassController, getUserId);
+            mapping.registerMapping(RequestMappingInfo.paths("/mapping-param" + i)
+                    .methods(RequestMethod.GET).params("mode=debug").options(config).build(), mappingController, mappingParam);
+            mapping.registerMapping(RequestMappingInfo.paths("/mapping-header" + i)
+                    .methods(RequestMethod.GET).headers("mode=debug").options(config).build(), mappingController, mappingHeaders);
+            mapping.registerMapping(RequestMappingInfo.paths("/mapping-consume" + i)
+                    .methods(RequestMethod.POST).consumes(MediaType.APPLICATION_JSON_VALUE).options(config).build(),
+                    mappingController, mappingConsumes);
+            mapping.registerMapping(RequestMappingInfo.paths("/mapping-produces" + i)
+                    .methods(RequestMethod.POST).produces(MediaType.TEXT_HTML_VALUE).options(config).build(),
+                    mappingController, mappingProduces);
+        }
+        return mapping;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        ServletRequestPathUtils.parseAndCache(request);
+        return request;
+    }
+
+    @Benchmark
+    public HandlerExecutionChain defaultPathVariable() throws Exception {
+        return defaultMapping.getHandler(pathVariableRequest);
+    }
+
+    @Benchmark
+    public HandlerExecutionChain cachingPathVariable() throws Exception {
+        return cachingMapping.getHandler(pathVariableRequest);
+    }
+
+    @Benchmark
+    public HandlerExecutionChain defaultParams() throws Exception {
+        return defaultMapping.getHandler(paramRequest);
+    }
+
+    @Benchmark
+    public HandlerExecutionChain cachingParams() throws Exception {
+        return cachingMapping.getHandler(paramRequest);
+    }
+
+    @Benchmark
+    public HandlerExecutionChain defaultHeaders() throws Exception {
+        return defaultMapping.getHandler(headerRequest);
+    }
+
+    @Benchmark
+    public HandlerExecutionChain cachingHeaders() throws Exception {
+        return cachingMapping.getHandler(headerRequest);
+    }
+
+    @Benchmark
+    public HandlerExecutionChain defaultConsumes() throws Exception {
+        return defaultMapping.getHandler(consumesRequest);
+    }
+
+    @Benchmark
+    public HandlerExecutionChain cachingConsumes() throws Exception {
+        return cachingMapping.getHandler(consumesRequest);
+    }
+}
@@ -0,0 +1,59 @@
+package hello.springmvc.web.metrics;
+
+import hello.springmvc.ch6.basic.request.RequestParamController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.test.web.servlet.setup.StandaloneMockMvcBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * 핸들러 지표 수집 오버헤드
+ *
+ * OFF        : 인터셉터 없음
+ * LATENCY    : 시간, 바디 크기만 기록 (hello.handler-metrics.allocation=false)
+ * ALLOCATION : 할당 바이트까지 기록 (기본 설정)
+ * 가장 가벼운 핸들러(@RequestParam, @ModelAttribute)에서 처리량과 요청당 할당 바이트를 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class HandlerMetricsBenchmark {
+
+    @Param({"OFF", "LATENCY", "ALLOCATION"})
+    private String metrics;
+
+    private MockMvc mockMvc;
+
+    @Setup
+    public void setUp() {
+        StandaloneMockMvcBuilder builder = MockMvcBuilders.standaloneSetup(new RequestParamController());
+        if (!"OFF".equals(metrics)) {
+            HandlerMetrics handlerMetrics = new HandlerMetrics(new SimpleMeterRegistry(), "ALLOCATION".equals(metrics));
+            builder.addInterceptors(new HandlerMetricsInterceptor(handlerMetrics));
+        }
+        mockMvc = builder.build();
+    }
+
+    @Benchmark
+    public MvcResult requestParamV3() throws Exception {
+        return mockMvc.perform(get("/request-param-v3").param("username", "hello").param("age", "20")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult modelAttributeV1() throws Exception {
+        return mockMvc.perform(get("/model-attribute-v1").param("username", "hello").param("age", "20")).andReturn();
+    }
+}
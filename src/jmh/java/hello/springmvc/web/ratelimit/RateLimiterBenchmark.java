@@ -0,0 +1,84 @@
+package hello.springmvc.web.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * RateLimiter.tryAcquire 를 64 스레드로 동시에 호출
+ *
+ * sameKey     : 모든 스레드가 키 하나 (같은 AtomicLong 에 CAS 경합)
+ * threadKey   : 스레드마다 다른 키 (ConcurrentHashMap 조회 + 경합 없는 CAS)
+ * rotatingKey : 1024 개 키를 돌아가며 (클라이언트 IP 가 많은 경우)
+ * rejected    : 버킷이 빈 상태로 계속 거절
+ *
+ * 판정에 할당이 없는지는 gc 프로파일러의 gc.alloc.rate.norm (B/op) 이 0 인지로 본다.
+ *  ./gradlew jmh -PjmhIncludes=RateLimiterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(64)
+public class RateLimiterBenchmark {
+
+    private static final int KEYS = 1024;
+
+    private RateLimiter open;
+    private RateLimiter closed;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        open = new RateLimiter("open", 1e9, 1_000_000, 100_000);
+        closed = new RateLimiter("closed", 0.001, 1, 100_000);
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "10.0." + (i / 256) + "." + (i % 256);
+            open.tryAcquire(keys[i]);
+            closed.tryAcquire(keys[i]);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadKey {
+        private static final AtomicInteger NEXT = new AtomicInteger();
+        String key;
+        int cursor;
+
+        @Setup
+        public void setUp(RateLimiterBenchmark benchmark) {
+            int index = NEXT.getAndIncrement() % KEYS;
+            key = benchmark.keys[index];
+            cursor = index;
+        }
+    }
+
+    @Benchmark
+    public long sameKey() {
+        return open.tryAcquire(keys[0]);
+    }
+
+    @Benchmark
+    public long threadKey(ThreadKey threadKey) {
+        return open.tryAcquire(threadKey.key);
+    }
+
+    @Benchmark
+    public long rotatingKey(ThreadKey threadKey) {
+        threadKey.cursor = (threadKey.cursor + 1) & (KEYS - 1);
+        return open.tryAcquire(keys[threadKey.cursor]);
+    }
+
+    @Benchmark
+    public long rejected(ThreadKey threadKey) {
+        return closed.tryAcquire(threadKey.key);
+    }
+}
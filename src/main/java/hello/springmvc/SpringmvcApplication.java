@@ -1,5 +1,6 @@
 package hello.springmvc;
 
+import hello.springmvc.startup.StartupRecorder;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
@@ -7,7 +8,9 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 public class SpringmvcApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(SpringmvcApplication.class, args);
+		SpringApplication application = new SpringApplication(SpringmvcApplication.class);
+		StartupRecorder.configure(application);
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,96 @@
+package hello.springmvc;
+
+import hello.springmvc.web.RequestDecompressionFilter;
+import hello.springmvc.web.cache.ResponseCache;
+import hello.springmvc.web.cache.ResponseCacheInterceptor;
+import hello.springmvc.web.limit.RequestBodyLimitFilter;
+import hello.springmvc.web.limit.RequestBodyLimitProperties;
+import hello.springmvc.web.limit.RequestBodyTooLargeExceptionResolver;
+import hello.springmvc.web.metrics.HandlerMetrics;
+import hello.springmvc.web.metrics.HandlerMetricsInterceptor;
+import hello.springmvc.web.ratelimit.RateLimitInterceptor;
+import hello.springmvc.web.ratelimit.RateLimiters;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * 필터, 인터셉터 등록
+ *
+ * RequestBodyLimitFilter : 요청 바디 크기 제한, 넘으면 413 (hello.body-limit.enabled, 기본 true)
+ *   압축 해제 전에 실행해서 Content-Length 로 먼저 거르고, 풀린 바디에도 같은 제한이 걸리도록 제한을 넘겨준다.
+ * RequestDecompressionFilter : gzip, deflate 요청 바디 압축 해제 (hello.compression.request.enabled, 기본 true)
+ *   바디를 읽는 다른 필터(FormContentFilter 등)보다 먼저 실행한다.
+ *
+ * HandlerMetricsInterceptor : 핸들러별 지표 (hello.handler-metrics.enabled, 기본 true)
+ *   다른 인터셉터에서 걸러진 요청까지 재도록 가장 먼저 실행한다.
+ * RateLimitInterceptor : hello.rate-limit.rules 규칙별 요청 수 제한, 넘으면 429 (캐시 응답보다 먼저)
+ * ResponseCacheInterceptor : @ResponseCached 응답 캐시, @ResponseCacheEvict 무효화
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final HandlerMetrics handlerMetrics;
+    private final boolean handlerMetricsEnabled;
+    private final ResponseCache responseCache;
+    private final RateLimiters rateLimiters;
+
+    public WebConfig(HandlerMetrics handlerMetrics,
+                     @Value("${hello.handler-metrics.enabled:true}") boolean handlerMetricsEnabled,
+                     ResponseCache responseCache,
+                     RateLimiters rateLimiters) {
+        this.handlerMetrics = handlerMetrics;
+        this.handlerMetricsEnabled = handlerMetricsEnabled;
+        this.responseCache = responseCache;
+        this.rateLimiters = rateLimiters;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "hello.body-limit.enabled", matchIfMissing = true)
+    public FilterRegistrationBean<RequestBodyLimitFilter> requestBodyLimitFilter(
+            RequestBodyLimitProperties properties, MeterRegistry registry) {
+        FilterRegistrationBean<RequestBodyLimitFilter> registration =
+                new FilterRegistrationBean<>(new RequestBodyLimitFilter(properties, registry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "hello.compression.request.enabled", matchIfMissing = true)
+    public FilterRegistrationBean<RequestDecompressionFilter> requestDecompressionFilter(
+            @Value("${hello.compression.request.max-inflated-size:64MB}") DataSize maxInflatedSize) {
+        FilterRegistrationBean<RequestDecompressionFilter> registration =
+                new FilterRegistrationBean<>(new RequestDecompressionFilter(maxInflatedSize.toBytes()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (handlerMetricsEnabled) {
+            registry.addInterceptor(new HandlerMetricsInterceptor(handlerMetrics))
+                    .order(Ordered.HIGHEST_PRECEDENCE);
+        }
+        for (RateLimitInterceptor rateLimitInterceptor : rateLimiters.getInterceptors()) {
+            registry.addInterceptor(rateLimitInterceptor)
+                    .addPathPatterns(rateLimitInterceptor.getPaths())
+                    .order(Ordered.HIGHEST_PRECEDENCE + 1);
+        }
+        registry.addInterceptor(new ResponseCacheInterceptor(responseCache));
+    }
+
+    @Override
+    public void extendHandlerExceptionResolvers(List<HandlerExceptionResolver> resolvers) {
+        resolvers.add(0, new RequestBodyTooLargeExceptionResolver());
+    }
+}
@@ -1,5 +1,6 @@
 package hello.springmvc.ch6.basic;
 
+import hello.springmvc.web.ConstantResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -29,6 +30,7 @@ public class LogTestController {
      */
     private final Logger log = LoggerFactory.getLogger(getClass());
 
+    @ConstantResponse
     @RequestMapping("/log-test")
     public String logTest() {
         String name = "Spring";
@@ -0,0 +1,68 @@
+package hello.springmvc.ch6.basic.request;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 배치 엔드포인트 응답 - 처리 건수와 실패한 레코드(줄)별 에러
+ */
+@Getter
+public class BatchResult {
+
+    /*
+        레코드가 아무리 많아도 응답 크기가 일정하도록 에러는 MAX_ERRORS 건까지만 담는다.
+        나머지는 failed 건수로만 알 수 있다. (truncated=true)
+     */
+    static final int MAX_ERRORS = 100;
+
+    private long accepted;
+    private long failed;
+    private long batches;
+    private boolean aborted;
+    private boolean truncated;
+    private final List<BatchError> errors = new ArrayList<>();
+
+    public long getReceived() {
+        return accepted + failed;
+    }
+
+    void accepted() {
+        accepted++;
+    }
+
+    void flushed() {
+        batches++;
+    }
+
+    void failed(long index, int line, String message) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new BatchError(index, line, message));
+        } else {
+            truncated = true;
+        }
+    }
+
+    /*
+        JSON 문법 오류처럼 다음 레코드 위치를 찾을 수 없는 경우 거기서 멈춘다.
+     */
+    void aborted(long index, int line, String message) {
+        failed(index, line, message);
+        aborted = true;
+    }
+
+    @Getter
+    public static class BatchError {
+        private final long index;
+        private final int line;
+        private final String message;
+
+        BatchError(long index, int line, String message) {
+            this.index = index;
+            this.line = line;
+            this.message = message;
+        }
+    }
+}
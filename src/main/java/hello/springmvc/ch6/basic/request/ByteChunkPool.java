@@ -0,0 +1,37 @@
+package hello.springmvc.ch6.basic.request;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 고정 크기 ByteBuffer(chunk) 풀
+ * 큰 바디를 chunk 단위로 흘려 읽을 때 요청마다 버퍼를 새로 만들지 않기 위해 사용한다.
+ */
+public class ByteChunkPool {
+
+    private final int chunkSize;
+    private final BlockingQueue<ByteBuffer> chunks;
+
+    /*
+        maxPooled 개까지만 보관한다. 동시에 더 많이 빌려가면 새로 만들고, 반납할 자리가 없으면 버린다.
+     */
+    public ByteChunkPool(int chunkSize, int maxPooled) {
+        this.chunkSize = chunkSize;
+        this.chunks = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    public ByteBuffer acquire() {
+        ByteBuffer chunk = chunks.poll();
+        return chunk != null ? chunk : ByteBuffer.allocate(chunkSize);
+    }
+
+    public void release(ByteBuffer chunk) {
+        chunk.clear();
+        chunks.offer(chunk);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+}
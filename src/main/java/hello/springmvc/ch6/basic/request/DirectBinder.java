@@ -0,0 +1,18 @@
+package hello.springmvc.ch6.basic.request;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * 요청 파라미터를 특정 타입 객체에 리플렉션 없이 바로 바인딩한다. (@ModelAttribute 대체)
+ * DirectModelAttributeResolver 가 타입별로 하나씩 들고 있다가 사용한다.
+ */
+public interface DirectBinder<T> {
+
+    Class<T> getTargetType();
+
+    /*
+        바인딩할 수 없는 값(타입 불일치 등)을 만나면 null 을 반환한다.
+        그러면 기본 WebDataBinder 로 다시 바인딩해서 에러 처리(BindException)를 그대로 따른다.
+     */
+    T bind(HttpServletRequest request);
+}
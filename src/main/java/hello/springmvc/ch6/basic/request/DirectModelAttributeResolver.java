@@ -0,0 +1,119 @@
+package hello.springmvc.ch6.basic.request;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.validation.Errors;
+import org.springframework.validation.annotation.ValidationAnnotationUtils;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.annotation.ModelFactory;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ServletModelAttributeMethodProcessor;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.annotation.Annotation;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spring MVC Chapter 6 - 기본기능
+ * 8. HTTP 요청 파라미터 - @ModelAttribute (DirectBinder 로 바인딩)
+ *
+ * 기본 @ModelAttribute 처리(ServletModelAttributeMethodProcessor)는 요청마다
+ * WebDataBinder 를 만들고 BeanWrapper 로 프로퍼티를 찾아서 ConversionService 로 변환한다.
+ * DirectBinder 가 등록된 타입은 미리 만들어둔 바인더로 바로 채운다.
+ *
+ * 기본 처리와 결과가 달라질 수 있는 경우는 전부 기본 처리에 맡긴다.
+ * - @Valid, @Validated 검증, 바로 뒤에 BindingResult(Errors) 파라미터가 있는 경우
+ * - 뷰를 렌더링하는 핸들러(@ResponseBody 가 아님, 모델에 BindingResult 가 필요함)
+ * - 모델에 이미 같은 이름의 객체가 있거나, URI 템플릿 변수가 있는 경우
+ * - DirectBinder 가 null 을 반환한 경우 (타입 불일치 등)
+ */
+public class DirectModelAttributeResolver implements HandlerMethodArgumentResolver {
+
+    private final Map<Class<?>, DirectBinder<?>> binders = new HashMap<>();
+    private final ServletModelAttributeMethodProcessor defaultResolver = new ServletModelAttributeMethodProcessor(true);
+
+    /*
+        파라미터별로 직접 바인딩 가능 여부와 모델 이름을 한 번만 계산해둔다. (가능하지 않으면 empty)
+     */
+    private final Map<MethodParameter, Optional<String>> directNames = new ConcurrentHashMap<>();
+
+    public DirectModelAttributeResolver(List<DirectBinder<?>> binders) {
+        for (DirectBinder<?> binder : binders) {
+            this.binders.put(binder.getTargetType(), binder);
+        }
+    }
+
+    /*
+        @ModelAttribute 가 붙었거나 애노테이션이 아예 없는 (=생략된 @ModelAttribute) 파라미터만 맡는다.
+     */
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        if (!binders.containsKey(parameter.getParameterType())) {
+            return false;
+        }
+        return parameter.hasParameterAnnotation(ModelAttribute.class) || parameter.getParameterAnnotations().length == 0;
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        Optional<String> directName = directNames.computeIfAbsent(parameter, DirectModelAttributeResolver::directName);
+        if (request == null || mavContainer == null || directName.isEmpty()) {
+            return defaultResolver.resolveArgument(parameter, mavContainer, webRequest, binderFactory);
+        }
+
+        String name = directName.get();
+        if (mavContainer.containsAttribute(name)
+                || request.getParameter(name) != null
+                || hasUriTemplateVariables(request)) {
+            return defaultResolver.resolveArgument(parameter, mavContainer, webRequest, binderFactory);
+        }
+
+        Object value = binders.get(parameter.getParameterType()).bind(request);
+        if (value == null) {
+            return defaultResolver.resolveArgument(parameter, mavContainer, webRequest, binderFactory);
+        }
+        mavContainer.addAttribute(name, value);
+        return value;
+    }
+
+    private static Optional<String> directName(MethodParameter parameter) {
+        boolean responseBody = parameter.hasMethodAnnotation(ResponseBody.class)
+                || AnnotatedElementUtils.hasAnnotation(parameter.getContainingClass(), ResponseBody.class);
+        if (!responseBody) {
+            return Optional.empty();
+        }
+
+        ModelAttribute modelAttribute = parameter.getParameterAnnotation(ModelAttribute.class);
+        if (modelAttribute != null && !modelAttribute.binding()) {
+            return Optional.empty();
+        }
+        for (Annotation annotation : parameter.getParameterAnnotations()) {
+            if (ValidationAnnotationUtils.determineValidationHints(annotation) != null) {
+                return Optional.empty();
+            }
+        }
+
+        Class<?>[] parameterTypes = parameter.getExecutable().getParameterTypes();
+        int next = parameter.getParameterIndex() + 1;
+        if (next < parameterTypes.length && Errors.class.isAssignableFrom(parameterTypes[next])) {
+            return Optional.empty();
+        }
+        return Optional.of(ModelFactory.getNameForParameter(parameter));
+    }
+
+    private static boolean hasUriTemplateVariables(HttpServletRequest request) {
+        Map<?, ?> variables = (Map<?, ?>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return variables != null && !variables.isEmpty();
+    }
+}
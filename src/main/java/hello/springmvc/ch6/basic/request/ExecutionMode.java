@@ -0,0 +1,22 @@
+package hello.springmvc.ch6.basic.request;
+
+/**
+ * 요청 바디를 읽는 핸들러를 어떤 스레드에서 실행할지
+ */
+public enum ExecutionMode {
+
+    /*
+        톰캣 요청 스레드에서 그대로 실행 (기본)
+     */
+    SYNC,
+
+    /*
+        전용 스레드 풀(크기, 큐 제한)에서 실행하고 DeferredResult 로 비동기 응답
+     */
+    CALLABLE,
+
+    /*
+        가상 스레드에서 실행 (가상 스레드가 없는 JDK 면 CALLABLE 과 동일)
+     */
+    VIRTUAL
+}
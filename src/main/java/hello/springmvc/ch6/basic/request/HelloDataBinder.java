@@ -0,0 +1,53 @@
+package hello.springmvc.ch6.basic.request;
+
+import hello.springmvc.ch6.basic.HelloData;
+import org.springframework.stereotype.Component;
+import org.springframework.util.NumberUtils;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * HelloData 전용 DirectBinder
+ * username, age 파라미터를 setter 로 바로 넣는다. (BeanWrapper 프로퍼티 조회, ConversionService 호출 X)
+ */
+@Component
+public class HelloDataBinder implements DirectBinder<HelloData> {
+
+    @Override
+    public Class<HelloData> getTargetType() {
+        return HelloData.class;
+    }
+
+    /*
+        기본 바인더와 결과가 같도록 맞춘 부분
+        - 같은 이름 파라미터가 여러 개면 String 은 콤마로 합친다. (username=a&username=b -> "a,b")
+        - 숫자는 StringToNumberConverterFactory 와 같은 NumberUtils.parseNumber 로 변환한다.
+        - 빈 값, 변환 실패, 여러 개의 age, 필드 마커(_age, !age)는 기본 바인더에게 넘긴다.
+     */
+    @Override
+    public HelloData bind(HttpServletRequest request) {
+        if (request.getParameter("_username") != null || request.getParameter("!username") != null
+                || request.getParameter("_age") != null || request.getParameter("!age") != null) {
+            return null;
+        }
+
+        HelloData helloData = new HelloData();
+        String[] usernames = request.getParameterValues("username");
+        if (usernames != null) {
+            helloData.setUsername(usernames.length == 1 ? usernames[0] : String.join(",", usernames));
+        }
+
+        String[] ages = request.getParameterValues("age");
+        if (ages != null) {
+            if (ages.length != 1 || ages[0].isEmpty()) {
+                return null;
+            }
+            try {
+                helloData.setAge(NumberUtils.parseNumber(ages[0], Integer.class));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return helloData;
+    }
+}
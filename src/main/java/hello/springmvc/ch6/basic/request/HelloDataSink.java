@@ -0,0 +1,17 @@
+package hello.springmvc.ch6.basic.request;
+
+import hello.springmvc.ch6.basic.HelloData;
+
+import java.util.List;
+
+/**
+ * 배치 엔드포인트(/request-body-json-batch)가 읽어 들인 HelloData 를 넘겨받는 곳
+ * 저장소, 큐 등으로 보내고 싶으면 구현체를 빈으로 등록(@Primary)하면 된다.
+ */
+public interface HelloDataSink {
+
+    /*
+        batch 는 호출이 끝나면 재사용되므로 보관하려면 복사해야 한다.
+     */
+    void accept(List<HelloData> batch);
+}
@@ -0,0 +1,84 @@
+package hello.springmvc.ch6.basic.request;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import hello.springmvc.ch6.basic.HelloData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Spring MVC Chapter 6 - 기본기능
+ * 10. HTTP 요청 메시지 - JSON (ObjectReader / ObjectWriter 공유)
+ *
+ * 스프링 부트가 등록한 ObjectMapper 로 타입별 ObjectReader, ObjectWriter 를 만들어 두고 재사용한다.
+ */
+@Slf4j
+@Component
+public class JsonCodecs {
+
+    /*
+        컨트롤러에서 new ObjectMapper() 를 따로 만들면
+        MappingJackson2HttpMessageConverter 가 쓰는 부트의 ObjectMapper 와 직렬화/역직렬화 캐시를 공유하지 못한다.
+        부트의 ObjectMapper 를 주입받아서 쓰면 컨버터(v3 ~ v6)와 컨트롤러(v1, v2)가 같은 캐시를 쓴다.
+
+        ObjectReader, ObjectWriter 는 불변(immutable)이라 스레드 간에 공유해도 안전하고,
+        만들 때 루트 타입의 (역)직렬화기를 미리 찾아두기 때문에 요청마다 캐시를 조회하지 않는다.
+     */
+    private final ObjectMapper objectMapper;
+    private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public JsonCodecs(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /*
+        애플리케이션 시작 시점에 한 번 쓰고 읽어서 캐시를 채워둔다.
+        배포 직후 첫 요청이 (역)직렬화기 생성 비용을 떠안지 않게 하기 위함.
+     */
+    @PostConstruct
+    public void warmUp() throws IOException {
+        HelloData helloData = new HelloData();
+        helloData.setUsername("warm-up");
+        helloData.setAge(0);
+        warmUp(HelloData.class, helloData);
+    }
+
+    public <T> void warmUp(Class<T> type, T sample) throws IOException {
+        byte[] json = writer(type).writeValueAsBytes(sample);
+        reader(type).readValue(json);
+        log.debug("json codecs warmed up type={}", type.getName());
+    }
+
+    public ObjectReader reader(Class<?> type) {
+        return readers.computeIfAbsent(type, objectMapper::readerFor);
+    }
+
+    public ObjectWriter writer(Class<?> type) {
+        return writers.computeIfAbsent(type, objectMapper::writerFor);
+    }
+
+    /*
+        InputStream 을 String 으로 복사하지 않고 JsonParser 로 바로 읽어서 객체로 변환한다.
+        StreamUtils.copyToString + readValue(String) 방식은
+        바디 전체를 byte -> char(String) 로 한 번, 파서가 다시 한 번 복사한다.
+        createParser(InputStream) 은 UTF-8 바이트를 바로 토큰으로 읽고
+        읽기 버퍼는 JsonFactory 의 BufferRecycler 가 스레드별로 재사용(풀링)한다.
+        스트림을 닫는 건 호출한 쪽(서블릿 컨테이너)의 몫이니 nonClosing 으로 감싼다.
+     */
+    public <T> T read(InputStream inputStream, Class<T> type) throws IOException {
+        ObjectReader reader = reader(type);
+        try (JsonParser parser = reader.createParser(StreamUtils.nonClosing(inputStream))) {
+            return reader.readValue(parser);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package hello.springmvc.ch6.basic.request;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @RequestParam Map<String, String> 을 위한 읽기 전용 뷰
+ * get 은 request.getParameter 를 그대로 호출한다. (파라미터 전체를 복사하지 않음)
+ * 순회(entrySet)할 때만 컨테이너의 파라미터 맵을 꺼낸다.
+ */
+public class LazyParameterMap extends AbstractMap<String, String> {
+
+    private final HttpServletRequest request;
+
+    public LazyParameterMap(HttpServletRequest request) {
+        this.request = request;
+    }
+
+    @Override
+    public String get(Object key) {
+        return key instanceof String ? request.getParameter((String) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return request.getParameterMap().size();
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        Map<String, String[]> parameterMap = request.getParameterMap();
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                Iterator<Entry<String, String[]>> iterator = parameterMap.entrySet().iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        Entry<String, String[]> entry = iterator.next();
+                        String[] values = entry.getValue();
+                        return new SimpleImmutableEntry<>(entry.getKey(), values.length > 0 ? values[0] : null);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return parameterMap.size();
+            }
+        };
+    }
+}
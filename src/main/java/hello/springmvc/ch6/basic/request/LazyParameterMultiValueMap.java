@@ -0,0 +1,110 @@
+package hello.springmvc.ch6.basic.request;
+
+import org.springframework.util.MultiValueMap;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @RequestParam MultiValueMap<String, String> 을 위한 읽기 전용 뷰
+ * get 은 request.getParameterValues 를 List 로 감싸서 돌려준다. (파라미터 전체를 복사하지 않음)
+ */
+public class LazyParameterMultiValueMap extends AbstractMap<String, List<String>> implements MultiValueMap<String, String> {
+
+    private final HttpServletRequest request;
+
+    public LazyParameterMultiValueMap(HttpServletRequest request) {
+        this.request = request;
+    }
+
+    @Override
+    public List<String> get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        String[] values = request.getParameterValues((String) key);
+        return values == null ? null : Arrays.asList(values);
+    }
+
+    @Override
+    public String getFirst(String key) {
+        return request.getParameter(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && request.getParameter((String) key) != null;
+    }
+
+    @Override
+    public int size() {
+        return request.getParameterMap().size();
+    }
+
+    @Override
+    public Set<Entry<String, List<String>>> entrySet() {
+        Map<String, String[]> parameterMap = request.getParameterMap();
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, List<String>>> iterator() {
+                Iterator<Entry<String, String[]>> iterator = parameterMap.entrySet().iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, List<String>> next() {
+                        Entry<String, String[]> entry = iterator.next();
+                        return new SimpleImmutableEntry<>(entry.getKey(), Arrays.asList(entry.getValue()));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return parameterMap.size();
+            }
+        };
+    }
+
+    @Override
+    public Map<String, String> toSingleValueMap() {
+        return new LazyParameterMap(request);
+    }
+
+    /*
+        요청 파라미터는 읽기 전용
+     */
+    @Override
+    public void add(String key, String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addAll(String key, List<? extends String> values) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addAll(MultiValueMap<String, String> values) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void set(String key, String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setAll(Map<String, String> values) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,19 @@
+package hello.springmvc.ch6.basic.request;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @RequestParam Map / MultiValueMap 을 복사본 대신 요청을 감싼 읽기 전용 뷰로 받는다. (LazyRequestParamMapResolver)
+ *
+ * 뷰에 put, remove 하면 UnsupportedOperationException 이다.
+ * 이 애노테이션이 없는 파라미터는 스프링 기본대로 수정할 수 있는 복사본을 받는다.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface LazyParams {
+}
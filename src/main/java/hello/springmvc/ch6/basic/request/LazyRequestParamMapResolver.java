@@ -0,0 +1,61 @@
+package hello.springmvc.ch6.basic.request;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.Part;
+import java.util.Map;
+
+/**
+ * @RequestParam Map / MultiValueMap 파라미터를 지연 조회 뷰(LazyParameterMap, LazyParameterMultiValueMap)로 만든다.
+ *
+ * 기본 RequestParamMapMethodArgumentResolver 는 요청마다 모든 파라미터를 LinkedHashMap 으로 복사한다.
+ * 핸들러가 두세 개 키만 읽는다면 복사가 낭비라서, 요청을 감싼 읽기 전용 뷰를 넘긴다.
+ * 읽기 전용이라 @LazyParams 를 붙인 파라미터만 처리한다. 나머지는 기본 resolver 의 수정 가능한 복사본
+ * 값 타입이 MultipartFile, Part 인 경우와 Map 구현 타입을 직접 지정한 경우도 기본 resolver 가 처리한다.
+ */
+public class LazyRequestParamMapResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        RequestParam requestParam = parameter.getParameterAnnotation(RequestParam.class);
+        if (requestParam == null || StringUtils.hasText(requestParam.name())
+                || !parameter.hasParameterAnnotation(LazyParams.class)) {
+            return false;
+        }
+
+        Class<?> type = parameter.getParameterType();
+        ResolvableType resolvableType = ResolvableType.forMethodParameter(parameter);
+        if (type == MultiValueMap.class) {
+            return isPlainValue(resolvableType.as(MultiValueMap.class).getGeneric(1).resolve());
+        }
+        if (type == Map.class) {
+            return isPlainValue(resolvableType.asMap().getGeneric(1).resolve());
+        }
+        return false;
+    }
+
+    private static boolean isPlainValue(Class<?> valueType) {
+        return valueType == null
+                || !(MultipartFile.class.isAssignableFrom(valueType) || Part.class.isAssignableFrom(valueType));
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        if (parameter.getParameterType() == MultiValueMap.class) {
+            return new LazyParameterMultiValueMap(request);
+        }
+        return new LazyParameterMap(request);
+    }
+}
@@ -0,0 +1,20 @@
+package hello.springmvc.ch6.basic.request;
+
+import hello.springmvc.ch6.basic.HelloData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 기본 HelloDataSink - 받은 배치 크기만 로그로 남긴다.
+ */
+@Slf4j
+@Component
+public class LoggingHelloDataSink implements HelloDataSink {
+
+    @Override
+    public void accept(List<HelloData> batch) {
+        log.info("helloData batch size={}", batch.size());
+    }
+}
@@ -0,0 +1,130 @@
+package hello.springmvc.ch6.basic.request;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Spring MVC Chapter 6 - 기본기능
+ * 9. HTTP 요청 메시지 - 단순 텍스트 (raw 바디)
+ *
+ * 바디를 String 으로 만들지 않고 고정 크기 chunk 로 흘려 읽으면서
+ * 길이와 SHA-256 을 계산하고, 앞부분만 로그용으로 남긴다.
+ * hello.raw-body.spool-directory 를 지정하면 바디를 FileChannel 로 파일에 저장한다.
+ *   저장한 파일은 요청이 끝나도 남고, 지우는 건 RawBodySpool 이 맡는다. (retention)
+ * 바디가 수백 MB 여도 힙 사용량은 chunk 크기만큼으로 일정하다.
+ */
+@Component
+public class RawBodyReader {
+
+    private final ByteChunkPool chunkPool;
+    private final int logPrefixBytes;
+    private final RawBodySpool spool;
+
+    public RawBodyReader(@Value("${hello.raw-body.chunk-size:65536}") int chunkSize,
+                         @Value("${hello.raw-body.pooled-chunks:64}") int pooledChunks,
+                         @Value("${hello.raw-body.log-prefix-bytes:256}") int logPrefixBytes,
+                         RawBodySpool spool) {
+        this.chunkPool = new ByteChunkPool(chunkSize, pooledChunks);
+        this.logPrefixBytes = logPrefixBytes;
+        this.spool = spool;
+    }
+
+    public RawBodySummary read(InputStream inputStream) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] prefix = new byte[logPrefixBytes];
+        int prefixLength = 0;
+        long length = 0;
+
+        Path spoolFile = spool.isEnabled() ? spool.createTempFile() : null;
+        ByteBuffer chunk = chunkPool.acquire();
+        boolean completed = false;
+        try (FileChannel channel = spoolFile != null ? FileChannel.open(spoolFile, StandardOpenOption.WRITE) : null) {
+            byte[] buffer = chunk.array();
+            int read;
+            while ((read = inputStream.read(buffer, 0, buffer.length)) != -1) {
+                if (prefixLength < prefix.length) {
+                    int copy = Math.min(read, prefix.length - prefixLength);
+                    System.arraycopy(buffer, 0, prefix, prefixLength, copy);
+                    prefixLength += copy;
+                }
+                digest.update(buffer, 0, read);
+                length += read;
+
+                if (channel != null) {
+                    chunk.clear();
+                    chunk.limit(read);
+                    while (chunk.hasRemaining()) {
+                        channel.write(chunk);
+                    }
+                }
+            }
+            completed = true;
+        } finally {
+            chunkPool.release(chunk);
+            if (!completed && spoolFile != null) {
+                Files.deleteIfExists(spoolFile);
+            }
+        }
+
+        String sha256 = toHex(digest.digest());
+        if (spoolFile != null) {
+            try {
+                spoolFile = spool.keep(spoolFile, sha256);
+            } catch (IOException e) {
+                Files.deleteIfExists(spoolFile);
+                throw e;
+            }
+        }
+        if (length > prefixLength) {
+            prefixLength = utf8Boundary(prefix, prefixLength);
+        }
+        return new RawBodySummary(length, sha256,
+                new String(prefix, 0, prefixLength, StandardCharsets.UTF_8), spoolFile);
+    }
+
+    /*
+        잘린 앞부분의 끝에 걸친 UTF-8 문자는 빼고 그 앞까지의 길이 (깨진 문자 U+FFFD 가 로그에 남지 않게)
+     */
+    static int utf8Boundary(byte[] bytes, int length) {
+        int start = length - 1;
+        while (start > 0 && (bytes[start] & 0xC0) == 0x80) {
+            start--;
+        }
+        if (start < 0) {
+            return length;
+        }
+        int lead = bytes[start] & 0xFF;
+        int charLength = lead < 0x80 ? 1 : lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : lead >= 0xC0 ? 2 : 1;
+        return start + charLength > length ? start : length;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,105 @@
+package hello.springmvc.ch6.basic.request;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * raw 바디를 저장(spool)하는 디렉터리 hello.raw-body.spool-directory 와 그 안 파일의 수명을 맡는다.
+ *
+ * - 받는 중에는 raw-body-*.tmp 에 쓰고, 끝까지 받으면 raw-body-{sha256}.bin 으로 옮긴다. (ATOMIC_MOVE)
+ *   로그에 남은 sha256 으로 나중 단계가 파일을 찾을 수 있고, .bin 은 늘 다 받은 바디다.
+ * - 요청이 끝나도 지우지 않는다. hello.raw-body.spool-retention(기본 1h) 보다 오래된 파일을 주기적으로 지운다.
+ *   (*중간에 끊겨 남은 .tmp 포함)
+ * 디렉터리를 지정하지 않으면 저장하지 않는다. (isEnabled() == false)
+ */
+@Slf4j
+@Component
+public class RawBodySpool {
+
+    private static final String PREFIX = "raw-body-";
+
+    private final Path directory;
+    private final Duration retention;
+    private final ScheduledExecutorService cleaner;
+
+    public RawBodySpool(@Value("${hello.raw-body.spool-directory:}") String directory,
+                        @Value("${hello.raw-body.spool-retention:1h}") Duration retention) {
+        this.directory = StringUtils.hasText(directory) ? Paths.get(directory) : null;
+        this.retention = retention;
+        if (this.directory == null) {
+            cleaner = null;
+            return;
+        }
+        cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "raw-body-spool-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, retention.toMillis() / 2);
+        cleaner.scheduleWithFixedDelay(this::cleanUp, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    Path createTempFile() throws IOException {
+        Files.createDirectories(directory);
+        return Files.createTempFile(directory, PREFIX, ".tmp");
+    }
+
+    /*
+        다 받은 임시 파일을 raw-body-{sha256}.bin 으로 옮긴다. 같은 바디가 이미 있으면 덮어쓴다. (내용이 같음)
+     */
+    Path keep(Path tempFile, String sha256) throws IOException {
+        Path target = directory.resolve(PREFIX + sha256 + ".bin");
+        return Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /*
+        retention 보다 오래 수정되지 않은 raw-body-* 파일을 지운다.
+     */
+    public void cleanUp() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        Instant expiredBefore = Instant.now().minus(retention);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*")) {
+            for (Path file : files) {
+                try {
+                    if (Files.getLastModifiedTime(file).toInstant().isBefore(expiredBefore)) {
+                        Files.deleteIfExists(file);
+                    }
+                } catch (NoSuchFileException e) {
+                    //같은 바디가 다시 들어와 덮어쓰는 중
+                }
+            }
+        } catch (IOException | DirectoryIteratorException e) {
+            log.warn("raw body spool clean up failed directory={}", directory, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (cleaner != null) {
+            cleaner.shutdown();
+        }
+    }
+}
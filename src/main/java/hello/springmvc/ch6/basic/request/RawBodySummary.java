@@ -0,0 +1,22 @@
+package hello.springmvc.ch6.basic.request;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.nio.file.Path;
+
+/**
+ * RawBodyReader 가 바디를 끝까지 읽고 남긴 요약
+ * prefix : 로그용 앞부분(최대 hello.raw-body.log-prefix-bytes)
+ * spooledTo : 파일로 저장했으면 그 경로(raw-body-{sha256}.bin), 아니면 null (RawBodySpool 이 retention 뒤에 지운다)
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class RawBodySummary {
+    private final long length;
+    private final String sha256;
+    private final String prefix;
+    private final Path spooledTo;
+}
@@ -0,0 +1,39 @@
+package hello.springmvc.ch6.basic.request;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * hello.request-body.execution.*
+ *
+ * 엔드포인트별 실행 모드 예)
+ *  hello.request-body.execution.endpoints.request-body-string-async=callable
+ *  hello.request-body.execution.endpoints.request-body-json-async=virtual
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("hello.request-body.execution")
+public class RequestBodyExecutionProperties {
+
+    private ExecutionMode defaultMode = ExecutionMode.SYNC;
+    private Map<String, ExecutionMode> endpoints = new HashMap<>();
+
+    /*
+        CALLABLE 모드 전용 스레드 풀
+        큐까지 꽉 차면 503 으로 거절한다. VIRTUAL 모드도 동시에 pool-size + queue-capacity 개까지만 받는다.
+     */
+    private int poolSize = 64;
+    private int queueCapacity = 1000;
+    private Duration timeout = Duration.ofSeconds(30);
+
+    public ExecutionMode modeOf(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaultMode);
+    }
+}
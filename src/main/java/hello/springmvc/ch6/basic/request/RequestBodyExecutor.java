@@ -0,0 +1,203 @@
+package hello.springmvc.ch6.basic.request;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PreDestroy;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 요청 바디를 읽는 작업을 엔드포인트별 실행 모드(ExecutionMode)에 맞는 스레드에서 실행한다.
+ *
+ * 느린 클라이언트가 바디를 조금씩 보내면 바디를 읽는 동안 톰캣 요청 스레드가 묶여 있는다.
+ * CALLABLE / VIRTUAL 모드에서는 핸들러가 DeferredResult 를 바로 반환하고
+ * 요청 스레드는 풀로 돌아간다. (서블릿 비동기 처리, startAsync)
+ *
+ * - 타임아웃, 오류, 완료 때 작업을 취소(인터럽트)하고 바디 스트림을 막는다.
+ *   그 뒤의 읽기는 IOException 이라 재사용(recycle)된 다른 요청의 바디를 읽지 않는다.
+ * - VIRTUAL 모드도 pool-size + queue-capacity 개까지만 동시에 받고 넘으면 503 (CALLABLE 과 같은 한도)
+ */
+@Slf4j
+@Component
+public class RequestBodyExecutor {
+
+    private final RequestBodyExecutionProperties properties;
+    private final ThreadPoolTaskExecutor boundedExecutor;
+    private final ExecutorService virtualThreadExecutor;
+    private final Semaphore virtualThreadPermits;
+
+    public RequestBodyExecutor(RequestBodyExecutionProperties properties) {
+        this.properties = properties;
+
+        boundedExecutor = new ThreadPoolTaskExecutor();
+        boundedExecutor.setThreadNamePrefix("request-body-");
+        boundedExecutor.setCorePoolSize(properties.getPoolSize());
+        boundedExecutor.setMaxPoolSize(properties.getPoolSize());
+        boundedExecutor.setQueueCapacity(properties.getQueueCapacity());
+        boundedExecutor.initialize();
+
+        virtualThreadExecutor = newVirtualThreadPerTaskExecutor();
+        virtualThreadPermits = new Semaphore(properties.getPoolSize() + properties.getQueueCapacity());
+        if (virtualThreadExecutor == null) {
+            log.info("virtual threads are not available, VIRTUAL mode falls back to CALLABLE");
+        }
+    }
+
+    /*
+        SYNC 모드는 지금 스레드에서 바로 실행하고 결과가 채워진 DeferredResult 를 돌려준다.
+        reader 는 body 대신 넘겨받은 스트림만 읽어야 한다. (요청이 끝난 뒤에는 막힘)
+     */
+    public <T> DeferredResult<T> submit(String endpoint, InputStream body, BodyReader<T> reader) {
+        DeferredResult<T> result = new DeferredResult<>(properties.getTimeout().toMillis());
+        ExecutionMode mode = properties.modeOf(endpoint);
+        if (mode == ExecutionMode.SYNC) {
+            run(reader, body, result);
+            return result;
+        }
+
+        GuardedInputStream guarded = new GuardedInputStream(body);
+        boolean virtual = mode == ExecutionMode.VIRTUAL && virtualThreadExecutor != null;
+        if (virtual && !virtualThreadPermits.tryAcquire()) {
+            return rejected(endpoint, result);
+        }
+        BodyTask task = new BodyTask(() -> run(reader, guarded, result), virtual ? virtualThreadPermits : null);
+        Runnable abort = () -> {
+            guarded.abort();
+            task.cancel(true);
+        };
+        result.onTimeout(abort);
+        result.onError(e -> abort.run());
+        result.onCompletion(abort);
+
+        try {
+            if (virtual) {
+                virtualThreadExecutor.execute(task);
+            } else {
+                boundedExecutor.execute(task);
+            }
+        } catch (RejectedExecutionException e) {
+            task.cancel(false);
+            return rejected(endpoint, result);
+        }
+        return result;
+    }
+
+    private static <T> DeferredResult<T> rejected(String endpoint, DeferredResult<T> result) {
+        log.warn("request body executor is full endpoint={}", endpoint);
+        result.setErrorResult(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE));
+        return result;
+    }
+
+    private static <T> void run(BodyReader<T> reader, InputStream body, DeferredResult<T> result) {
+        try {
+            result.setResult(reader.read(body));
+        } catch (Exception e) {
+            result.setErrorResult(e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface BodyReader<T> {
+
+        T read(InputStream body) throws Exception;
+    }
+
+    /*
+        끝나거나 취소되면(시작 전 취소 포함) VIRTUAL 모드 자리를 돌려준다.
+     */
+    private static class BodyTask extends FutureTask<Void> {
+
+        private final Semaphore permits;
+
+        BodyTask(Runnable runnable, Semaphore permits) {
+            super(runnable, null);
+            this.permits = permits;
+        }
+
+        @Override
+        protected void done() {
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    /*
+        abort 뒤의 읽기는 원래 스트림까지 가지 않고 IOException
+     */
+    private static class GuardedInputStream extends FilterInputStream {
+
+        private volatile boolean aborted;
+
+        GuardedInputStream(InputStream in) {
+            super(in);
+        }
+
+        void abort() {
+            aborted = true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkNotAborted();
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkNotAborted();
+            return super.read(b, off, len);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            checkNotAborted();
+            return super.skip(n);
+        }
+
+        @Override
+        public int available() throws IOException {
+            checkNotAborted();
+            return super.available();
+        }
+
+        private void checkNotAborted() throws IOException {
+            if (aborted) {
+                throw new IOException("request is already completed, body is no longer readable");
+            }
+        }
+    }
+
+    /*
+        소스 호환성은 Java 11 이라 Executors.newVirtualThreadPerTaskExecutor() 를
+        직접 호출할 수 없다. 실행 중인 JDK 에 있으면 리플렉션으로 꺼내 쓴다.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        boundedExecutor.shutdown();
+        if (virtualThreadExecutor != null) {
+            virtualThreadExecutor.shutdown();
+        }
+    }
+}
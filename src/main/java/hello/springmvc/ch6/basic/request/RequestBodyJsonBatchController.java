@@ -0,0 +1,112 @@
+package hello.springmvc.ch6.basic.request;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import hello.springmvc.ch6.basic.HelloData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Spring MVC Chapter 6 - 기본기능
+ * 10. HTTP 요청 메시지 - JSON (여러 건을 한 번에)
+ */
+@Slf4j
+@RestController
+public class RequestBodyJsonBatchController {
+
+    private final JsonCodecs jsonCodecs;
+    private final HelloDataSink helloDataSink;
+    private final int batchSize;
+
+    public RequestBodyJsonBatchController(JsonCodecs jsonCodecs,
+                                          HelloDataSink helloDataSink,
+                                          @Value("${hello.batch.size:500}") int batchSize) {
+        this.jsonCodecs = jsonCodecs;
+        this.helloDataSink = helloDataSink;
+        this.batchSize = batchSize;
+    }
+
+    /*
+        /request-body-json-v3 로 한 건씩 보내던 HelloData 를 한 번의 요청으로 보낸다.
+        content-type: application/x-ndjson (한 줄에 하나)
+            {"username":"hello", "age":20}
+            {"username":"spring", "age":30}
+        content-type: application/json (배열)
+            [{"username":"hello", "age":20}, {"username":"spring", "age":30}]
+
+        MappingIterator 로 스트림에서 한 건씩 읽기 때문에 바디 전체를 메모리에 올리지 않는다.
+        batchSize 만큼 모이면 HelloDataSink 로 넘기고 같은 리스트를 비워서 다시 쓴다.
+        "age":"abc" 처럼 값이 잘못된 레코드는 건너뛰고 에러로 기록한 뒤 다음 레코드를 계속 읽는다.
+     */
+    @PostMapping(value = "/request-body-json-batch",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public BatchResult requestBodyJsonBatch(InputStream inputStream) throws IOException {
+        BatchResult result = new BatchResult();
+        List<HelloData> batch = new ArrayList<>(batchSize);
+        long index = 0;
+        int line = 0;
+
+        try (MappingIterator<HelloData> iterator =
+                     jsonCodecs.reader(HelloData.class).readValues(StreamUtils.nonClosing(inputStream))) {
+            while (true) {
+                try {
+                    if (!iterator.hasNextValue()) {
+                        break;
+                    }
+                    line = iterator.getParser().getTokenLocation().getLineNr();
+                    batch.add(iterator.nextValue());
+                    result.accepted();
+                } catch (JsonMappingException e) {
+                    if (!(e.getCause() instanceof JsonParseException)) {
+                        result.failed(index, line, e.getOriginalMessage());
+                    } else {
+                        //객체 안의 문법 오류는 JsonMappingException 으로 감싸져서 온다.
+                        aborted(result, index, line, (JsonParseException) e.getCause());
+                        break;
+                    }
+                } catch (JsonProcessingException e) {
+                    //문법 오류는 다음 레코드의 시작을 알 수 없으니 거기까지만 처리한다.
+                    aborted(result, index, line, e);
+                    break;
+                }
+                index++;
+
+                if (batch.size() >= batchSize) {
+                    flush(batch, result);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch, result);
+        }
+
+        log.info("{}, {}, {}",
+                kv("received", result.getReceived()),
+                kv("accepted", result.getAccepted()),
+                kv("failed", result.getFailed()));
+        return result;
+    }
+
+    private static void aborted(BatchResult result, long index, int line, JsonProcessingException e) {
+        result.aborted(index, e.getLocation() == null ? line : e.getLocation().getLineNr(), e.getOriginalMessage());
+    }
+
+    private void flush(List<HelloData> batch, BatchResult result) {
+        helloDataSink.accept(batch);
+        result.flushed();
+        batch.clear();
+    }
+}
@@ -1,10 +1,11 @@
 package hello.springmvc.ch6.basic.request;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import hello.springmvc.ch6.basic.HelloData;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -13,64 +14,112 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.chrono.HijrahDate;
 
+import static hello.springmvc.web.BinaryJsonConverterConfig.APPLICATION_SMILE_VALUE;
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
 /**
  * Spring MVC Chapter 6 - 기본기능
  * 10. HTTP 요청 메시지 - JSON
  */
 @Slf4j
 @Controller
+@RequiredArgsConstructor
 public class RequestBodyJsonController {
     /*
         아래와 같이 json 데이터로 클라이언트에서 보낼거야.
         {"username":"hello", "age":20}
         content-type: application/json
         그걸 읽어서 객체에 담아 보자구
+
+        new ObjectMapper() 를 직접 만들지 않고 부트의 ObjectMapper 로 만든 JsonCodecs 를 주입받는다.
+            (*HTTP 메시지 컨버터와 같은 ObjectMapper 캐시를 공유함, JsonCodecs 참고)
      */
-    private ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonCodecs jsonCodecs;
+    private final RequestBodyExecutor requestBodyExecutor;
 
     /*
         HttpServletRequest를 사용해서 직접 HTTP 메시지 바디에서 데이터를 읽어와서, 문자로 변환한다.
-        문자로 된 JSON 데이터를 Jackson 라이브러리인  objectMapper 를 사용해서 자바 객체로 변환한다
+        문자로 된 JSON 데이터를 Jackson 라이브러리인  objectMapper(ObjectReader) 를 사용해서 자바 객체로 변환한다
+
+        바디를 직접 읽으니까 실행 모드를 바꿀 수 있다. (RequestBodyStringController v1 참고)
+            hello.request-body.execution.endpoints.request-body-json-v1=callable (*기본은 sync)
      */
+    @ResponseBody
     @PostMapping("/request-body-json-v1")
-    public void requestBodyJsonV1(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    public DeferredResult<String> requestBodyJsonV1(HttpServletRequest request) throws IOException {
         ServletInputStream inputStream = request.getInputStream();
-        String messageBody = StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
-        log.info("messageBody={}", messageBody);
-        /*
-            결과
-            messageBody={
-                "username": "hello",
-                "age": 20
-            }
-         */
-
-        //json 데이터를 읽어서 객체에 담아보자
-        //objectMapper 객체의 readValue 메서드를 호출해서 args 로 messageBody 와 타겟 클래스를 받자구
-        HelloData data = objectMapper.readValue(messageBody, HelloData.class);
-        log.info("data={}", data); //결과 data=HelloData(username=hello, age=20)
-        log.info("username={},age={}", data.getUsername(), data.getAge()); //결과 username=hello,age=20
-        response.getWriter().write("ok");
+        return requestBodyExecutor.submit("request-body-json-v1", inputStream, body -> {
+            String messageBody = StreamUtils.copyToString(body, StandardCharsets.UTF_8);
+            log.info("{}", kv("messageBody", messageBody));
+            /*
+                결과
+                messageBody={
+                    "username": "hello",
+                    "age": 20
+                }
+             */
+
+            //json 데이터를 읽어서 객체에 담아보자
+            //HelloData 타입의 ObjectReader 의 readValue 메서드를 호출해서 args 로 messageBody 를 받자구
+            HelloData data = jsonCodecs.reader(HelloData.class).readValue(messageBody);
+            log.info("{}", kv("data", data)); //결과 data=HelloData(username=hello, age=20)
+            log.info("{},{}", kv("username", data.getUsername()), kv("age", data.getAge()));
+            return "ok";
+        });
+    }
+
+    /*
+        v1 과 같이 HttpServletRequest 에서 바디를 직접 읽지만, 문자열로 바꾸지 않는다.
+        ServletInputStream 을 JsonParser 로 바로 파싱하니까
+        바디 크기만큼의 String(그리고 그 char[]) 이 만들어지지 않는다.
+            (*큰 바디일수록 요청당 할당량 차이가 커짐, JsonBodyStreamingBenchmark 참고)
+     */
+    @ResponseBody
+    @PostMapping("/request-body-json-stream")
+    public DeferredResult<String> requestBodyJsonStream(HttpServletRequest request) throws IOException {
+        return requestBodyExecutor.submit("request-body-json-stream", request.getInputStream(), body -> {
+            HelloData data = jsonCodecs.read(body, HelloData.class);
+            log.info("{},{}", kv("username", data.getUsername()), kv("age", data.getAge()));
+            return "ok";
+        });
+    }
+
+    /*
+        stream 방식을 요청 스레드 밖에서 실행하는 비동기 버전
+        실행 모드는 hello.request-body.execution.endpoints.request-body-json-async 로 정한다.
+            (*RequestBodyStringController.requestBodyStringAsync 참고)
+     */
+    @ResponseBody
+    @PostMapping("/request-body-json-async")
+    public DeferredResult<String> requestBodyJsonAsync(InputStream inputStream) {
+        return requestBodyExecutor.submit("request-body-json-async", inputStream, body -> {
+            HelloData data = jsonCodecs.read(body, HelloData.class);
+            log.info("{},{}", kv("username", data.getUsername()), kv("age", data.getAge()));
+            return "ok";
+        });
     }
 
     /*
         위의 방식보다 더 간략하게 해보자고
         @ResponseBody 와 @RequestBody 를 이용하자.
         편리한데 readValue 하는거 쫌 그래 v3 보자
+
+        v2 ~ v4 는 핸들러가 호출되기 전에 요청 스레드에서 바디를 다 읽으니까 실행 모드를 바꿀 수 없다. (늘 sync)
      */
     @ResponseBody
     @PostMapping("/request-body-json-v2")
     public String requestBodyJsonV2(@RequestBody String messageBody) throws IOException {
-        HelloData data = objectMapper.readValue(messageBody, HelloData.class);
-        log.info("username={},age={}", data.getUsername(), data.getAge()); //결과 username=hello,age=20
+        HelloData data = jsonCodecs.reader(HelloData.class).readValue(messageBody);
+        log.info("{},{}", kv("username", data.getUsername()), kv("age", data.getAge())); //결과 username=hello,age=20
         return "ok";
     }
 
@@ -82,9 +131,10 @@ public class RequestBodyJsonController {
         V2에서 했던 작업을 대신 처리해준다
      */
     @ResponseBody
-    @PostMapping("/request-body-json-v3")
+    @PostMapping(value = "/request-body-json-v3",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     public String requestBodyJsonV3(@RequestBody HelloData data) {
-        log.info("username={},age={}", data.getUsername(), data.getAge()); //결과 username=hello,age=20
+        log.info("{},{}", kv("username", data.getUsername()), kv("age", data.getAge())); //결과 username=hello,age=20
         return "ok";
     }
     /*
@@ -100,13 +150,19 @@ public class RequestBodyJsonController {
         주의
         HTTP 요청시에 content-type이 application/json인지 꼭! 확인해야 한다.
         그래야 JSON을 처리할 수 있는 HTTP 메시지 컨버터가 실행된다.
+
+        v3 ~ v6 은 같은 HelloData 를 바이너리 형식으로도 받는다. (MappingController 의 consumes, produces 참고)
+            content-type: application/cbor, application/x-jackson-smile
+            응답은 Accept 로 고른다. Accept 가 없거나 *\/* 이면 첫 번째인 application/json
+            (*BinaryJsonConverterConfig 참고)
      */
 
     @ResponseBody
-    @PostMapping("/request-body-json-v4")
+    @PostMapping(value = "/request-body-json-v4",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     public String requestBodyJsonV4(HttpEntity<HelloData> httpEntity) {
         HelloData data = httpEntity.getBody();
-        log.info("username={},age={}", data.getUsername(), data.getAge());
+        log.info("{},{}", kv("username", data.getUsername()), kv("age", data.getAge()));
         return "ok";
     }
 
@@ -115,29 +171,35 @@ public class RequestBodyJsonController {
         HttpEntity 를 사용해도 됨.
      */
     @ResponseBody
-    @PostMapping("/request-body-json-v5")
+    @PostMapping(value = "/request-body-json-v5",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     public HelloData requestBodyJsonV5(@RequestBody HelloData data) {
-        log.info("username={}, age={}", data.getUsername(), data.getAge());
+        log.info("{}, {}", kv("username", data.getUsername()), kv("age", data.getAge()));
         return data;
     }
 
     /*
         return type => httpEntity 로도 바꿔보자.
      */
-    @PostMapping("/request-body-resp-entity")
+    @PostMapping(value = "/request-body-resp-entity",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     public HttpEntity<HelloData> requestBodyJsonV6(HttpEntity<HelloData> httpEntity) {
         HelloData messageBody = httpEntity.getBody();
-        log.info("username={}, age={}", messageBody.getUsername(), messageBody.getAge());
+        log.info("{}, {}", kv("username", messageBody.getUsername()), kv("age", messageBody.getAge()));
         return new HttpEntity<HelloData>(messageBody);
     }
 
     /*
         entity 를 Response 와 Request 로 바꿔보자
      */
-    @PostMapping("/request-body-entity")
+    @PostMapping(value = "/request-body-entity",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     public ResponseEntity<HelloData> requestBodyJsonV6(RequestEntity<HelloData> requestEntity) {
         HelloData messageBody = requestEntity.getBody();
-        log.info("username={}, age={}", messageBody.getUsername(), messageBody.getAge());
+        log.info("{}, {}", kv("username", messageBody.getUsername()), kv("age", messageBody.getAge()));
         return new ResponseEntity<>(messageBody, HttpStatus.CREATED);
     }
 }
@@ -1,5 +1,7 @@
 package hello.springmvc.ch6.basic.request;
 
+import hello.springmvc.web.ConstantResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpStatus;
@@ -10,48 +12,82 @@ import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
 /**
  * Spring MVC Chapter 6 - 기본기능
  * 9. HTTP 요청 메시지 - 단순 텍스트
  */
 @Slf4j
 @Controller
+@RequiredArgsConstructor
 public class RequestBodyStringController {
 
+    private final RequestBodyExecutor requestBodyExecutor;
+    private final RawBodyReader rawBodyReader;
+
     /*
         요청 파라미터와 다르게
         http 메시지 바디를 통해 데이터가 넘어오는 경우
         @RequestParam, @ModelAttribute 를 사용할 수 없다.
             (*HTTP 요청 파라미터 편 참고)
+
+        v1, v2 는 바디를 직접 읽으니까 읽는 작업을 RequestBodyExecutor 에 넘겨서 실행 모드를 바꿀 수 있다.
+            hello.request-body.execution.endpoints.request-body-string-v1=callable (*기본은 sync)
+        응답은 Writer 대신 DeferredResult 로 돌려준다. (실행 스레드에서는 응답을 직접 쓰지 않음)
      */
+    @ResponseBody
     @PostMapping("/request-body-string-v1")
-    public void requestBodyString(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    public DeferredResult<String> requestBodyString(HttpServletRequest request) throws IOException {
         //HTTP 메시지 바디의 데이터를 InputStream 을 이용해서 직접 읽을 수 있다.
         ServletInputStream inputStream = request.getInputStream();
-        //ServletInputStream 을 통해 읽어들인 이진데이터를 String 타입으로 변환
-        String messageBody = StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
-
-        log.info("messageBody={}", messageBody);
-        response.getWriter().write("ok");
+        return requestBodyExecutor.submit("request-body-string-v1", inputStream, body -> {
+            //ServletInputStream 을 통해 읽어들인 이진데이터를 String 타입으로 변환
+            String messageBody = StreamUtils.copyToString(body, StandardCharsets.UTF_8);
+            log.info("{}", kv("messageBody", messageBody));
+            return "ok";
+        });
     }
 
     /*
         메시지 바디를 InputStream 을 통해 바로 받아 문자열로 변환한다.
      */
+    @ResponseBody
     @PostMapping("/request-body-string-v2")
-    public void requestBodyStringV2(InputStream inputStream, Writer responseWriter) throws IOException {
-        String messageBody = StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
-        log.info("messageBody={}", messageBody);
-        responseWriter.write("ok");
+    public DeferredResult<String> requestBodyStringV2(InputStream inputStream) {
+        return requestBodyExecutor.submit("request-body-string-v2", inputStream, body -> {
+            String messageBody = StreamUtils.copyToString(body, StandardCharsets.UTF_8);
+            log.info("{}", kv("messageBody", messageBody));
+            return "ok";
+        });
+    }
+
+    /*
+        v1, v2 는 바디 전체를 String 으로 만들어서 로그를 찍기 때문에 바디 크기만큼 힙을 쓴다.
+            (*수백 MB 바디 하나로도 OOM 이 날 수 있음)
+        raw 모드는 InputStream 을 고정 크기 chunk 로 읽으면서 길이, SHA-256 만 계산하고
+        앞부분(prefix)만 로그로 남긴다. 필요하면 파일로 저장(spool)한다. (RawBodyReader 참고)
+        저장한 파일은 로그의 spooledTo 경로에 retention 동안 남는다. (RawBodySpool 참고)
+     */
+    @ResponseBody
+    @ConstantResponse
+    @PostMapping("/request-body-string-raw")
+    public String requestBodyStringRaw(InputStream inputStream) throws IOException {
+        RawBodySummary summary = rawBodyReader.read(inputStream);
+        log.info("{}, {}, {}, {}",
+                kv("length", summary.getLength()),
+                kv("sha256", summary.getSha256()),
+                kv("prefix", summary.getPrefix()),
+                kv("spooledTo", summary.getSpooledTo()));
+        return "ok";
     }
 
     /*
@@ -74,11 +110,15 @@ public class RequestBodyStringController {
         스프링MVC 내부에서 HTTP 메시지 바디를 읽어서 문자나 객체로 변환해서 전달해주는데,
         이때 HTTP 메시지 컨버터( HttpMessageConverter )라는 기능을 사용한다.
         이것은 조금 뒤에 HTTP 메시지 컨버터에서 자세히 설명한다
+
+        v3, v4 는 핸들러가 호출되기 전에 요청 스레드에서 바디를 다 읽으니까 실행 모드를 바꿀 수 없다.
+            (*늘 sync, 바꾸려면 v1, v2 처럼 InputStream 을 받아야 함)
      */
+    @ConstantResponse
     @PostMapping("/request-body-string-v3")
     public HttpEntity<String> requestBodyStringV3(HttpEntity<String> httpEntity) {
         String messageBody = httpEntity.getBody();
-        log.info("messageBody={}", messageBody);
+        log.info("{}", kv("messageBody", messageBody));
         return new HttpEntity<>("ok");
     }
 
@@ -92,7 +132,7 @@ public class RequestBodyStringController {
      */
     @PostMapping("/request-body-String-test")
     public ResponseEntity<String> requestBodyStringTest(RequestEntity<String> requestEntity) {
-        log.info("requestEntity={}", requestEntity);
+        log.info("{}", kv("requestEntity", requestEntity));
         return new ResponseEntity<>("hello world", HttpStatus.OK);
     }
 
@@ -106,9 +146,27 @@ public class RequestBodyStringController {
         - HttpMessageConverter 사용 -> StringHttpMessageConverter 적용
      */
     @ResponseBody
+    @ConstantResponse
     @PostMapping("request-body-string-v4")
     public String requestBodyStringV4(@RequestBody String messageBody) {
-        log.info("messageBody={}", messageBody);
+        log.info("{}", kv("messageBody", messageBody));
         return "ok";
     }
+
+    /*
+        바디를 읽는 동안 요청 스레드를 붙잡지 않는 비동기 버전
+        실행 모드는 hello.request-body.execution.endpoints.request-body-string-async 로 정한다.
+            (*sync, callable, virtual - RequestBodyExecutor 참고)
+        @RequestBody, HttpEntity 는 핸들러 호출 전에 요청 스레드에서 바디를 다 읽어버리니까
+        InputStream 을 받아서 실행 스레드에서 직접 읽어야 한다.
+     */
+    @ResponseBody
+    @PostMapping("/request-body-string-async")
+    public DeferredResult<String> requestBodyStringAsync(InputStream inputStream) {
+        return requestBodyExecutor.submit("request-body-string-async", inputStream, body -> {
+            String messageBody = StreamUtils.copyToString(body, StandardCharsets.UTF_8);
+            log.info("{}", kv("messageBody", messageBody));
+            return "ok";
+        });
+    }
 }
@@ -2,6 +2,7 @@ package hello.springmvc.ch6.basic.request;
 
 
 import hello.springmvc.ch6.basic.HelloData;
+import hello.springmvc.web.ConstantResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
 import org.springframework.util.MultiValueMap;
@@ -10,12 +11,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
-import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.Map;
 import java.util.Objects;
 
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
 /**
  * Spring MVC Chapter 6 - 기본기능
  * 6. HTTP 요청 파라미터 - 쿼리 파라미터, HTML Form
@@ -33,58 +35,73 @@ public class RequestParamController {
         get 방식으로 호출해보고
         html-form 을 이용해서 post method 2가지 방식로 호출하여 확인해보자.
 
+        HttpServletRequest 대신 RequestParams 를 받는다.
+        request.getParameter 를 감싼 지연 조회 뷰라서 꺼내는 값만 읽고, int 변환도 꺼낼 때 한 번만 한다.
+        로그 레벨이 info 보다 높으면 파라미터를 읽지도 변환하지도 않는다.
+            (*RequestParams, RequestParamsArgumentResolver 참고)
      */
     @RequestMapping("/request-param-v1")
-    public void requestParamV1(HttpServletRequest request, HttpServletResponse response) throws IOException {
-        String username = request.getParameter("username");
-        int age = Integer.parseInt(request.getParameter("age"));
-        log.info("username ={}, age={}", username, age);
+    public void requestParamV1(RequestParams params, HttpServletResponse response) throws IOException {
+        if (log.isInfoEnabled()) {
+            log.info("{}, {}", kv("username", params.get("username")), kv("age", params.getInt("age")));
+        }
         response.getWriter().write("ok");
     }
 
     @ResponseBody
+    @ConstantResponse
     @RequestMapping("/request-param-v2")
     public String requestParamV2(@RequestParam("username") String memberName,
                                  @RequestParam("age") int memberAge) {
-        log.info("username={}, age={}", memberName, memberAge);
+        log.info("{}, {}", kv("username", memberName), kv("age", memberAge));
         return "ok";
     }
 
     @ResponseBody
+    @ConstantResponse
     @RequestMapping("/request-param-v3")
     public String requestParamV3(@RequestParam String username,
                                  @RequestParam int age) {
-        log.info("username={}, age={}", username, age);
+        log.info("{}, {}", kv("username", username), kv("age", age));
 
         return "ok";
     }
 
     @ResponseBody
+    @ConstantResponse
     @RequestMapping("/request-param-v4")
     public String requestParamV4(String username, int age) {
-        log.info("username={}, age={}", username, age);
+        log.info("{}, {}", kv("username", username), kv("age", age));
         return "ok";
     }
 
     @ResponseBody
+    @ConstantResponse
     @RequestMapping("/request-required")
     public String requestRequiredParam(@RequestParam(required = true, defaultValue = "guest") String username,
                                        @RequestParam(required = true, defaultValue = "10") int age) {
-        log.info("username={}, age={}", username, age);
+        log.info("{}, {}", kv("username", username), kv("age", age));
         return "ok";
     }
 
+    /*
+        @RequestParam Map, MultiValueMap 은 모든 파라미터를 복사한 Map 대신
+        @LazyParams 를 붙여서 요청을 그대로 감싼 읽기 전용 뷰로 받는다. (LazyRequestParamMapResolver 참고)
+        핸들러 코드는 그대로, get 할 때만 해당 키를 읽는다. (put, remove 는 안 됨)
+     */
     @ResponseBody
+    @ConstantResponse
     @RequestMapping("request-map")
-    public String requestMapParam(@RequestParam Map<String, Objects> paramMap) {
-        log.info("username={}, age={}", paramMap.get("username"), paramMap.get("age"));
+    public String requestMapParam(@RequestParam @LazyParams Map<String, Objects> paramMap) {
+        log.info("{}, {}", kv("username", paramMap.get("username")), kv("age", paramMap.get("age")));
         return "ok";
     }
 
     @ResponseBody
+    @ConstantResponse
     @RequestMapping("/request-multi-map")
-    public String requestMultiMapParam(@RequestParam MultiValueMap<String, Objects> multiValueMap) {
-        log.info("username={}, age={}", multiValueMap.get("username"), multiValueMap.get("age"));
+    public String requestMultiMapParam(@RequestParam @LazyParams MultiValueMap<String, Objects> multiValueMap) {
+        log.info("{}, {}", kv("username", multiValueMap.get("username")), kv("age", multiValueMap.get("age")));
         return "ok";
     }
 
@@ -98,9 +115,10 @@ public class RequestParamController {
         예) 파라미터 이름이  username 이면  setUsername()  메서드를 찾아서 호출하면서 값을 입력한다.
      */
     @ResponseBody
+    @ConstantResponse
     @RequestMapping("/model-attribute-v1")
     public String modelAttributeV1(@ModelAttribute HelloData helloData) {
-        log.info("username={}, age={}", helloData.getUsername(), helloData.getAge());
+        log.info("{}, {}", kv("username", helloData.getUsername()), kv("age", helloData.getAge()));
         return "ok";
     }
 
@@ -111,9 +129,10 @@ public class RequestParamController {
         @ModelAttribute => argument resolver 로 지정해둔 타입 외의 경우
      */
     @ResponseBody
+    @ConstantResponse
     @RequestMapping("/model-attribute-v2")
     public String modelAttribute(HelloData helloData) {
-        log.info("username={},age={}", helloData.getUsername(), helloData.getAge());
+        log.info("{},{}", kv("username", helloData.getUsername()), kv("age", helloData.getAge()));
         return "ok";
     }
 }
@@ -0,0 +1,77 @@
+package hello.springmvc.ch6.basic.request;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Spring MVC Chapter 6 - 기본기능
+ * 6. HTTP 요청 파라미터 - 지연(lazy) 조회용 파라미터 뷰
+ *
+ * 핸들러 파라미터로 RequestParams 를 받으면 (RequestParamsArgumentResolver)
+ * 모든 파라미터를 Map 으로 복사하지 않고, 실제로 꺼낼 때만 HttpServletRequest 에서 읽어온다.
+ * int 변환 결과는 요청 안에서 캐시해두고 재사용한다.
+ */
+public class RequestParams {
+
+    private static final int INT_CACHE_SIZE = 4;
+
+    private final HttpServletRequest request;
+
+    /*
+        getInt 로 변환한 값 캐시 (처음 getInt 를 부를 때 만든다)
+     */
+    private String[] intNames;
+    private int[] intValues;
+    private int intCount;
+
+    public RequestParams(HttpServletRequest request) {
+        this.request = request;
+    }
+
+    public String get(String name) {
+        return request.getParameter(name);
+    }
+
+    public List<String> getAll(String name) {
+        String[] values = request.getParameterValues(name);
+        return values == null ? Collections.emptyList() : Arrays.asList(values);
+    }
+
+    public boolean contains(String name) {
+        return request.getParameter(name) != null;
+    }
+
+    /*
+        Integer.parseInt 와 같은 규칙으로 변환한다. (없거나 숫자가 아니면 NumberFormatException)
+     */
+    public int getInt(String name) {
+        for (int i = 0; i < intCount; i++) {
+            if (intNames[i].equals(name)) {
+                return intValues[i];
+            }
+        }
+
+        int value = Integer.parseInt(request.getParameter(name));
+        if (intNames == null) {
+            intNames = new String[INT_CACHE_SIZE];
+            intValues = new int[INT_CACHE_SIZE];
+        }
+        if (intCount < INT_CACHE_SIZE) {
+            intNames[intCount] = name;
+            intValues[intCount] = value;
+            intCount++;
+        }
+        return value;
+    }
+
+    public int getInt(String name, int defaultValue) {
+        return contains(name) ? getInt(name) : defaultValue;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestParams" + request.getParameterMap().keySet();
+    }
+}
@@ -1,11 +1,34 @@
 package hello.springmvc.ch6.basic.requestmapping;
 
+import hello.springmvc.ch6.basic.requestmapping.user.UserBulkExecutor;
+import hello.springmvc.ch6.basic.requestmapping.user.UserBulkItemResult;
+import hello.springmvc.ch6.basic.requestmapping.user.UserBulkRequest;
+import hello.springmvc.ch6.basic.requestmapping.user.UserBulkResponse;
+import hello.springmvc.ch6.basic.requestmapping.user.UserService;
+import hello.springmvc.web.cache.ResponseCacheEvict;
+import hello.springmvc.web.cache.ResponseCached;
+import hello.springmvc.web.coalesce.Coalesce;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
+@RequiredArgsConstructor
 @RequestMapping("/mapping/users")
 public class MappingClassController {
 
+    private final UserService userService;
+    private final UserBulkExecutor userBulkExecutor;
+
     @GetMapping
     public String users() {
         return "getUsers";
@@ -16,20 +39,106 @@ public class MappingClassController {
         return "addUsers";
     }
 
+    /*
+        사용자 상태는 UserStore 에 있다. 없는 사용자는 404, POST 는 이미 있어도 성공한다.
+
+        경로 변수로만 응답이 정해지는 GET 이라 응답을 캐시한다. (ETag, If-None-Match => 304)
+        같은 userId 의 POST, PATCH, DELETE 가 성공하면 캐시를 지운다.
+            (*ResponseCached, ResponseCacheEvict 참고)
+        캐시에 없는 같은 userId 조회가 동시에 몰리면 UserService 는 한 번만 호출하고 결과를 나눠 쓴다. (@Coalesce)
+     */
+    @ResponseCached(tag = "user:{userId}")
+    @Coalesce(key = "{userId}")
     @GetMapping("/{userId}")
     public String getUserId(@PathVariable("userId") String userId) {
-        return "get path userId =" + userId ;
+        return userService.get(userId);
     }
+    @ResponseCacheEvict(tag = "user:{userId}")
     @PostMapping("/{userId}")
     public String addUserId(@PathVariable String userId) {
-        return "add path userId=" + userId ;
+        return userService.add(userId);
     }
+    @ResponseCacheEvict(tag = "user:{userId}")
     @PatchMapping("/{userId}")
     public String updateUserId(@PathVariable String userId) {
-        return "update path userId=" + userId ;
+        return userService.update(userId);
     }
+    @ResponseCacheEvict(tag = "user:{userId}")
     @DeleteMapping("/{userId}")
     public String deleteUserId(@PathVariable String userId) {
-        return "delete path userId=" + userId ;
+        return userService.delete(userId);
+    }
+
+    /*
+        주문 추가/삭제 - 조회는 MappingController.mappingPath(userId, orderId)
+        사용자나 주문이 없으면 404, 같은 userId 의 캐시된 응답을 지운다.
+     */
+    @ResponseCacheEvict(tag = "user:{userId}")
+    @PostMapping("/{userId}/orders/{orderId}")
+    public String addOrder(@PathVariable String userId, @PathVariable long orderId) {
+        return userService.addOrder(userId, orderId);
+    }
+    @ResponseCacheEvict(tag = "user:{userId}")
+    @DeleteMapping("/{userId}/orders/{orderId}")
+    public String deleteOrder(@PathVariable String userId, @PathVariable long orderId) {
+        return userService.deleteOrder(userId, orderId);
+    }
+
+    /*
+        일괄 처리 - 여러 건의 POST, PATCH, DELETE 를 요청 한 번으로 보낸다.
+        {"operations":[{"op":"add","userId":"userA"}, {"op":"delete","userId":"userB"}]}
+
+        건마다 단건 요청이었다면 받았을 상태 코드(status)와 결과가 순서대로 돌아온다.
+        Idempotency-Key 헤더를 주면 같은 키로 재시도할 때 이미 성공한 건은 다시 실행하지 않는다.
+            (*UserBulkExecutor 참고)
+
+        consumes 를 두지 않는다. 두면 Content-Type 이 JSON 이 아닌 요청이 POST /{userId} 로 넘어가서
+        "_bulk" 라는 사용자가 만들어진다. JSON 이 아니면 @RequestBody 컨버터가 415 로 거절한다.
+     */
+    @PostMapping("/_bulk")
+    public CompletableFuture<UserBulkResponse> bulk(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody UserBulkRequest request) {
+        List<CompletableFuture<UserBulkItemResult>> futures =
+                userBulkExecutor.submit(idempotencyKey, request.getOperations());
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new))
+                .thenApply(done -> {
+                    List<UserBulkItemResult> items = new ArrayList<>(futures.size());
+                    for (CompletableFuture<UserBulkItemResult> future : futures) {
+                        items.add(future.join());
+                    }
+                    return new UserBulkResponse(idempotencyKey, items);
+                });
+    }
+
+    /*
+        ?stream=true 면 다 모으지 않고 끝나는 순서대로 한 줄에 한 건씩 보낸다. (application/x-ndjson)
+     */
+    @PostMapping(value = "/_bulk", params = "stream=true")
+    public ResponseEntity<ResponseBodyEmitter> bulkStream(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody UserBulkRequest request) {
+        List<CompletableFuture<UserBulkItemResult>> futures =
+                userBulkExecutor.submit(idempotencyKey, request.getOperations());
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        //마지막 줄을 보낸 뒤에 닫도록 보내는 작업(thenAccept)이 다 끝나기를 기다린다.
+        CompletableFuture<?>[] sent = new CompletableFuture<?>[futures.size()];
+        for (int i = 0; i < sent.length; i++) {
+            sent[i] = futures.get(i).thenAccept(item -> sendLine(emitter, item));
+        }
+        CompletableFuture.allOf(sent).whenComplete((done, e) -> emitter.complete());
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+
+    private static void sendLine(ResponseBodyEmitter emitter, UserBulkItemResult item) {
+        //JSON 과 줄바꿈이 다른 건과 섞이지 않도록 한 번에 보낸다.
+        Set<ResponseBodyEmitter.DataWithMediaType> line = new LinkedHashSet<>(2);
+        line.add(new ResponseBodyEmitter.DataWithMediaType(item, MediaType.APPLICATION_JSON));
+        line.add(new ResponseBodyEmitter.DataWithMediaType("\n", MediaType.TEXT_PLAIN));
+        try {
+            emitter.send(line);
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
     }
 }
@@ -1,16 +1,27 @@
 package hello.springmvc.ch6.basic.requestmapping;
 
+import hello.springmvc.ch6.basic.requestmapping.user.UserService;
+import hello.springmvc.web.ConstantResponse;
+import hello.springmvc.web.cache.ResponseCached;
+import hello.springmvc.web.coalesce.Coalesce;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
 /**
  * Spring MVC Chapter 6 - 기본기능
  * 3. 요청 매핑
  */
 @Slf4j
 @RestController
+@RequiredArgsConstructor
 public class MappingController {
+
+    private final UserService userService;
+
     /*
         @RestController
         @Controller 는 반환 값이  String 이면 뷰 이름으로 인식된다. 그래서 뷰를 찾고 뷰가 랜더링 된다.
@@ -24,13 +35,18 @@ public class MappingController {
         둘다 허용 /hello-basic, /hello-basic/
         HTTP 메서드 모두 허용 GET, HEAD, POST, PUT, PATCH, DELETE
             (*요청메서드를 구체화 하지 않았기 때문)
+
+        @ConstantResponse : 항상 "ok" 를 반환하니까 미리 인코딩한 바이트를 바로 쓴다.
+            (*메시지 컨버터를 거치지 않음, ConstantResponseReturnValueHandler 참고)
      */
+    @ConstantResponse
     @RequestMapping("/hello-basic")
     public String helloBasic() {
         log.info("helloBasic");
         return "ok";
     }
 
+    @ConstantResponse
     @RequestMapping(value = "/mapping-get-v1", method = RequestMethod.GET)
     public String mappingGetV1() {
         log.info("mappingGetV1");
@@ -46,6 +62,7 @@ public class MappingController {
         @PatchMapping
             (*이놈들 내부코드 뜯어보면 method 방식 지정해주고 있음. 별거없움)
      */
+    @ConstantResponse
     @GetMapping("/mapping-get-v2")
     public String mappingGetV2() {
         log.info("mapping-get-v2");
@@ -56,17 +73,28 @@ public class MappingController {
         PathVariable
         @PathVariable("userId") String userId -> @PathVariable userId
         위와 같이 변수명을 동일하게 사용하게 되면 pathVariable 의 변수명을 명시하지 않아도 된다.
+
+        응답이 경로 변수로만 정해지니까 캐시한다. 캐시에 있으면 핸들러가 호출되지 않는다. (로그도 안 찍힘)
+        /mapping/users/{userId} 가 변경되면 같은 userId 의 응답도 지워진다. (MappingClassController 참고)
      */
+    @ResponseCached(tag = "user:{userId}")
     @GetMapping("/mapping/{userId}")
     public String mappingPath(@PathVariable("userId") String userId) {
-        log.info("mappingPath userId={}", userId);
+        log.info("mappingPath {}", kv("userId", userId));
         return "ok";
     }
 
+    /*
+        주문이 UserStore 에 있으면 ok, 사용자나 주문이 없으면 404
+        주문 추가/삭제는 MappingClassController (같은 user:{userId} 캐시를 지움)
+        캐시에 없는 같은 주문 조회가 동시에 몰리면 UserService 는 한 번만 호출한다. (@Coalesce)
+     */
+    @ResponseCached(tag = "user:{userId}")
+    @Coalesce(key = "{userId}/{orderId}")
     @GetMapping("/mapping/users/{userId}/orders/{orderId}")
     public String mappingPath(@PathVariable String userId, @PathVariable Long orderId) {
-        log.info("mappingPath userId={}, orderId={}", userId, orderId);
-        return "ok";
+        log.info("mappingPath {}, {}", kv("userId", userId), kv("orderId", orderId));
+        return userService.getOrder(userId, orderId);
     }
 
     /*
@@ -77,6 +105,7 @@ public class MappingController {
         params="mode!=debug" (! = )
         params = {"mode=debug","data=good"}
     */
+    @ConstantResponse
     @GetMapping(value = "/mapping-param", params = "mode=debug")
     public String mappingParam() {
         log.info("mappingParam");
@@ -90,6 +119,7 @@ public class MappingController {
         headers="mode!=debug" (! = )
             (*postman 에서 header 정보를 담아줘야함)
      */
+    @ConstantResponse
     @GetMapping(value = "/mapping-header", headers = "mode=debug")
     public String mappingHeaders() {
         log.info("mappingHeader");
@@ -103,6 +133,7 @@ public class MappingController {
         consumes="*\/*"
         MediaType.APPLICATION_JSON_VALUE
      */
+    @ConstantResponse
     @PostMapping(value = "/mapping-consume", consumes = "application/json")
     public String mappingConsumes() {
         log.info("mappingConsumes");
@@ -113,12 +144,14 @@ public class MappingController {
         consumes = {"text/plain", "application/*"}
         consumes = MediaType.TEXT_PLAIN_VALUE
      */
+    @ConstantResponse
     @PostMapping(value = "/mapping-consume-v2", consumes = MediaType.APPLICATION_JSON_VALUE)
     public String mappingConsumesV2() {
         log.info("mappingConsumesV2");
         return "ok";
     }
 
+    @ConstantResponse
     @PostMapping(value = "/mapping-produces", produces = MediaType.TEXT_HTML_VALUE)
     public String mappingProduces() {
         log.info("mappingProduces");
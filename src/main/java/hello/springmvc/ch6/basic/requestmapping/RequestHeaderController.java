@@ -2,16 +2,14 @@ package hello.springmvc.ch6.basic.requestmapping;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpMethod;
-import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.CookieValue;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
 import java.util.Locale;
 
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
 /**
  * Spring MVC Chapter 6 - 기본기능
  * 5. HTTP 요청 - 기본, 헤더 조회
@@ -22,22 +20,31 @@ public class RequestHeaderController {
     /*
         애노테이션 기반 스프링 컨트롤러
         http 헤더 정보 조회 방법
+            HttpServletRequest, HttpServletResponse
+            HttpMethod : HTTP 메서드를 조회한다. org.springframework.http.HttpMethod
+            Locale : Locale 정보를 조회한다.
+            @RequestHeader MultiValueMap<String, String> headerMap : 모든 HTTP 헤더를 MultiValueMap 형식으로 조회한다.
+            @RequestHeader("host") String host : 특정 HTTP 헤더를 조회한다.
+            @CookieValue(value = "myCookie", required = false) String cookie : 특정 쿠키를 조회한다.
+
+        MultiValueMap 은 모든 헤더를 복사하니까 헤더 지연 조회 뷰(RequestHeaders)를 받는다.
+        쓰는 헤더(host)만 읽고, 전체 헤더는 debug 로그일 때만 꺼낸다.
+        @CookieValue String 은 SingleCookieValueResolver 가 myCookie 하나만 찾아서 넣어준다.
+            (*RequestHeaders, SingleCookieValueResolver 참고)
      */
     @RequestMapping("/headers")
-    public String headers(HttpServletRequest request,
-                          HttpServletResponse response,
-                          HttpMethod httpMethod,
+    public String headers(HttpMethod httpMethod,
                           Locale locale,
-                          @RequestHeader MultiValueMap<String,String> headerMap,
-                          @RequestHeader("host") String host,
+                          RequestHeaders headers,
                           @CookieValue(value = "myCookie", required = false) String cookie) {
-        log.info("request={}",request);
-        log.info("response={}",response);
-        log.info("httpMethod={}",httpMethod);
-        log.info("locale={}",locale);
-        log.info("headerMap={}",headerMap);
-        log.info("host={}",host);
-        log.info("cookie={}",cookie);
+        log.info("{}, {}, {}, {}",
+                kv("httpMethod", httpMethod),
+                kv("locale", locale),
+                kv("host", headers.get("host")),
+                kv("cookie", cookie));
+        if (log.isDebugEnabled()) {
+            log.debug("{}", kv("headers", headers));
+        }
         return "ok";
     }
 }
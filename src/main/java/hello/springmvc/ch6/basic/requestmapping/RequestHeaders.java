@@ -0,0 +1,58 @@
+package hello.springmvc.ch6.basic.requestmapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Spring MVC Chapter 6 - 기본기능
+ * 5. HTTP 요청 - 헤더 지연(lazy) 조회용 뷰
+ *
+ * @RequestHeader MultiValueMap 은 요청마다 모든 헤더 이름을 소문자로 바꿔 새 Map 에 복사한다.
+ * 핸들러 파라미터로 RequestHeaders 를 받으면 (RequestHeadersArgumentResolver)
+ * 복사 없이 꺼낼 때만 HttpServletRequest 에서 읽는다. 헤더 이름은 대소문자를 구분하지 않는다.
+ * 그래서 요청당 할당량이 클라이언트가 보낸 헤더 개수와 상관없다.
+ */
+public class RequestHeaders {
+
+    private final HttpServletRequest request;
+
+    public RequestHeaders(HttpServletRequest request) {
+        this.request = request;
+    }
+
+    public String get(String name) {
+        return request.getHeader(name);
+    }
+
+    public List<String> getAll(String name) {
+        Enumeration<String> values = request.getHeaders(name);
+        if (values == null || !values.hasMoreElements()) {
+            return Collections.emptyList();
+        }
+        return Collections.list(values);
+    }
+
+    public boolean contains(String name) {
+        return request.getHeader(name) != null;
+    }
+
+    /*
+        이름 목록이 필요할 때만 만든다. (디버그 로그 등)
+     */
+    public List<String> names() {
+        Enumeration<String> names = request.getHeaderNames();
+        return names == null ? Collections.emptyList() : Collections.list(names);
+    }
+
+    @Override
+    public String toString() {
+        List<String> entries = new ArrayList<>();
+        for (String name : names()) {
+            entries.add(name + ":" + getAll(name));
+        }
+        return "RequestHeaders" + entries;
+    }
+}
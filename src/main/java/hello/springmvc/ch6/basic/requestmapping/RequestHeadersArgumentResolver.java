@@ -0,0 +1,26 @@
+package hello.springmvc.ch6.basic.requestmapping;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * RequestHeaders 타입 파라미터를 만들어준다.
+ */
+public class RequestHeadersArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return RequestHeaders.class == parameter.getParameterType();
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        return new RequestHeaders(webRequest.getNativeRequest(HttpServletRequest.class));
+    }
+}
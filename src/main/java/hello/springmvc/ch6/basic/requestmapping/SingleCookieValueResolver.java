@@ -0,0 +1,86 @@
+package hello.springmvc.ch6.basic.requestmapping;
+
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.annotation.AbstractCookieValueMethodArgumentResolver;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Enumeration;
+
+/**
+ * @CookieValue String 파라미터를 Cookie 헤더에서 이름이 같은 쿠키 하나만 찾아서 만든다.
+ *
+ * 스프링 기본 resolver 는 request.getCookies() 를 호출하는데,
+ * 톰캣은 이때 Cookie 헤더의 모든 쿠키를 파싱해서 Cookie 객체 배열을 만든다.
+ * 여기서는 헤더 문자열을 앞에서부터 훑다가 찾는 이름이 나오면 그 값만 잘라낸다.
+ * required, defaultValue, 타입 변환은 기본 resolver 와 같다. (AbstractNamedValueMethodArgumentResolver)
+ * javax.servlet.http.Cookie 타입 파라미터는 기본 resolver 가 처리한다.
+ */
+public class SingleCookieValueResolver extends AbstractCookieValueMethodArgumentResolver {
+
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public SingleCookieValueResolver(ConfigurableBeanFactory beanFactory) {
+        super(beanFactory);
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return super.supportsParameter(parameter)
+                && String.class == parameter.nestedIfOptional().getNestedParameterType();
+    }
+
+    @Override
+    protected Object resolveName(String cookieName, MethodParameter parameter, NativeWebRequest webRequest) {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.COOKIE);
+        while (headers != null && headers.hasMoreElements()) {
+            String value = find(headers.nextElement(), cookieName);
+            if (value != null) {
+                return value.indexOf('%') < 0 ? value : urlPathHelper.decodeRequestString(request, value);
+            }
+        }
+        return null;
+    }
+
+    /*
+        "a=1; myCookie=hello; b=2" 에서 name 의 값을 찾는다. 없으면 null
+        쿠키 이름은 대소문자를 구분한다.
+     */
+    static String find(String header, String name) {
+        int length = header.length();
+        int start = 0;
+        while (start < length) {
+            while (start < length && (header.charAt(start) == ' ' || header.charAt(start) == '\t')) {
+                start++;
+            }
+            int end = header.indexOf(';', start);
+            if (end < 0) {
+                end = length;
+            }
+            int eq = header.indexOf('=', start);
+            if (eq > 0 && eq < end) {
+                int nameEnd = eq;
+                while (nameEnd > start && header.charAt(nameEnd - 1) == ' ') {
+                    nameEnd--;
+                }
+                if (nameEnd - start == name.length() && header.regionMatches(start, name, 0, name.length())) {
+                    int valueStart = eq + 1;
+                    int valueEnd = end;
+                    while (valueStart < valueEnd && header.charAt(valueStart) == ' ') {
+                        valueStart++;
+                    }
+                    while (valueEnd > valueStart && header.charAt(valueEnd - 1) == ' ') {
+                        valueEnd--;
+                    }
+                    return header.substring(valueStart, valueEnd);
+                }
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+}
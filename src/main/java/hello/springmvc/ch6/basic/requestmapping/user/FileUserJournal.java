@@ -0,0 +1,529 @@
+package hello.springmvc.ch6.basic.requestmapping.user;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * UserStore 변경을 디렉터리 안의 추가 전용(append-only) 바이너리 파일에 기록한다.
+ *
+ * 레코드 : [int 바디 길이][int CRC32(바디)][바디: byte 종류, long 시각, long 주문번호, short 길이 + userId(UTF-8)]
+ *
+ * 그룹 커밋
+ * - append 는 레코드를 메모리 버퍼에 넣고 번호만 받아간다. (해당 사용자 락 안이라 짧아야 함)
+ * - 쓰기 스레드 하나가 groupCommitInterval 만큼 모았다가 버퍼를 통째로 가져가서
+ *   FileChannel.write 로 쓰고 force 한 번 한 뒤 기다리던 요청들을 한꺼번에 깨운다.
+ *   요청마다 fsync 하지 않고, 동시에 들어온 요청들이 fsync 한 번을 나눠 쓴다.
+ *
+ * 세그먼트
+ * - segment-{번호}.log 가 segmentSize 를 넘으면 다음 번호로 넘어간다.
+ * - 닫힌 세그먼트가 compactSegments 개 쌓이면 다른 스레드가 UserStore 의 지금 상태를 snapshot-{번호}.log 로 쓰고
+ *   그 번호까지의 세그먼트를 지운다. 임시 파일에 다 쓰고 force 한 뒤 이름을 바꾸므로 반쯤 쓰인 스냅샷은 없다.
+ *   스냅샷에 그 뒤 세그먼트의 변경이 일부 들어가 있어도 다시 적용하면 결과가 같다. (UserStore 의 변경은 멱등)
+ *
+ * 복구 (open)
+ * - 가장 최근 스냅샷, 그 뒤 세그먼트 순서로 메모리 매핑해서 읽는다. (한 번에 최대 1GB 씩 매핑)
+ * - 마지막 세그먼트 끝의 잘린 레코드(쓰다가 죽은 것)나 CRC 가 맞지 않는 레코드부터는 잘라낸다.
+ *
+ * 쓰기 실패
+ * - 쓰기 스레드는 멈추고 기다리던 요청과 이후 append 는 모두 UncheckedIOException 을 받는다. (재시작해서 복구)
+ */
+@Slf4j
+public class FileUserJournal implements UserMutationLog {
+
+    private static final int HEADER_SIZE = 8;
+    private static final int FIXED_BODY_SIZE = 1 + 8 + 8 + 2;
+    private static final int MAX_BODY_SIZE = FIXED_BODY_SIZE + 0xFFFF;
+    private static final long MAP_WINDOW = 1L << 30;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final long segmentSize;
+    private final long groupCommitNanos;
+    private final int compactSegments;
+
+    private final Object appendLock = new Object();
+    private List<byte[]> pending = new ArrayList<>();
+    private long appended;
+    private volatile boolean running;
+
+    private final Object durableLock = new Object();
+    private long durable;
+    private volatile IOException failure;
+
+    //쓰기 스레드만 쓰는 상태
+    private UserStore store;
+    private RecordWriter segment;
+    private long segmentNumber;
+    private long closedSegments;
+    private Thread writer;
+
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public FileUserJournal(Path directory, long segmentSize, Duration groupCommitInterval, int compactSegments) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.groupCommitNanos = groupCommitInterval.toNanos();
+        this.compactSegments = compactSegments;
+    }
+
+    @Override
+    public void open(UserStore store) {
+        this.store = store;
+        try {
+            Files.createDirectories(directory);
+            long started = System.nanoTime();
+            long records = recover(store);
+            log.info("user journal recovered {}, {}, {}, {}",
+                    kv("directory", directory), kv("records", records), kv("users", store.size()),
+                    kv("millis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)));
+
+            segmentNumber++;
+            segment = openSegment(segmentNumber);
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to open user journal " + directory, e);
+        }
+
+        running = true;
+        writer = new Thread(this::writeLoop, "user-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public long append(UserMutation mutation, String userId, long orderId, long epochMillis) {
+        byte[] record = encode(mutation, userId, orderId, epochMillis);
+        synchronized (appendLock) {
+            //쓰기가 한 번 실패하면 기록되지 않을 변경을 받지 않는다. (UserStore 의 compute 안이라 메모리도 바뀌지 않음)
+            if (failure != null) {
+                throw new UncheckedIOException("user journal write failed", failure);
+            }
+            if (!running) {
+                throw new IllegalStateException("user journal is closed");
+            }
+            pending.add(record);
+            appendLock.notify();
+            return ++appended;
+        }
+    }
+
+    @Override
+    public void awaitDurable(long sequence) {
+        synchronized (durableLock) {
+            while (durable < sequence) {
+                if (failure != null) {
+                    throw new UncheckedIOException("user journal write failed", failure);
+                }
+                try {
+                    durableLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("interrupted while waiting for user journal", e);
+                }
+            }
+        }
+    }
+
+    /*
+        남은 기록을 다 쓰고 닫는다. (@Bean 의 destroyMethod 추론으로 불린다)
+     */
+    public void close() throws IOException, InterruptedException {
+        synchronized (appendLock) {
+            running = false;
+            appendLock.notify();
+        }
+        if (writer != null) {
+            writer.join();
+        }
+        compactor.shutdown();
+        compactor.awaitTermination(1, TimeUnit.MINUTES);
+        if (segment != null) {
+            segment.close();
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            synchronized (appendLock) {
+                while (pending.isEmpty() && running) {
+                    try {
+                        appendLock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+            }
+            //먼저 온 요청이 조금 기다리는 동안 동시에 들어온 요청들을 같은 force 에 태운다.
+            if (groupCommitNanos > 0 && running) {
+                parkNanos(groupCommitNanos);
+            }
+
+            List<byte[]> batch;
+            long upto;
+            synchronized (appendLock) {
+                batch = pending;
+                upto = appended;
+                pending = new ArrayList<>(Math.max(16, batch.size()));
+            }
+
+            try {
+                write(batch);
+            } catch (IOException e) {
+                log.error("user journal write failed, rejecting further mutations", e);
+                synchronized (durableLock) {
+                    failure = e;
+                    durableLock.notifyAll();
+                }
+                synchronized (appendLock) {
+                    running = false;
+                    pending.clear();
+                }
+                return;
+            }
+            synchronized (durableLock) {
+                durable = upto;
+                durableLock.notifyAll();
+            }
+        }
+    }
+
+    private static void parkNanos(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(List<byte[]> batch) throws IOException {
+        long batchSize = 0;
+        for (byte[] record : batch) {
+            batchSize += record.length;
+        }
+        if (segment.size() > 0 && segment.size() + batchSize > segmentSize) {
+            roll();
+        }
+        for (byte[] record : batch) {
+            segment.write(record);
+        }
+        segment.force();
+    }
+
+    private void roll() throws IOException {
+        segment.close();
+        segment = null;
+        long closed = segmentNumber;
+        segmentNumber++;
+        segment = openSegment(segmentNumber);
+
+        closedSegments++;
+        if (closedSegments >= compactSegments) {
+            closedSegments = 0;
+            compactor.execute(() -> compact(closed));
+        }
+    }
+
+    /*
+        upToSegment 까지의 세그먼트를 스냅샷 하나로 바꾼다.
+        변경은 UserStore 에 적용된 뒤에 기록되므로 지금 상태에는 upToSegment 까지의 변경이 모두 들어 있다.
+     */
+    private void compact(long upToSegment) {
+        Path snapshot = directory.resolve(fileName(SNAPSHOT_PREFIX, upToSegment));
+        Path temp = directory.resolve(snapshot.getFileName() + ".tmp");
+        long started = System.nanoTime();
+        long[] users = new long[1];
+        try {
+            try (RecordWriter out = new RecordWriter(FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))) {
+                store.forEach((userId, user) -> {
+                    out.writeUnchecked(encode(UserMutation.CREATE, userId, 0, user.getCreatedAt()));
+                    for (long orderId : user.orderIds()) {
+                        out.writeUnchecked(encode(UserMutation.ADD_ORDER, userId, orderId, user.getUpdatedAt()));
+                    }
+                    out.writeUnchecked(encode(UserMutation.UPDATE, userId, 0, user.getUpdatedAt()));
+                    users[0]++;
+                });
+                out.force();
+            }
+            Files.move(temp, snapshot, StandardCopyOption.ATOMIC_MOVE);
+            //이름 바꾼 것이 디스크에 남은 뒤에 세그먼트를 지운다. (정전 뒤 삭제만 남고 스냅샷이 .tmp 로 돌아가지 않게)
+            forceDirectory();
+
+            for (Path file : list()) {
+                if (number(file) <= upToSegment && !file.equals(snapshot)) {
+                    Files.delete(file);
+                }
+            }
+            log.info("user journal compacted {}, {}, {}", kv("snapshot", snapshot.getFileName()),
+                    kv("users", users[0]), kv("millis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)));
+        } catch (IOException | UncheckedIOException e) {
+            log.error("user journal compaction failed, segments are kept", e);
+        }
+    }
+
+    /*
+        가장 최근 스냅샷 + 그 뒤 세그먼트를 UserStore 에 다시 적용한다. 다시 적용한 레코드 수를 돌려준다.
+     */
+    private long recover(UserStore store) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path temp : files.filter(file -> file.toString().endsWith(".tmp")).collect(Collectors.toList())) {
+                Files.delete(temp);
+            }
+        }
+
+        List<Path> files = list();
+        Path snapshot = null;
+        for (Path file : files) {
+            if (file.getFileName().toString().startsWith(SNAPSHOT_PREFIX)) {
+                snapshot = file;
+            }
+        }
+
+        long records = 0;
+        if (snapshot != null) {
+            segmentNumber = number(snapshot);
+            records += replay(snapshot, store, false);
+        }
+        List<Path> segments = new ArrayList<>();
+        for (Path file : files) {
+            if (file.getFileName().toString().startsWith(SEGMENT_PREFIX) && number(file) > segmentNumber) {
+                segments.add(file);
+            }
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            Path file = segments.get(i);
+            records += replay(file, store, i == segments.size() - 1);
+            segmentNumber = number(file);
+        }
+        closedSegments = segments.size();
+        return records;
+    }
+
+    private long replay(Path file, UserStore store, boolean last) throws IOException {
+        long count = 0;
+        byte[] userIdBytes = new byte[0xFFFF];
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long window = Math.min(MAP_WINDOW, size - position);
+                MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, position, window);
+                int consumed = 0;
+                boolean corrupt = false;
+                while (map.remaining() >= HEADER_SIZE) {
+                    int bodyLength = map.getInt(consumed);
+                    if (bodyLength < FIXED_BODY_SIZE || bodyLength > MAX_BODY_SIZE) {
+                        corrupt = true;
+                        break;
+                    }
+                    if (consumed + HEADER_SIZE + bodyLength > window) {
+                        break;
+                    }
+                    int expectedCrc = map.getInt(consumed + 4);
+                    ByteBuffer body = map.duplicate();
+                    body.position(consumed + HEADER_SIZE).limit(consumed + HEADER_SIZE + bodyLength);
+                    crc.reset();
+                    crc.update(body.duplicate());
+                    if ((int) crc.getValue() != expectedCrc) {
+                        corrupt = true;
+                        break;
+                    }
+
+                    UserMutation mutation = UserMutation.of(body.get());
+                    long epochMillis = body.getLong();
+                    long orderId = body.getLong();
+                    int userIdLength = Short.toUnsignedInt(body.getShort());
+                    if (mutation == null || userIdLength != bodyLength - FIXED_BODY_SIZE) {
+                        corrupt = true;
+                        break;
+                    }
+                    body.get(userIdBytes, 0, userIdLength);
+                    store.replay(mutation, new String(userIdBytes, 0, userIdLength, StandardCharsets.UTF_8),
+                            orderId, epochMillis);
+                    count++;
+
+                    consumed += HEADER_SIZE + bodyLength;
+                    map.position(consumed);
+                }
+
+                boolean endOfFile = position + window == size;
+                if (corrupt || (endOfFile && consumed < window) || consumed == 0) {
+                    long validSize = position + consumed;
+                    if (!last) {
+                        throw new IOException("corrupt user journal file " + file + " at " + validSize);
+                    }
+                    log.warn("truncating torn user journal tail {}, {}, {}",
+                            kv("file", file.getFileName()), kv("validSize", validSize), kv("size", size));
+                    channel.truncate(validSize);
+                    break;
+                }
+                position += consumed;
+            }
+        }
+        return count;
+    }
+
+    private RecordWriter openSegment(long number) throws IOException {
+        Path file = directory.resolve(fileName(SEGMENT_PREFIX, number));
+        RecordWriter writer = new RecordWriter(FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+        //새 세그먼트의 디렉터리 항목도 남겨야 그 안에 force 한 레코드를 다시 찾을 수 있다.
+        try {
+            forceDirectory();
+        } catch (IOException e) {
+            writer.close();
+            throw e;
+        }
+        return writer;
+    }
+
+    /*
+        디렉터리의 항목 변경(생성, 이름 바꾸기)을 디스크에 내린다. (fsync 디렉터리)
+        디렉터리를 채널로 열 수 없는 OS(Windows)는 건너뛴다.
+     */
+    private void forceDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException e) {
+            log.debug("directory fsync is not supported {}", kv("directory", directory));
+        }
+    }
+
+    /*
+        스냅샷, 세그먼트 파일을 번호 순서로 (같은 번호면 스냅샷 먼저)
+     */
+    private List<Path> list() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(FileUserJournal::isJournalFile)
+                    .sorted(Comparator.comparingLong(FileUserJournal::number)
+                            .thenComparing(file -> !file.getFileName().toString().startsWith(SNAPSHOT_PREFIX)))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static boolean isJournalFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(SUFFIX) && (name.startsWith(SEGMENT_PREFIX) || name.startsWith(SNAPSHOT_PREFIX));
+    }
+
+    private static long number(Path file) {
+        String name = file.getFileName().toString();
+        int start = name.startsWith(SEGMENT_PREFIX) ? SEGMENT_PREFIX.length() : SNAPSHOT_PREFIX.length();
+        return Long.parseLong(name.substring(start, name.length() - SUFFIX.length()));
+    }
+
+    private static String fileName(String prefix, long number) {
+        return String.format("%s%020d%s", prefix, number, SUFFIX);
+    }
+
+    static byte[] encode(UserMutation mutation, String userId, long orderId, long epochMillis) {
+        byte[] userIdBytes = userId.getBytes(StandardCharsets.UTF_8);
+        if (userIdBytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("userId is too long");
+        }
+        int bodyLength = FIXED_BODY_SIZE + userIdBytes.length;
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + bodyLength);
+        record.putInt(bodyLength)
+                .putInt(0)
+                .put(mutation.code())
+                .putLong(epochMillis)
+                .putLong(orderId)
+                .putShort((short) userIdBytes.length)
+                .put(userIdBytes);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), HEADER_SIZE, bodyLength);
+        record.putInt(4, (int) crc.getValue());
+        return record.array();
+    }
+
+    /*
+        FileChannel + 1MB 다이렉트 버퍼. 버퍼가 차면 한 번에 쓴다.
+     */
+    private static class RecordWriter implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+        private long size;
+
+        RecordWriter(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        long size() {
+            return size;
+        }
+
+        void write(byte[] record) throws IOException {
+            if (buffer.remaining() < record.length) {
+                flush();
+            }
+            if (record.length > buffer.capacity()) {
+                channel.write(ByteBuffer.wrap(record));
+            } else {
+                buffer.put(record);
+            }
+            size += record.length;
+        }
+
+        void writeUnchecked(byte[] record) {
+            try {
+                write(record);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void force() throws IOException {
+            flush();
+            channel.force(false);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            force();
+            channel.close();
+        }
+    }
+}
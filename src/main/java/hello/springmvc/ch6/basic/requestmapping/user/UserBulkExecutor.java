@@ -0,0 +1,208 @@
+package hello.springmvc.ch6.basic.requestmapping.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import hello.springmvc.web.cache.ResponseCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * 사용자 일괄 처리 (POST /mapping/users/_bulk)
+ *
+ * 각 건은 크기가 정해진 풀(UserBulkProperties.poolSize, queueCapacity)에서 병렬로 실행된다.
+ * 같은 userId 의 건은 목록 순서대로 하나씩 실행한다. (앞 건이 끝나야 다음 건을 풀에 넣는다)
+ *   [{"op":"add","userId":"a"},{"op":"delete","userId":"a"}] 는 항상 추가 뒤 삭제
+ * 건마다 CompletableFuture 를 돌려주므로 다 모아서 응답하거나 끝나는 대로 흘려보낼 수 있다.
+ *
+ * Idempotency-Key
+ * - 같은 키로 다시 보내면 이미 성공한 건은 실행하지 않고 저장된 결과를 replayed=true 로 돌려준다.
+ * - 실패한 건(4xx, 5xx)은 저장하지 않으므로 재시도하면 다시 실행된다.
+ * - 같은 키가 동시에 들어와도 건마다 putIfAbsent 로 한 번만 실행되고 나머지는 그 결과를 기다린다.
+ * - 같은 키에 다른 내용을 보내면 422
+ */
+@Slf4j
+@Component
+public class UserBulkExecutor {
+
+    private final UserService userService;
+    private final ResponseCache responseCache;
+    private final int maxOperations;
+    private final ThreadPoolTaskExecutor executor;
+    private final Cache<String, IdempotencyRecord> records;
+
+    public UserBulkExecutor(UserService userService, ResponseCache responseCache, UserBulkProperties properties) {
+        this.userService = userService;
+        this.responseCache = responseCache;
+        this.maxOperations = properties.getMaxOperations();
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("user-bulk-");
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.initialize();
+
+        records = Caffeine.newBuilder()
+                .maximumSize(properties.getIdempotencyMaxKeys())
+                .expireAfterWrite(properties.getIdempotencyTtl())
+                .build();
+    }
+
+    /*
+        idempotencyKey 가 null 이면 매번 실행한다.
+        결과 리스트의 순서는 operations 순서와 같다.
+     */
+    public List<CompletableFuture<UserBulkItemResult>> submit(String idempotencyKey, List<UserOperation> operations) {
+        validate(operations);
+        log.info("bulk {}, {}", kv("idempotencyKey", idempotencyKey), kv("operations", operations.size()));
+
+        List<CompletableFuture<UserBulkItemResult>> results = new ArrayList<>(operations.size());
+        //userId 별 마지막 건
+        Map<String, CompletableFuture<UserBulkItemResult>> previous = new HashMap<>();
+        if (idempotencyKey == null) {
+            for (int i = 0; i < operations.size(); i++) {
+                results.add(runAfter(previous, i, operations.get(i)));
+            }
+            return results;
+        }
+
+        String fingerprint = fingerprint(operations);
+        IdempotencyRecord record = records.get(idempotencyKey, key -> new IdempotencyRecord(fingerprint));
+        if (!record.fingerprint.equals(fingerprint)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used with different operations");
+        }
+
+        for (int i = 0; i < operations.size(); i++) {
+            CompletableFuture<UserBulkItemResult> placeholder = new CompletableFuture<>();
+            CompletableFuture<UserBulkItemResult> existing = record.items.putIfAbsent(i, placeholder);
+            if (existing != null) {
+                //같은 키로 동시에 온 요청이 실행 중인 건도 순서를 지키도록 다음 건은 이 건을 기다린다.
+                String userId = operations.get(i).getUserId();
+                if (userId != null) {
+                    previous.put(userId, existing);
+                }
+                results.add(existing.thenApply(UserBulkItemResult::replayed));
+                continue;
+            }
+
+            int index = i;
+            runAfter(previous, index, operations.get(index)).thenAccept(result -> {
+                if (!result.isApplied()) {
+                    record.items.remove(index, placeholder);
+                }
+                placeholder.complete(result);
+            });
+            results.add(placeholder);
+        }
+        return results;
+    }
+
+    private void validate(List<UserOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "operations is empty");
+        }
+        if (operations.size() > maxOperations) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "operations exceeds " + maxOperations);
+        }
+    }
+
+    /*
+        같은 userId 의 앞 건이 있으면 그 건이 끝난 뒤에 풀에 넣는다.
+     */
+    private CompletableFuture<UserBulkItemResult> runAfter(Map<String, CompletableFuture<UserBulkItemResult>> previous,
+                                                           int index, UserOperation operation) {
+        String userId = operation.getUserId();
+        CompletableFuture<UserBulkItemResult> before = userId == null ? null : previous.get(userId);
+        CompletableFuture<UserBulkItemResult> future = before == null
+                ? run(index, operation)
+                : before.handle((result, e) -> null).thenCompose(done -> run(index, operation));
+        if (userId != null) {
+            previous.put(userId, future);
+        }
+        return future;
+    }
+
+    private CompletableFuture<UserBulkItemResult> run(int index, UserOperation operation) {
+        CompletableFuture<UserBulkItemResult> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> future.complete(apply(index, operation)));
+        } catch (TaskRejectedException e) {
+            future.complete(new UserBulkItemResult(index, operation,
+                    HttpStatus.SERVICE_UNAVAILABLE.value(), "bulk executor is full"));
+        }
+        return future;
+    }
+
+    private UserBulkItemResult apply(int index, UserOperation operation) {
+        String userId = operation.getUserId();
+        if (operation.getOp() == null || userId == null || userId.isBlank()) {
+            return new UserBulkItemResult(index, operation,
+                    HttpStatus.BAD_REQUEST.value(), "op and userId are required");
+        }
+        try {
+            String result;
+            switch (operation.getOp()) {
+                case ADD:
+                    result = userService.add(userId);
+                    break;
+                case UPDATE:
+                    result = userService.update(userId);
+                    break;
+                default:
+                    result = userService.delete(userId);
+                    break;
+            }
+            //단건 핸들러의 @ResponseCacheEvict 와 같은 일
+            responseCache.evict("user:" + userId);
+            return new UserBulkItemResult(index, operation, HttpStatus.OK.value(), result);
+        } catch (ResponseStatusException e) {
+            return new UserBulkItemResult(index, operation, e.getRawStatusCode(), e.getReason());
+        } catch (RuntimeException e) {
+            log.warn("bulk operation failed {}, {}", kv("op", operation.getOp()), kv("userId", userId), e);
+            return new UserBulkItemResult(index, operation,
+                    HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
+        }
+    }
+
+    private static String fingerprint(List<UserOperation> operations) {
+        StringBuilder sb = new StringBuilder(operations.size() * 16);
+        for (UserOperation operation : operations) {
+            sb.append(operation.getOp()).append(':').append(operation.getUserId()).append('\n');
+        }
+        return DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static class IdempotencyRecord {
+
+        private final String fingerprint;
+        private final ConcurrentMap<Integer, CompletableFuture<UserBulkItemResult>> items = new ConcurrentHashMap<>();
+
+        IdempotencyRecord(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
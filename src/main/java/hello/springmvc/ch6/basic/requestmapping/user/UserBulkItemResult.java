@@ -0,0 +1,45 @@
+package hello.springmvc.ch6.basic.requestmapping.user;
+
+import lombok.Getter;
+
+/**
+ * 일괄 처리 한 건의 결과
+ *
+ * status   : 단건 요청이었다면 받았을 HTTP 상태 코드
+ * replayed : 같은 Idempotency-Key 로 이미 처리된 건이라 다시 실행하지 않고 저장된 결과를 돌려줌
+ */
+@Getter
+public class UserBulkItemResult {
+
+    private final int index;
+    private final UserOperation.Op op;
+    private final String userId;
+    private final int status;
+    private final String result;
+    private final boolean replayed;
+
+    public UserBulkItemResult(int index, UserOperation operation, int status, String result) {
+        this(index, operation.getOp(), operation.getUserId(), status, result, false);
+    }
+
+    private UserBulkItemResult(int index, UserOperation.Op op, String userId, int status, String result,
+                               boolean replayed) {
+        this.index = index;
+        this.op = op;
+        this.userId = userId;
+        this.status = status;
+        this.result = result;
+        this.replayed = replayed;
+    }
+
+    public boolean isApplied() {
+        return status >= 200 && status < 300;
+    }
+
+    /*
+        실패한 건은 저장되지 않으니(다시 실행됨) 그대로 둔다.
+     */
+    UserBulkItemResult replayed() {
+        return replayed || !isApplied() ? this : new UserBulkItemResult(index, op, userId, status, result, true);
+    }
+}
@@ -0,0 +1,35 @@
+package hello.springmvc.ch6.basic.requestmapping.user;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * hello.user-bulk.*
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("hello.user-bulk")
+public class UserBulkProperties {
+
+    /*
+        일괄 처리 전용 스레드 풀. 큐까지 꽉 차면 그 건은 503 으로 실패하고 재시도하면 다시 실행된다.
+     */
+    private int poolSize = 16;
+    private int queueCapacity = 10_000;
+
+    /*
+        요청 하나에 담을 수 있는 최대 건수
+     */
+    private int maxOperations = 1000;
+
+    /*
+        Idempotency-Key 별 결과 보관 (넘으면 오래된 것부터 밀어냄)
+     */
+    private Duration idempotencyTtl = Duration.ofMinutes(10);
+    private long idempotencyMaxKeys = 10_000;
+}
@@ -0,0 +1,11 @@
+package hello.springmvc.ch6.basic.requestmapping.user;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class UserBulkRequest {
+    private List<UserOperation> operations = new ArrayList<>();
+}
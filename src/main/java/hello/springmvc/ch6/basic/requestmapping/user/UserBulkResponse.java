@@ -0,0 +1,33 @@
+package hello.springmvc.ch6.basic.requestmapping.user;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class UserBulkResponse {
+
+    private final String idempotencyKey;
+    private final int applied;
+    private final int failed;
+    private final int replayed;
+    private final List<UserBulkItemResult> items;
+
+    public UserBulkResponse(String idempotencyKey, List<UserBulkItemResult> items) {
+        this.idempotencyKey = idempotencyKey;
+        this.items = items;
+        int applied = 0;
+        int replayed = 0;
+        for (UserBulkItemResult item : items) {
+            if (item.isApplied()) {
+                applied++;
+            }
+            if (item.isReplayed()) {
+                replayed++;
+            }
+        }
+        this.applied = applied;
+        this.failed = items.size() - applied;
+        this.replayed = replayed;
+    }
+}
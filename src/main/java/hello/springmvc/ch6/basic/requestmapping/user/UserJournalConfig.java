@@ -0,0 +1,27 @@
+package hello.springmvc.ch6.basic.requestmapping.user;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+/**
+ * UserStore 에 넣을 UserMutationLog (hello.user-journal.enabled)
+ */
+@Configuration
+public class UserJournalConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "hello.user-journal.enabled", havingValue = "true")
+    public UserMutationLog fileUserJournal(UserJournalProperties properties) {
+        return new FileUserJournal(Paths.get(properties.getDirectory()), properties.getSegmentSize().toBytes(),
+                properties.getGroupCommitInterval(), properties.getCompactSegments());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "hello.user-journal.enabled", havingValue = "false", matchIfMissing = true)
+    public UserMutationLog noUserJournal() {
+        return UserMutationLog.NONE;
+    }
+}
@@ -0,0 +1,38 @@
+package hello.springmvc.ch6.basic.requestmapping.user;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * hello.user-journal.*
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("hello.user-journal")
+public class UserJournalProperties {
+
+    /*
+        false 면 UserStore 는 메모리에만 있고 재시작하면 비어 있다.
+     */
+    private boolean enabled = false;
+
+    private String directory = "data/user-journal";
+
+    /*
+        쓰기 스레드가 force 전에 다른 요청을 모으는 시간. 0 이면 모으지 않고 바로 쓴다.
+        길수록 fsync 횟수는 줄지만 변경 요청 하나의 지연시간이 그만큼 늘어난다.
+     */
+    private Duration groupCommitInterval = Duration.ofMillis(2);
+
+    /*
+        세그먼트 파일 하나의 크기, 닫힌 세그먼트가 compactSegments 개 쌓이면 스냅샷으로 합친다.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+    private int compactSegments = 8;
+}
@@ -0,0 +1,34 @@
+package hello.springmvc.ch6.basic.requestmapping.user;
+
+/**
+ * UserStore 변경 종류. code 는 저널에 기록되는 값이라 바꾸면 안 된다.
+ */
+public enum UserMutation {
+
+    CREATE(1), UPDATE(2), DELETE(3), ADD_ORDER(4), REMOVE_ORDER(5);
+
+    private static final UserMutation[] BY_CODE = new UserMutation[6];
+
+    static {
+        for (UserMutation mutation : values()) {
+            BY_CODE[mutation.code] = mutation;
+        }
+    }
+
+    private final byte code;
+
+    UserMutation(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    /*
+        모르는 코드면 null
+     */
+    public static UserMutation of(byte code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
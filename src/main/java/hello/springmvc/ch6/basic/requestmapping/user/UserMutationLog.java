@@ -0,0 +1,33 @@
+package hello.springmvc.ch6.basic.requestmapping.user;
+
+/**
+ * UserStore 변경 기록 (hello.user-journal.enabled=true 면 FileUserJournal, 아니면 NONE)
+ *
+ * open        : UserStore 를 만들 때 한 번. 기록을 다시 적용(replay)해서 상태를 되살린다.
+ * append      : 해당 사용자의 락 안에서 호출된다. 같은 사용자의 변경은 적용된 순서대로 기록된다.
+ *               반환값은 awaitDurable 에 넘길 번호 (기록하지 않으면 0)
+ * awaitDurable: 그 번호까지 디스크에 내려갈 때까지 기다린다. 락 밖에서 호출된다.
+ */
+public interface UserMutationLog {
+
+    UserMutationLog NONE = new UserMutationLog() {
+        @Override
+        public void open(UserStore store) {
+        }
+
+        @Override
+        public long append(UserMutation mutation, String userId, long orderId, long epochMillis) {
+            return 0;
+        }
+
+        @Override
+        public void awaitDurable(long sequence) {
+        }
+    };
+
+    void open(UserStore store);
+
+    long append(UserMutation mutation, String userId, long orderId, long epochMillis);
+
+    void awaitDurable(long sequence);
+}
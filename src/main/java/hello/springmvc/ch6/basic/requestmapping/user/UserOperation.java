@@ -0,0 +1,29 @@
+package hello.springmvc.ch6.basic.requestmapping.user;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import lombok.Data;
+
+import java.util.Locale;
+
+/**
+ * 일괄 처리 요청의 한 건 {"op":"update", "userId":"userA"}
+ * op 는 대소문자를 가리지 않는다.
+ */
+@Data
+public class UserOperation {
+
+    public enum Op {
+        ADD, UPDATE, DELETE;
+
+        /*
+            @JsonFormat(ACCEPT_CASE_INSENSITIVE_VALUES) 는 Jackson 2.13 의 enum 에는 적용되지 않아서 직접 바꾼다.
+         */
+        @JsonCreator
+        public static Op from(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private Op op;
+    private String userId;
+}
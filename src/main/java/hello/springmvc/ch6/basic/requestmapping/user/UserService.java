@@ -0,0 +1,73 @@
+package hello.springmvc.ch6.basic.requestmapping.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 사용자 조회/추가/수정/삭제, 주문 조회/추가/삭제 (UserStore)
+ *
+ * MappingClassController, MappingController 의 핸들러와 일괄 처리(UserBulkExecutor)가 같이 쓴다.
+ * 없는 사용자나 주문이면 404 (ResponseStatusException)
+ * 추가는 이미 있어도 성공이라 같은 요청을 다시 보내도 결과가 같다.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserService {
+
+    private final UserStore userStore;
+
+    public String get(String userId) {
+        UserStore.UserEntry user = userStore.get(userId);
+        if (user == null) {
+            throw notFound("user", userId);
+        }
+        return "get path userId =" + userId;
+    }
+
+    public String add(String userId) {
+        userStore.create(userId, System.currentTimeMillis());
+        return "add path userId=" + userId;
+    }
+
+    public String update(String userId) {
+        if (!userStore.update(userId, System.currentTimeMillis())) {
+            throw notFound("user", userId);
+        }
+        return "update path userId=" + userId;
+    }
+
+    public String delete(String userId) {
+        if (!userStore.delete(userId)) {
+            throw notFound("user", userId);
+        }
+        return "delete path userId=" + userId;
+    }
+
+    public String getOrder(String userId, long orderId) {
+        UserStore.UserEntry user = userStore.get(userId);
+        if (user == null || !user.hasOrder(orderId)) {
+            throw notFound("order", userId + "/" + orderId);
+        }
+        return "ok";
+    }
+
+    public String addOrder(String userId, long orderId) {
+        if (!userStore.addOrder(userId, orderId, System.currentTimeMillis())) {
+            throw notFound("user", userId);
+        }
+        return "add order userId=" + userId + ", orderId=" + orderId;
+    }
+
+    public String deleteOrder(String userId, long orderId) {
+        if (!userStore.removeOrder(userId, orderId, System.currentTimeMillis())) {
+            throw notFound("order", userId + "/" + orderId);
+        }
+        return "delete order userId=" + userId + ", orderId=" + orderId;
+    }
+
+    private static ResponseStatusException notFound(String what, String id) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, what + " not found : " + id);
+    }
+}
@@ -0,0 +1,231 @@
+package hello.springmvc.ch6.basic.requestmapping.user;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * 메모리 사용자/주문 저장소
+ *
+ * userId -> UserEntry 를 ConcurrentHashMap 하나에 담는다.
+ * - 조회는 락 없이 get 한 번 (UserEntry 는 바뀌지 않는 객체)
+ * - 변경은 compute 로 해당 키의 bin 만 잠그고 새 UserEntry 로 바꾼다. (키별로 쪼개진 락, 다른 사용자끼리는 경합 없음)
+ * - 주문 번호는 사용자마다 정렬된 long[] 로 들고 있다. Long 박싱, Set 노드 없이 주문 하나에 8바이트
+ *   포함 여부는 이진 탐색, 추가/삭제는 배열 복사 (사용자당 주문 수가 많지 않다는 가정)
+ *
+ * 시각(epochMillis)은 호출하는 쪽이 넘겨준다. 같은 변경을 다시 적용하면 같은 상태가 된다.
+ *
+ * 상태가 바뀐 변경만 락 안에서 UserMutationLog 에 기록하고, 락을 푼 뒤 디스크에 내려갈 때까지 기다린다.
+ * 만들 때 UserMutationLog.open 으로 이전 기록을 다시 적용한다. (replay, 이때는 기록하지 않음)
+ */
+@Component
+public class UserStore {
+
+    private static final long[] NO_ORDERS = new long[0];
+
+    private final ConcurrentHashMap<String, UserEntry> users;
+    private final LongAdder orders = new LongAdder();
+    private final UserMutationLog mutationLog;
+
+    public UserStore() {
+        this(16);
+    }
+
+    public UserStore(int expectedUsers) {
+        this(UserMutationLog.NONE, expectedUsers);
+    }
+
+    @Autowired
+    public UserStore(UserMutationLog mutationLog) {
+        this(mutationLog, 16);
+    }
+
+    public UserStore(UserMutationLog mutationLog, int expectedUsers) {
+        this.users = new ConcurrentHashMap<>(expectedUsers);
+        this.mutationLog = mutationLog;
+        mutationLog.open(this);
+    }
+
+    public UserEntry get(String userId) {
+        return users.get(userId);
+    }
+
+    /*
+        없으면 만들고 true, 이미 있으면 그대로 두고 false
+     */
+    public boolean create(String userId, long epochMillis) {
+        return apply(UserMutation.CREATE, userId, 0, epochMillis, true);
+    }
+
+    /*
+        없는 사용자면 false
+     */
+    public boolean update(String userId, long epochMillis) {
+        return apply(UserMutation.UPDATE, userId, 0, epochMillis, true);
+    }
+
+    public boolean delete(String userId) {
+        return apply(UserMutation.DELETE, userId, 0, 0, true);
+    }
+
+    /*
+        사용자가 없으면 false, 이미 있는 주문이면 그대로 true
+     */
+    public boolean addOrder(String userId, long orderId, long epochMillis) {
+        return apply(UserMutation.ADD_ORDER, userId, orderId, epochMillis, true);
+    }
+
+    /*
+        사용자나 주문이 없으면 false
+     */
+    public boolean removeOrder(String userId, long orderId, long epochMillis) {
+        return apply(UserMutation.REMOVE_ORDER, userId, orderId, epochMillis, true);
+    }
+
+    /*
+        UserMutationLog.open 에서 기록을 다시 적용할 때
+     */
+    void replay(UserMutation mutation, String userId, long orderId, long epochMillis) {
+        apply(mutation, userId, orderId, epochMillis, false);
+    }
+
+    /*
+        스냅샷(저널 compaction)용. 사용자마다 어느 한 시점의 상태를 넘겨준다.
+     */
+    void forEach(BiConsumer<String, UserEntry> action) {
+        users.forEach(action);
+    }
+
+    private boolean apply(UserMutation mutation, String userId, long orderId, long epochMillis, boolean log) {
+        // [0] 결과, [1] 기록 번호, [2] 주문 수 변화 (저널 append 가 실패하면 compute 가 취소되므로 그 뒤에 반영)
+        long[] outcome = new long[3];
+        users.compute(userId, (id, current) -> {
+            UserEntry next = next(mutation, current, orderId, epochMillis, outcome);
+            if (log && next != current) {
+                outcome[1] = mutationLog.append(mutation, id, orderId, epochMillis);
+            }
+            return next;
+        });
+        if (outcome[2] != 0) {
+            orders.add(outcome[2]);
+        }
+        if (outcome[1] != 0) {
+            mutationLog.awaitDurable(outcome[1]);
+        }
+        return outcome[0] != 0;
+    }
+
+    /*
+        current 에 mutation 을 적용한 다음 상태. 바뀌지 않으면 current 를 그대로 돌려준다.
+     */
+    private UserEntry next(UserMutation mutation, UserEntry current, long orderId, long epochMillis, long[] outcome) {
+        switch (mutation) {
+            case CREATE:
+                if (current != null) {
+                    return current;
+                }
+                outcome[0] = 1;
+                return new UserEntry(epochMillis, epochMillis, NO_ORDERS);
+            case UPDATE:
+                if (current == null) {
+                    return null;
+                }
+                outcome[0] = 1;
+                return new UserEntry(current.createdAt, epochMillis, current.orderIds);
+            case DELETE:
+                if (current != null) {
+                    outcome[0] = 1;
+                    outcome[2] = -current.orderIds.length;
+                }
+                return null;
+            case ADD_ORDER:
+                if (current == null) {
+                    return null;
+                }
+                outcome[0] = 1;
+                int index = Arrays.binarySearch(current.orderIds, orderId);
+                if (index >= 0) {
+                    return current;
+                }
+                outcome[2] = 1;
+                return new UserEntry(current.createdAt, epochMillis, insert(current.orderIds, -index - 1, orderId));
+            case REMOVE_ORDER:
+                int position = current == null ? -1 : Arrays.binarySearch(current.orderIds, orderId);
+                if (position < 0) {
+                    return current;
+                }
+                outcome[0] = 1;
+                outcome[2] = -1;
+                return new UserEntry(current.createdAt, epochMillis, remove(current.orderIds, position));
+            default:
+                throw new IllegalArgumentException("unknown mutation " + mutation);
+        }
+    }
+
+    private static long[] insert(long[] orderIds, int index, long orderId) {
+        long[] next = new long[orderIds.length + 1];
+        System.arraycopy(orderIds, 0, next, 0, index);
+        next[index] = orderId;
+        System.arraycopy(orderIds, index, next, index + 1, orderIds.length - index);
+        return next;
+    }
+
+    private static long[] remove(long[] orderIds, int index) {
+        if (orderIds.length == 1) {
+            return NO_ORDERS;
+        }
+        long[] next = new long[orderIds.length - 1];
+        System.arraycopy(orderIds, 0, next, 0, index);
+        System.arraycopy(orderIds, index + 1, next, index, orderIds.length - index - 1);
+        return next;
+    }
+
+    public int size() {
+        return users.size();
+    }
+
+    public long orderCount() {
+        return orders.sum();
+    }
+
+    /**
+     * 사용자 한 명. 바뀌지 않는 객체라 다른 스레드에서 락 없이 읽어도 된다.
+     * 헤더 12 + long 2개 16 + 배열 참조 4 = 32 바이트 (+ 주문 배열 16 + 8 * 주문 수, 주문이 없으면 공유 배열)
+     */
+    public static final class UserEntry {
+
+        private final long createdAt;
+        private final long updatedAt;
+        private final long[] orderIds;
+
+        private UserEntry(long createdAt, long updatedAt, long[] orderIds) {
+            this.createdAt = createdAt;
+            this.updatedAt = updatedAt;
+            this.orderIds = orderIds;
+        }
+
+        public long getCreatedAt() {
+            return createdAt;
+        }
+
+        public long getUpdatedAt() {
+            return updatedAt;
+        }
+
+        public int getOrderCount() {
+            return orderIds.length;
+        }
+
+        public boolean hasOrder(long orderId) {
+            return Arrays.binarySearch(orderIds, orderId) >= 0;
+        }
+
+        long[] orderIds() {
+            return orderIds;
+        }
+    }
+}
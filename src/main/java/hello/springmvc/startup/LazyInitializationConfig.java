@@ -0,0 +1,28 @@
+package hello.springmvc.startup;
+
+import hello.springmvc.ch6.basic.request.JsonCodecs;
+import hello.springmvc.ch6.basic.requestmapping.user.UserStore;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * faststart 프로파일(spring.main.lazy-initialization=true)에서도 바로 만들어야 하는 빈
+ *
+ * - SmartInitializingSingleton : 지연 초기화되면 afterSingletonsInstantiated 가 호출되지 않는다.
+ *     (HandlerAdapterCustomizer 의 resolver, ReturnValueHandler 등록이 빠짐)
+ * - JsonCodecs : 시작할 때 ObjectMapper 캐시를 데우는 게 목적이라 첫 요청으로 미루면 의미가 없다.
+ * - UserStore : 저널을 켜면 만들 때 복구(replay)한다. 첫 요청이 복구 시간을 떠안지 않도록 시작할 때 만든다.
+ * 컨트롤러는 지연 초기화된다. 핸들러 매핑은 빈 이름으로 등록되고 첫 요청 때 빈이 만들어진다.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerInfrastructureBeans() {
+        return (beanName, beanDefinition, beanType) ->
+                SmartInitializingSingleton.class.isAssignableFrom(beanType) || JsonCodecs.class == beanType
+                        || UserStore.class == beanType;
+    }
+}
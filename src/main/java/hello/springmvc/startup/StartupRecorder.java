@@ -0,0 +1,89 @@
+package hello.springmvc.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.metrics.StartupStep;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 시작 시간 측정용 설정 (컨텍스트가 뜨기 전에 정해야 해서 프로퍼티 파일이 아닌 시스템 프로퍼티로 받는다.)
+ *
+ * -Dhello.startup.timeline-file=build/startup/timeline.json
+ *   BufferingApplicationStartup 으로 빈 생성, 자동 구성 등 시작 단계(StartupStep)를 기록하고
+ *   ApplicationReadyEvent 때 파일로 쓴다. (/actuator/startup 으로도 조회 가능)
+ * -Dhello.startup.exit-after-ready=true
+ *   준비가 끝나면 바로 종료한다. AppCDS 학습 실행(./gradlew cdsArchive)에서 쓴다.
+ */
+@Slf4j
+public final class StartupRecorder implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final int CAPACITY = 20_000;
+
+    private final BufferingApplicationStartup startup;
+    private final Path file;
+
+    private StartupRecorder(BufferingApplicationStartup startup, Path file) {
+        this.startup = startup;
+        this.file = file;
+    }
+
+    public static void configure(SpringApplication application) {
+        String timelineFile = System.getProperty("hello.startup.timeline-file");
+        if (timelineFile != null) {
+            BufferingApplicationStartup startup = new BufferingApplicationStartup(CAPACITY);
+            application.setApplicationStartup(startup);
+            application.addListeners(new StartupRecorder(startup, Path.of(timelineFile)));
+        }
+        if (Boolean.getBoolean("hello.startup.exit-after-ready")) {
+            application.addListeners((ApplicationListener<ApplicationReadyEvent>) event ->
+                    System.exit(SpringApplication.exit(event.getApplicationContext())));
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        StartupTimeline timeline = startup.getBufferedTimeline();
+        List<Map<String, Object>> steps = new ArrayList<>();
+        for (TimelineEvent timelineEvent : timeline.getEvents()) {
+            StartupStep step = timelineEvent.getStartupStep();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", step.getId());
+            entry.put("parentId", step.getParentId());
+            entry.put("name", step.getName());
+            entry.put("durationMs", timelineEvent.getDuration().toNanos() / 1_000_000.0);
+            Map<String, String> tags = new LinkedHashMap<>();
+            step.getTags().forEach(tag -> tags.put(tag.getKey(), tag.getValue()));
+            entry.put("tags", tags);
+            steps.add(entry);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("jvmUptimeMs", ManagementFactory.getRuntimeMXBean().getUptime());
+        result.put("startTime", timeline.getStartTime().toString());
+        result.put("steps", steps);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (OutputStream out = Files.newOutputStream(file)) {
+                new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(out, result);
+            }
+            log.info("startup timeline written: {} ({} steps)", file, steps.size());
+        } catch (IOException e) {
+            log.warn("startup timeline write failed: {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package hello.springmvc.web;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * JSON 과 같은 Jackson 매핑을 쓰는 바이너리 형식 메시지 컨버터
+ *
+ * application/cbor             : CBOR (RFC 8949)
+ * application/x-jackson-smile  : Smile
+ * 컨버터를 빈으로 등록하면 스프링 부트 HttpMessageConverters 가 기본 컨버터 목록의 같은 자리에 넣어준다.
+ * 부트가 만든 Jackson2ObjectMapperBuilder 로 만들어서 JSON 컨버터와 모듈, 설정(spring.jackson.*)이 같다.
+ */
+@Configuration
+public class BinaryJsonConverterConfig {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,208 @@
+package hello.springmvc.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.condition.NameValueExpression;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 요청 매핑 조회 결과를 캐시하는 RequestMappingHandlerMapping
+ *
+ * /mapping/users/{userId} 같은 패턴 매핑, params/headers/consumes/produces 조건이 붙은 매핑은
+ * 요청마다 후보 매핑의 조건을 전부 평가한다. 매핑이 많아질수록 느려진다.
+ * 같은 (HTTP 메서드, 경로, 조건에 쓰이는 입력값) 조합은 항상 같은 매핑을 고르므로 결과를 캐시한다.
+ *
+ * 조건 입력값 = Content-Type, Accept, 바디 유무,
+ *              등록된 매핑의 params, headers 조건에 나오는 파라미터/헤더 값
+ * 매핑이 등록/해제되면 캐시를 비운다. (시작할 때 스캔한 매핑, 실행 중에 registerMapping 으로 넣은 매핑 모두)
+ *
+ * form 바디(urlencoded, multipart) 요청은 params 조건이 하나라도 있으면 캐시를 쓰지 않는다.
+ * 톰캣은 getParameter 를 처음 부를 때 form 바디를 읽어버려서, 키를 만들다가 StreamUtils, @RequestBody 핸들러가
+ * 빈 바디를 받게 된다. 기본 조회는 경로가 맞는 매핑에 params 조건이 있을 때만 파라미터를 본다.
+ *
+ * 키가 요청 경로라서 /mapping/users/{userId} 처럼 경로 변수가 많은 매핑은 키가 계속 새로 생긴다.
+ * 그래서 Caffeine(W-TinyLFU)으로 maxSize 까지만 둔다. 한 번 보고 마는 경로는 자주 쓰이는 항목을 밀어내지 못한다.
+ */
+public class CachingRequestMappingHandlerMapping extends RequestMappingHandlerMapping {
+
+    private static final String MATCHED_MAPPING_ATTRIBUTE = CachingRequestMappingHandlerMapping.class.getName() + ".matched";
+
+    private final Cache<LookupKey, CachedMatch> cache;
+
+    /*
+        조건에 등장하는 파라미터/헤더 이름 (등록 시점에만 바뀌므로 copy-on-write)
+     */
+    private volatile String[] paramNames = new String[0];
+    private volatile String[] headerNames = new String[0];
+    private volatile boolean customConditions;
+
+    public CachingRequestMappingHandlerMapping(int maxSize) {
+        this.cache = Caffeine.newBuilder().maximumSize(maxSize).build();
+    }
+
+    @Override
+    protected HandlerMethod lookupHandlerMethod(String lookupPath, HttpServletRequest request) throws Exception {
+        if (customConditions || CorsUtils.isPreFlightRequest(request) || (paramNames.length > 0 && isForm(request))) {
+            return super.lookupHandlerMethod(lookupPath, request);
+        }
+
+        LookupKey key = lookupKey(lookupPath, request);
+        CachedMatch cached = cache.getIfPresent(key);
+        if (cached != null) {
+            request.setAttribute(BEST_MATCHING_HANDLER_ATTRIBUTE, cached.handlerMethod);
+            handleMatch(cached.mapping, lookupPath, request);
+            return cached.handlerMethod;
+        }
+
+        HandlerMethod handlerMethod = super.lookupHandlerMethod(lookupPath, request);
+        RequestMappingInfo matched = (RequestMappingInfo) request.getAttribute(MATCHED_MAPPING_ATTRIBUTE);
+        if (handlerMethod != null && matched != null) {
+            cache.put(key, new CachedMatch(matched, handlerMethod));
+        }
+        return handlerMethod;
+    }
+
+    /*
+        super.lookupHandlerMethod 가 고른 매핑(요청 경로에 맞게 좁혀진 RequestMappingInfo)을 받아둔다.
+     */
+    @Override
+    protected void handleMatch(RequestMappingInfo info, String lookupPath, HttpServletRequest request) {
+        request.setAttribute(MATCHED_MAPPING_ATTRIBUTE, info);
+        super.handleMatch(info, lookupPath, request);
+    }
+
+    /*
+        시작할 때 컨트롤러를 스캔해서 등록하는 경로
+     */
+    @Override
+    protected void registerHandlerMethod(Object handler, Method method, RequestMappingInfo mapping) {
+        super.registerHandlerMethod(handler, method, mapping);
+        collectConditionInputs(mapping);
+        cache.invalidateAll();
+    }
+
+    /*
+        실행 중에 직접 등록하는 경로 (registerHandlerMethod 를 거치지 않고 MappingRegistry 에 바로 넣는다)
+        조회는 MappingRegistry 의 읽기 잠금 안에서 하므로 등록이 끝난 뒤 비우면 그 전 조회 결과는 남지 않는다.
+     */
+    @Override
+    public void registerMapping(RequestMappingInfo mapping, Object handler, Method method) {
+        super.registerMapping(mapping, handler, method);
+        collectConditionInputs(mapping);
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void unregisterMapping(RequestMappingInfo mapping) {
+        super.unregisterMapping(mapping);
+        cache.invalidateAll();
+    }
+
+    public long getCacheSize() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private synchronized void collectConditionInputs(RequestMappingInfo mapping) {
+        Set<String> params = new LinkedHashSet<>(Arrays.asList(paramNames));
+        for (NameValueExpression<String> expression : mapping.getParamsCondition().getExpressions()) {
+            params.add(expression.getName());
+        }
+        Set<String> headers = new LinkedHashSet<>(Arrays.asList(headerNames));
+        for (NameValueExpression<String> expression : mapping.getHeadersCondition().getExpressions()) {
+            headers.add(expression.getName());
+        }
+        paramNames = params.toArray(new String[0]);
+        headerNames = headers.toArray(new String[0]);
+        if (mapping.getCustomCondition() != null) {
+            customConditions = true;
+        }
+    }
+
+    private static boolean isForm(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null
+                && (StringUtils.startsWithIgnoreCase(contentType, MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                || StringUtils.startsWithIgnoreCase(contentType, MediaType.MULTIPART_FORM_DATA_VALUE));
+    }
+
+    private LookupKey lookupKey(String lookupPath, HttpServletRequest request) {
+        String[] params = paramNames;
+        String[] headers = headerNames;
+        String[] inputs = new String[params.length + headers.length];
+        for (int i = 0; i < params.length; i++) {
+            inputs[i] = request.getParameter(params[i]);
+        }
+        for (int i = 0; i < headers.length; i++) {
+            inputs[params.length + i] = request.getHeader(headers[i]);
+        }
+        boolean hasBody = request.getContentLengthLong() > 0 || request.getHeader("Transfer-Encoding") != null;
+        return new LookupKey(request.getMethod(), lookupPath,
+                request.getContentType(), request.getHeader("Accept"), hasBody, inputs);
+    }
+
+    private static class CachedMatch {
+        private final RequestMappingInfo mapping;
+        private final HandlerMethod handlerMethod;
+
+        CachedMatch(RequestMappingInfo mapping, HandlerMethod handlerMethod) {
+            this.mapping = mapping;
+            this.handlerMethod = handlerMethod;
+        }
+    }
+
+    private static class LookupKey {
+        private final String method;
+        private final String path;
+        private final String contentType;
+        private final String accept;
+        private final boolean hasBody;
+        private final String[] inputs;
+        private final int hash;
+
+        LookupKey(String method, String path, String contentType, String accept, boolean hasBody, String[] inputs) {
+            this.method = method;
+            this.path = path;
+            this.contentType = contentType;
+            this.accept = accept;
+            this.hasBody = hasBody;
+            this.inputs = inputs;
+            this.hash = 31 * Objects.hash(method, path, contentType, accept, hasBody) + Arrays.hashCode(inputs);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof LookupKey)) {
+                return false;
+            }
+            LookupKey other = (LookupKey) o;
+            return hash == other.hash
+                    && hasBody == other.hasBody
+                    && method.equals(other.method)
+                    && path.equals(other.path)
+                    && Objects.equals(contentType, other.contentType)
+                    && Objects.equals(accept, other.accept)
+                    && Arrays.equals(inputs, other.inputs);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
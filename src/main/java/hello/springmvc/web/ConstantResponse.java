@@ -0,0 +1,27 @@
+package hello.springmvc.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 항상 같은 문자열을 응답 바디로 반환하는 핸들러 (@ResponseBody String, HttpEntity<String>)
+ *
+ * 시작할 때 바디를 UTF-8 바이트로, Content-Type 을 문자열로 미리 만들어 두고
+ * ConstantResponseReturnValueHandler 가 메시지 컨버터를 거치지 않고 바로 쓴다.
+ * 반환값이 value 와 다르면 원래대로 메시지 컨버터가 처리한다.
+ *
+ * 메시지 컨버터를 거치지 않으니 ResponseBodyAdvice 도 호출되지 않는다.
+ * - @ControllerAdvice 빈으로 등록된 advice 가 이 핸들러를 supports 하면 이 애노테이션은 무시된다. (시작할 때 확인)
+ * - RequestMappingHandlerAdapter.setResponseBodyAdvice 로 직접 넣은 advice 는 확인하지 않으므로 건너뛴다.
+ * Accept 가 미리 정한 Content-Type 을 가장 우선으로 받지 않으면 그 요청은 원래대로 콘텐츠 협상을 한다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConstantResponse {
+
+    String value() default "ok";
+}
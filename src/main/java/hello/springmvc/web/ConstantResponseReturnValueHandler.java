@@ -0,0 +1,212 @@
+package hello.springmvc.web;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.ControllerAdviceBean;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * @ConstantResponse 핸들러의 반환값을 미리 인코딩해 둔 바이트로 바로 쓰는 ReturnValueHandler
+ *
+ * 기본 처리(RequestResponseBodyMethodProcessor)는 요청마다
+ * ReturnValueHandler 선택, Accept 파싱과 콘텐츠 협상, StringHttpMessageConverter 인코딩을 한다.
+ * 바디가 고정이면 결과도 항상 같으므로 시작할 때 한 번만 만들어 둔다.
+ *
+ * 아래 경우는 원래 처리(fallback)로 넘긴다.
+ * - 반환값이 @ConstantResponse 값과 다를 때, 헤더나 상태코드가 있는 HttpEntity/ResponseEntity
+ * - Accept 에서 가장 우선인 타입(q 값, 구체적인 정도 순)이 미리 정한 Content-Type 과 맞지 않을 때
+ *   또는 그 Content-Type 을 q=0 으로 거절했을 때 (콘텐츠 협상이 필요)
+ * ResponseBodyAdvice 는 바디를 쓰는 기본 처리 안에서 호출되므로 여기서 쓰면 건너뛰게 된다.
+ * 그래서 @ControllerAdvice 빈 중 그 핸들러를 supports 하는 advice 가 있으면 처음부터 상수로 만들지 않는다.
+ *   (*어댑터에 직접 넣은 advice 는 모른다 - ConstantResponse 참고)
+ */
+@Slf4j
+public class ConstantResponseReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+    private static final MediaType DEFAULT_CONTENT_TYPE = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+    private final Map<Method, EncodedResponse> responses;
+    private final HandlerMethodReturnValueHandler fallback;
+
+    public ConstantResponseReturnValueHandler(Map<RequestMappingInfo, HandlerMethod> handlerMethods,
+                                              List<ControllerAdviceBean> controllerAdvice,
+                                              HandlerMethodReturnValueHandler fallback) {
+        this.responses = encode(handlerMethods, responseBodyAdvice(controllerAdvice));
+        this.fallback = fallback;
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return responses.containsKey(returnType.getMethod());
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, MethodParameter returnType,
+                                  ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+        EncodedResponse encoded = responses.get(returnType.getMethod());
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        HttpServletResponse response = webRequest.getNativeResponse(HttpServletResponse.class);
+        if (request == null || response == null
+                || !encoded.matches(returnValue) || !encoded.accepts(request.getHeader(HttpHeaders.ACCEPT))) {
+            fallback.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+            return;
+        }
+
+        mavContainer.setRequestHandled(true);
+        response.setContentType(encoded.contentType);
+        response.setContentLength(encoded.body.length);
+        response.getOutputStream().write(encoded.body);
+    }
+
+    public int getConstantHandlerCount() {
+        return responses.size();
+    }
+
+    private static Map<Method, EncodedResponse> encode(Map<RequestMappingInfo, HandlerMethod> handlerMethods,
+                                                       List<ControllerAdviceBean> responseBodyAdvice) {
+        Map<Method, EncodedResponse> responses = new HashMap<>();
+        handlerMethods.forEach((info, handlerMethod) -> {
+            ConstantResponse constant = handlerMethod.getMethodAnnotation(ConstantResponse.class);
+            if (constant == null) {
+                return;
+            }
+            if (!isResponseBody(handlerMethod)) {
+                log.warn("@ConstantResponse 무시, @ResponseBody String 또는 HttpEntity<String> 이 아님: {}", handlerMethod);
+                return;
+            }
+            if (hasResponseBodyAdvice(handlerMethod, responseBodyAdvice)) {
+                log.info("@ConstantResponse 무시, ResponseBodyAdvice 가 적용되는 핸들러: {}", handlerMethod);
+                return;
+            }
+            MediaType contentType = contentType(info.getProducesCondition().getProducibleMediaTypes());
+            responses.put(handlerMethod.getMethod(), new EncodedResponse(constant.value(), contentType));
+        });
+        return Map.copyOf(responses);
+    }
+
+    private static List<ControllerAdviceBean> responseBodyAdvice(List<ControllerAdviceBean> controllerAdvice) {
+        return controllerAdvice.stream()
+                .filter(advice -> advice.getBeanType() != null
+                        && ResponseBodyAdvice.class.isAssignableFrom(advice.getBeanType()))
+                .collect(Collectors.toList());
+    }
+
+    /*
+        String 반환값은 StringHttpMessageConverter 가 쓰므로 그 컨버터 기준으로 supports 를 묻는다.
+     */
+    private static boolean hasResponseBodyAdvice(HandlerMethod handlerMethod, List<ControllerAdviceBean> advice) {
+        for (ControllerAdviceBean adviceBean : advice) {
+            if (adviceBean.isApplicableToBeanType(handlerMethod.getBeanType())
+                    && ((ResponseBodyAdvice<?>) adviceBean.resolveBean())
+                    .supports(handlerMethod.getReturnType(), StringHttpMessageConverter.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isResponseBody(HandlerMethod handlerMethod) {
+        Class<?> returnType = handlerMethod.getMethod().getReturnType();
+        if (HttpEntity.class.isAssignableFrom(returnType)) {
+            return true;
+        }
+        return returnType == String.class
+                && (AnnotatedElementUtils.hasAnnotation(handlerMethod.getBeanType(), ResponseBody.class)
+                || handlerMethod.hasMethodAnnotation(ResponseBody.class));
+    }
+
+    /*
+        produces 가 하나로 정해져 있으면 그 타입, 아니면 StringHttpMessageConverter 기본값 (text/plain;charset=UTF-8)
+     */
+    private static MediaType contentType(Set<MediaType> producible) {
+        if (producible.size() == 1) {
+            MediaType mediaType = producible.iterator().next();
+            if (mediaType.isConcrete()) {
+                return mediaType.getCharset() == null ? new MediaType(mediaType, StandardCharsets.UTF_8) : mediaType;
+            }
+        }
+        return DEFAULT_CONTENT_TYPE;
+    }
+
+    private static class EncodedResponse {
+        private final String value;
+        private final MediaType mediaType;
+        private final String contentType;
+        private final String mimeType;
+        private final byte[] body;
+
+        EncodedResponse(String value, MediaType contentType) {
+            this.value = value;
+            this.mediaType = contentType;
+            this.contentType = contentType.toString();
+            this.mimeType = contentType.getType() + "/" + contentType.getSubtype();
+            this.body = value.getBytes(contentType.getCharset());
+        }
+
+        boolean matches(Object returnValue) {
+            if (returnValue instanceof HttpEntity) {
+                HttpEntity<?> entity = (HttpEntity<?>) returnValue;
+                if (!entity.getHeaders().isEmpty()) {
+                    return false;
+                }
+                if (entity instanceof ResponseEntity && ((ResponseEntity<?>) entity).getStatusCodeValue() != 200) {
+                    return false;
+                }
+                returnValue = entity.getBody();
+            }
+            return value.equals(returnValue);
+        }
+
+        /*
+            흔한 Accept(없음, *\/*, 미리 정한 타입 그대로)는 파싱하지 않는다.
+         */
+        boolean accepts(String accept) {
+            if (accept == null || accept.equals(MediaType.ALL_VALUE)
+                    || accept.equals(mimeType) || accept.equals(contentType)) {
+                return true;
+            }
+            List<MediaType> acceptable;
+            try {
+                acceptable = MediaType.parseMediaTypes(accept);
+            } catch (InvalidMediaTypeException e) {
+                return false;
+            }
+            MediaType.sortByQualityValue(acceptable);
+            MediaType preferred = null;
+            for (MediaType candidate : acceptable) {
+                if (candidate.getQualityValue() == 0) {
+                    if (candidate.includes(mediaType)) {
+                        return false;
+                    }
+                } else if (preferred == null) {
+                    preferred = candidate;
+                }
+            }
+            return preferred != null && preferred.isCompatibleWith(mediaType)
+                    && (preferred.getCharset() == null || preferred.getCharset().equals(mediaType.getCharset()));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package hello.springmvc.web;
+
+import hello.springmvc.ch6.basic.request.DirectBinder;
+import hello.springmvc.ch6.basic.request.DirectModelAttributeResolver;
+import hello.springmvc.ch6.basic.request.LazyRequestParamMapResolver;
+import hello.springmvc.ch6.basic.request.RequestParamsArgumentResolver;
+import hello.springmvc.ch6.basic.requestmapping.RequestHeadersArgumentResolver;
+import hello.springmvc.ch6.basic.requestmapping.SingleCookieValueResolver;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.ControllerAdviceBean;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandlerComposite;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RequestMappingHandlerAdapter 의 ArgumentResolver 목록 맨 앞에 직접 만든 resolver 를 끼워 넣는다.
+ *
+ * WebMvcConfigurer.addArgumentResolvers 로 등록하면 스프링 기본 resolver 뒤에 붙기 때문에
+ * @ModelAttribute, @RequestParam 처럼 기본 resolver 가 이미 처리하는 파라미터는 가져올 수 없다.
+ * 그래서 어댑터 초기화가 끝난 뒤에 목록을 다시 만들어서 설정한다.
+ *
+ * ReturnValueHandler 도 같은 이유로 ConstantResponseReturnValueHandler 를 맨 앞에 넣는다.
+ * (@ConstantResponse 가 아닌 반환값은 원래 목록이 처리)
+ */
+@Component
+public class HandlerAdapterCustomizer implements SmartInitializingSingleton {
+
+    private final RequestMappingHandlerAdapter handlerAdapter;
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final List<DirectBinder<?>> directBinders;
+    private final ConfigurableListableBeanFactory beanFactory;
+    private final ApplicationContext applicationContext;
+
+    public HandlerAdapterCustomizer(RequestMappingHandlerAdapter handlerAdapter,
+                                    @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+                                    List<DirectBinder<?>> directBinders,
+                                    ConfigurableListableBeanFactory beanFactory,
+                                    ApplicationContext applicationContext) {
+        this.handlerAdapter = handlerAdapter;
+        this.handlerMapping = handlerMapping;
+        this.directBinders = directBinders;
+        this.beanFactory = beanFactory;
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<HandlerMethodArgumentResolver> resolvers = new ArrayList<>();
+        resolvers.add(new DirectModelAttributeResolver(directBinders));
+        resolvers.add(new LazyRequestParamMapResolver());
+        resolvers.add(new RequestParamsArgumentResolver());
+        resolvers.add(new RequestHeadersArgumentResolver());
+        resolvers.add(new SingleCookieValueResolver(beanFactory));
+        resolvers.addAll(handlerAdapter.getArgumentResolvers());
+        handlerAdapter.setArgumentResolvers(resolvers);
+
+        List<HandlerMethodReturnValueHandler> defaultHandlers = handlerAdapter.getReturnValueHandlers();
+        HandlerMethodReturnValueHandler fallback = new HandlerMethodReturnValueHandlerComposite().addHandlers(defaultHandlers);
+        List<HandlerMethodReturnValueHandler> returnValueHandlers = new ArrayList<>();
+        returnValueHandlers.add(new ConstantResponseReturnValueHandler(handlerMapping.getHandlerMethods(),
+                ControllerAdviceBean.findAnnotatedBeans(applicationContext), fallback));
+        returnValueHandlers.addAll(defaultHandlers);
+        handlerAdapter.setReturnValueHandlers(returnValueHandlers);
+    }
+}
@@ -0,0 +1,38 @@
+package hello.springmvc.web;
+
+import hello.springmvc.web.coalesce.CoalescingRequestMappingHandlerAdapter;
+import hello.springmvc.web.coalesce.RequestCoalescer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * 스프링 부트가 만드는 RequestMappingHandlerMapping 을 CachingRequestMappingHandlerMapping 으로 바꾼다.
+ * hello.mapping-cache.max-size : 캐시할 (메서드, 경로, 조건 입력값) 조합 수
+ *
+ * RequestMappingHandlerAdapter 는 @Coalesce 핸들러 호출을 합치는 CoalescingRequestMappingHandlerAdapter 로 바꾼다.
+ */
+@Component
+public class HandlerMappingRegistrations implements WebMvcRegistrations {
+
+    private final int maxSize;
+    private final RequestCoalescer coalescer;
+
+    public HandlerMappingRegistrations(@Value("${hello.mapping-cache.max-size:10000}") int maxSize,
+                                       RequestCoalescer coalescer) {
+        this.maxSize = maxSize;
+        this.coalescer = coalescer;
+    }
+
+    @Override
+    public RequestMappingHandlerMapping getRequestMappingHandlerMapping() {
+        return new CachingRequestMappingHandlerMapping(maxSize);
+    }
+
+    @Override
+    public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+        return new CoalescingRequestMappingHandlerAdapter(coalescer);
+    }
+}
@@ -0,0 +1,239 @@
+package hello.springmvc.web;
+
+import hello.springmvc.web.limit.RequestBodyLimitFilter;
+import hello.springmvc.web.limit.RequestBodyTooLargeException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Content-Encoding: gzip, deflate 로 압축된 요청 바디를 풀어서 넘겨준다.
+ *
+ * 바디 전체를 풀어서 버퍼에 담지 않고, getInputStream() 을 읽는 만큼만 풀리는 스트림으로 바꾼다.
+ * 그래서 StreamUtils.copyToString, HttpMessageConverter, JsonCodecs.read, RawBodyReader 가 그대로 동작한다.
+ * - 풀린 크기는 미리 알 수 없으니 Content-Length, Content-Encoding 헤더는 감춘다.
+ * - 풀린 크기가 maxInflatedSize 를 넘으면 RequestBodyTooLargeException, 413 (압축 폭탄 방지)
+ *   RequestBodyLimitFilter 가 먼저 실행됐으면 그 요청의 제한(엔드포인트, Content-Type)과 maxInflatedSize 중 작은 값
+ * - 그 외 인코딩(br, zstd, 여러 개 연결)과 압축된 form 요청은 415 + Accept-Encoding: gzip, deflate
+ *   (form 파라미터는 톰캣이 원본 스트림에서 직접 파싱하기 때문)
+ */
+public class RequestDecompressionFilter extends OncePerRequestFilter {
+
+    private static final String SUPPORTED_ENCODINGS = "gzip, deflate";
+
+    private final long maxInflatedSize;
+
+    public RequestDecompressionFilter(long maxInflatedSize) {
+        this.maxInflatedSize = maxInflatedSize;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (contentEncoding == null || contentEncoding.equalsIgnoreCase("identity")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String encoding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+        boolean supported = encoding.equals("gzip") || encoding.equals("x-gzip") || encoding.equals("deflate");
+        if (!supported || isForm(request)) {
+            response.setHeader(HttpHeaders.ACCEPT_ENCODING, SUPPORTED_ENCODINGS);
+            response.sendError(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value(),
+                    "Unsupported Content-Encoding: " + contentEncoding);
+            return;
+        }
+
+        DecompressedRequest decompressed = new DecompressedRequest(request, encoding, maxInflatedSize(request));
+        try {
+            filterChain.doFilter(decompressed, response);
+        } finally {
+            //비동기 핸들러는 다른 스레드에서 계속 읽으므로 닫지 않는다. (Inflater 는 GC 때 정리됨)
+            if (!request.isAsyncStarted()) {
+                decompressed.close();
+            }
+        }
+    }
+
+    private long maxInflatedSize(HttpServletRequest request) {
+        Object limit = request.getAttribute(RequestBodyLimitFilter.MAX_SIZE_ATTRIBUTE);
+        return limit instanceof Long ? Math.min((Long) limit, maxInflatedSize) : maxInflatedSize;
+    }
+
+    private static boolean isForm(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null
+                && (contentType.startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                || contentType.startsWith(MediaType.MULTIPART_FORM_DATA_VALUE));
+    }
+
+    private static class DecompressedRequest extends HttpServletRequestWrapper {
+
+        private final String encoding;
+        private final long maxInflatedSize;
+        private InflatingInputStream inputStream;
+        private Inflater inflater;
+
+        DecompressedRequest(HttpServletRequest request, String encoding, long maxInflatedSize) {
+            super(request);
+            this.encoding = encoding;
+            this.maxInflatedSize = maxInflatedSize;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                ServletInputStream raw = super.getInputStream();
+                InputStream inflating;
+                if (encoding.equals("deflate")) {
+                    inflater = new Inflater();
+                    inflating = new InflaterInputStream(raw, inflater, 8192);
+                } else {
+                    inflating = new GZIPInputStream(raw, 8192);
+                }
+                inputStream = new InflatingInputStream(inflating, maxInflatedSize);
+            }
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String characterEncoding = getCharacterEncoding();
+            Charset charset = characterEncoding == null
+                    ? StandardCharsets.ISO_8859_1 : Charset.forName(characterEncoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isHidden(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isHidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public int getIntHeader(String name) {
+            return isHidden(name) ? -1 : super.getIntHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(DecompressedRequest::isHidden);
+            return Collections.enumeration(names);
+        }
+
+        private static boolean isHidden(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)
+                    || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+
+        void close() throws IOException {
+            if (inputStream != null) {
+                inputStream.close();
+            }
+            if (inflater != null) {
+                inflater.end();
+            }
+        }
+    }
+
+    private static class InflatingInputStream extends ServletInputStream {
+
+        private final InputStream inflating;
+        private final long maxInflatedSize;
+        private long inflated;
+        private boolean finished;
+
+        InflatingInputStream(InputStream inflating, long maxInflatedSize) {
+            this.inflating = inflating;
+            this.maxInflatedSize = maxInflatedSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = inflating.read();
+            if (b < 0) {
+                finished = true;
+            } else {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = inflating.read(b, off, len);
+            if (n < 0) {
+                finished = true;
+            } else {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws IOException {
+            inflated += n;
+            if (inflated > maxInflatedSize) {
+                throw new RequestBodyTooLargeException(
+                        "Inflated request body exceeds " + maxInflatedSize + " bytes", maxInflatedSize);
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new UnsupportedOperationException("Non-blocking read is not supported for compressed request bodies");
+        }
+
+        @Override
+        public void close() throws IOException {
+            inflating.close();
+        }
+    }
+}
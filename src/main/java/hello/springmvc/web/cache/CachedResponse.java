@@ -0,0 +1,17 @@
+package hello.springmvc.web.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+/**
+ * 캐시에 저장된 응답 바디와 강한 ETag
+ */
+@Getter
+@RequiredArgsConstructor
+public class CachedResponse {
+
+    private final MediaType contentType;
+    private final byte[] body;
+    private final String etag;
+}
@@ -0,0 +1,127 @@
+package hello.springmvc.web.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * GET 응답 캐시 (@ResponseCached)
+ *
+ * tag 하나에 (경로 + Accept) 별 응답을 묶어서 저장한다. 무효화는 tag 단위로 한 번에 지운다.
+ * hello.response-cache.max-tags     : 저장할 tag 수 (넘으면 적게 쓰인 것부터 밀어냄)
+ * hello.response-cache.max-variants : tag 하나에 저장할 응답 수 (넘으면 저장하지 않음)
+ * hello.response-cache.ttl          : 저장 후 유효 시간
+ *
+ * 무효화와 저장이 겹치는 경우
+ *   GET 이 miss 로 핸들러를 실행하는 동안 같은 tag 의 POST/DELETE 가 무효화하면, GET 이 늦게 저장하는 바디는
+ *   변경 전 값이다. 그래서 tag 별 세대(generation)를 두고 miss 때 읽은 세대가 저장할 때와 다르면 저장하지 않는다.
+ *   세대는 tag 해시로 고른 칸(GENERATION_SLOTS 개)에 둔다. 다른 tag 와 칸을 같이 쓰면 저장을 한 번 더 건너뛸 뿐이다.
+ *
+ * 지표
+ * hello.response-cache.requests{result=hit|miss} : 캐시 조회 결과
+ * hello.response-cache.hit.ratio                 : hit / (hit + miss)
+ * cache.size, cache.evictions{cache=responses}    : Caffeine 통계
+ */
+@Component
+public class ResponseCache {
+
+    private static final int GENERATION_SLOTS = 4096;
+
+    private final Cache<String, ConcurrentMap<String, CachedResponse>> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_SLOTS);
+    private final int maxVariants;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ResponseCache(MeterRegistry registry,
+                         @Value("${hello.response-cache.max-tags:10000}") long maxTags,
+                         @Value("${hello.response-cache.max-variants:8}") int maxVariants,
+                         @Value("${hello.response-cache.ttl:60s}") Duration ttl) {
+        this.maxVariants = maxVariants;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxTags)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "responses");
+
+        this.hits = Counter.builder("hello.response-cache.requests").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("hello.response-cache.requests").tag("result", "miss").register(registry);
+        Gauge.builder("hello.response-cache.hit.ratio", this, ResponseCache::hitRatio).register(registry);
+    }
+
+    public CachedResponse get(String tag, String variant) {
+        ConcurrentMap<String, CachedResponse> variants = cache.getIfPresent(tag);
+        CachedResponse cached = variants == null ? null : variants.get(variant);
+        if (cached == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return cached;
+    }
+
+    /*
+        miss 때 읽어서 put 에 넘긴다.
+     */
+    public long generation(String tag) {
+        return generations.get(slot(tag));
+    }
+
+    /*
+        generation 이 miss 때와 다르거나 tag 의 응답 수가 maxVariants 이면 저장하지 않는다. (ETag 는 그대로 쓸 수 있다)
+        저장한 뒤에 세대를 다시 보고, 그 사이에 무효화됐으면 방금 넣은 것을 지운다.
+     */
+    public CachedResponse put(String tag, String variant, long generation, MediaType contentType, byte[] body) {
+        CachedResponse cached = new CachedResponse(contentType, body, etag(body));
+        if (generation(tag) != generation) {
+            return cached;
+        }
+        ConcurrentMap<String, CachedResponse> variants = cache.get(tag, key -> new ConcurrentHashMap<>());
+        if (variants.size() >= maxVariants && !variants.containsKey(variant)) {
+            return cached;
+        }
+        variants.put(variant, cached);
+        if (generation(tag) != generation) {
+            variants.remove(variant, cached);
+        }
+        return cached;
+    }
+
+    /*
+        세대를 먼저 올린다. 올린 뒤에 시작한 put 은 저장하지 않고, 그 전에 저장된 것은 여기서 지워진다.
+     */
+    public void evict(String tag) {
+        generations.incrementAndGet(slot(tag));
+        cache.invalidate(tag);
+    }
+
+    private static int slot(String tag) {
+        int hash = tag.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATION_SLOTS - 1);
+    }
+
+    public double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    /*
+        바디가 같으면 ETag 도 같은 강한 ETag ("...")
+     */
+    static String etag(byte[] body) {
+        return "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+}
@@ -0,0 +1,113 @@
+package hello.springmvc.web.cache;
+
+import hello.springmvc.web.cache.ResponseCacheInterceptor.CacheKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import static hello.springmvc.web.coalesce.CoalescingRequestMappingHandlerAdapter.JOINED_ATTRIBUTE;
+
+/**
+ * 캐시에 없던 @ResponseCached 응답을 직접 바이트로 변환해서 저장하고 ETag 를 붙여 내려준다.
+ *
+ * 스프링이 고른 메시지 컨버터로 버퍼에 한 번 쓰고, 그 바이트를 캐시와 응답에 같이 쓴다.
+ * 여기서 응답을 다 쓰고 null 을 반환하면 스프링은 바디를 다시 쓰지 않는다.
+ * @Coalesce 로 다른 요청의 결과를 받은 요청은 ETag 만 붙이고 저장하지 않는다.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class ResponseCacheAdvice implements ResponseBodyAdvice<Object> {
+
+    private final ResponseCache responseCache;
+    private final HttpMessageConverters messageConverters;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(ResponseCached.class);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || !(request instanceof ServletServerHttpRequest)
+                || !(response instanceof ServletServerHttpResponse)) {
+            return body;
+        }
+        HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+        HttpServletResponse servletResponse = ((ServletServerHttpResponse) response).getServletResponse();
+        CacheKey key = (CacheKey) servletRequest.getAttribute(ResponseCacheInterceptor.CACHE_KEY_ATTRIBUTE);
+        if (key == null || servletResponse.getStatus() != HttpStatus.OK.value()) {
+            return body;
+        }
+
+        try {
+            BufferedOutputMessage buffered = new BufferedOutputMessage();
+            HttpMessageConverter<Object> converter = (HttpMessageConverter<Object>) findConverter(selectedConverterType);
+            if (converter == null) {
+                return body;
+            }
+            converter.write(body, selectedContentType, buffered);
+            MediaType contentType = buffered.getHeaders().getContentType() != null
+                    ? buffered.getHeaders().getContentType() : selectedContentType;
+            byte[] bytes = buffered.body.toByteArray();
+            boolean joined = servletRequest.getAttribute(JOINED_ATTRIBUTE) != null;
+            CachedResponse cached = joined
+                    ? new CachedResponse(contentType, bytes, ResponseCache.etag(bytes))
+                    : responseCache.put(key.tag, key.variant, key.generation, contentType, bytes);
+
+            if (new ServletWebRequest(servletRequest, servletResponse).checkNotModified(cached.getEtag())) {
+                return null;
+            }
+            response.getHeaders().setETag(cached.getEtag());
+            response.getHeaders().setContentType(contentType);
+            response.getHeaders().setContentLength(cached.getBody().length);
+            response.getBody().write(cached.getBody());
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpMessageConverter<?> findConverter(Class<? extends HttpMessageConverter<?>> converterType) {
+        return messageConverters.getConverters().stream()
+                .filter(converterType::isInstance)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static class BufferedOutputMessage implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package hello.springmvc.web.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 핸들러가 성공(2xx)하면 tag 로 저장된 캐시 응답을 모두 지운다.
+ * tag 를 비우면 요청 경로 (같은 경로의 GET 응답)
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ResponseCacheEvict {
+
+    String tag() default "";
+}
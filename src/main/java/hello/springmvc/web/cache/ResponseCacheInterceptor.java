@@ -0,0 +1,165 @@
+package hello.springmvc.web.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @ResponseCached GET : 캐시에 있으면 핸들러를 호출하지 않고 바로 응답한다.
+ *   If-None-Match 가 ETag 와 같으면 304, 아니면 저장된 바디
+ *   캐시에 없으면 핸들러가 실행되고 ResponseCacheAdvice 가 응답을 저장한다.
+ * @ResponseCacheEvict : 핸들러가 2xx 로 끝나면 tag 를 지운다.
+ */
+public class ResponseCacheInterceptor implements HandlerInterceptor {
+
+    static final String CACHE_KEY_ATTRIBUTE = ResponseCacheInterceptor.class.getName() + ".key";
+
+    private final ResponseCache responseCache;
+
+    public ResponseCacheInterceptor(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod) || !HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        ResponseCached cached = ((HandlerMethod) handler).getMethodAnnotation(ResponseCached.class);
+        if (cached == null) {
+            return true;
+        }
+
+        String tag = tag(cached.tag(), request);
+        String variant = variant(request);
+        if (variant == null) {
+            return true;
+        }
+        //세대는 조회 전에 읽는다. (조회와 핸들러 실행 사이의 무효화도 잡힌다)
+        long generation = responseCache.generation(tag);
+        CachedResponse cachedResponse = responseCache.get(tag, variant);
+        if (cachedResponse == null) {
+            request.setAttribute(CACHE_KEY_ATTRIBUTE, new CacheKey(tag, variant, generation));
+            return true;
+        }
+
+        if (new ServletWebRequest(request, response).checkNotModified(cachedResponse.getEtag())) {
+            return false;
+        }
+        response.setHeader(HttpHeaders.ETAG, cachedResponse.getEtag());
+        response.setContentType(cachedResponse.getContentType().toString());
+        response.setContentLength(cachedResponse.getBody().length);
+        response.getOutputStream().write(cachedResponse.getBody());
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (ex != null || !(handler instanceof HandlerMethod) || response.getStatus() / 100 != 2) {
+            return;
+        }
+        ResponseCacheEvict evict = ((HandlerMethod) handler).getMethodAnnotation(ResponseCacheEvict.class);
+        if (evict != null) {
+            responseCache.evict(tag(evict.tag(), request));
+        }
+    }
+
+    /*
+        "user:{userId}" + 경로 변수 {userId=userA} => "user:userA"
+     */
+    @SuppressWarnings("unchecked")
+    static String tag(String template, HttpServletRequest request) {
+        if (template.isEmpty()) {
+            return request.getRequestURI();
+        }
+        Map<String, String> uriVariables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (uriVariables == null || template.indexOf('{') < 0) {
+            return template;
+        }
+        String tag = template;
+        for (Map.Entry<String, String> variable : uriVariables.entrySet()) {
+            tag = tag.replace("{" + variable.getKey() + "}", variable.getValue());
+        }
+        return tag;
+    }
+
+    /*
+        같은 tag 안에서 응답을 구분하는 값 : 경로 + Accept
+        쿼리는 넣지 않는다. (@ResponseCached 핸들러는 쿼리를 쓰지 않음, ?x=랜덤 으로 항목이 늘어나지 않게)
+        Accept 를 해석할 수 없으면 null (저장하지 않음)
+     */
+    private static String variant(HttpServletRequest request) {
+        String accept = accept(request);
+        return accept == null ? null : request.getRequestURI() + "|" + accept;
+    }
+
+    /*
+        Accept 를 응답 형식 기준으로 정리한다.
+        - 매핑에 produces 가 있으면 그중 처음 맞는 하나 (그것으로 응답하므로)
+        - 없으면 q, 파라미터를 빼고 선호 순서로 정렬한 type/subtype 목록 (없으면 *\/*)
+     */
+    @SuppressWarnings("unchecked")
+    static String accept(HttpServletRequest request) {
+        List<MediaType> acceptable;
+        try {
+            String header = request.getHeader(HttpHeaders.ACCEPT);
+            acceptable = header == null || header.isEmpty()
+                    ? Collections.singletonList(MediaType.ALL) : MediaType.parseMediaTypes(header);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        MediaType.sortBySpecificityAndQuality(acceptable);
+
+        Set<MediaType> producible =
+                (Set<MediaType>) request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+        if (producible != null && !producible.isEmpty()) {
+            for (MediaType mediaType : acceptable) {
+                for (MediaType produce : producible) {
+                    if (mediaType.getQualityValue() > 0 && mediaType.isCompatibleWith(produce)) {
+                        return produce.toString();
+                    }
+                }
+            }
+            return null;
+        }
+
+        Set<String> types = new LinkedHashSet<>();
+        for (MediaType mediaType : acceptable) {
+            if (mediaType.getQualityValue() > 0) {
+                types.add(mediaType.getType() + "/" + mediaType.getSubtype());
+            }
+        }
+        return String.join(",", types);
+    }
+
+    /**
+     * miss 때 정한 저장 위치와 그때의 세대 (ResponseCacheAdvice 가 저장할 때 쓴다)
+     */
+    static final class CacheKey {
+
+        final String tag;
+        final String variant;
+        final long generation;
+
+        CacheKey(String tag, String variant, long generation) {
+            this.tag = tag;
+            this.variant = variant;
+            this.generation = generation;
+        }
+    }
+}
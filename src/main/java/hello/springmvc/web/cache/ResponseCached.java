@@ -0,0 +1,22 @@
+package hello.springmvc.web.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 응답(@ResponseBody)을 ResponseCache 에 저장하는 GET 핸들러
+ *
+ * 응답이 경로 변수, Accept 헤더로만 결정되는 핸들러에만 붙인다. (쿼리 파라미터는 캐시 키에 들어가지 않는다)
+ * tag : 무효화 단위, {경로변수} 를 쓸 수 있다. 비우면 요청 경로
+ *   ex) @ResponseCached(tag = "user:{userId}") ... @ResponseCacheEvict(tag = "user:{userId}")
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ResponseCached {
+
+    String tag() default "";
+}
@@ -0,0 +1,29 @@
+package hello.springmvc.web.coalesce;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 같은 키로 동시에 들어온 요청은 핸들러를 한 번만 실행하고 그 결과(반환값 또는 예외)를 같이 받는다. (single-flight)
+ *
+ * 먼저 온 요청(leader)이 핸들러를 실행하는 동안 뒤에 온 요청(follower)은 기다렸다가 같은 반환값을 받는다.
+ * 끝난 뒤에 온 요청은 다시 실행한다. (결과를 저장하지 않음, 저장은 @ResponseCached)
+ * 반환값을 여러 요청이 같이 쓰므로 바뀌지 않는 값(String 등)을 반환하는 읽기 핸들러에만 붙인다.
+ *
+ * key       : {경로변수} 를 쓸 수 있다. 비우면 요청 경로 + 쿼리
+ *   ex) @Coalesce(key = "{userId}/{orderId}")
+ * timeoutMs : leader 가 시작한 뒤 이 시간이 지나면 기다리던 요청은 503, 새로 온 요청은 새 leader 가 된다.
+ *             0 이하면 hello.coalesce.timeout
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Coalesce {
+
+    String key() default "";
+
+    long timeoutMs() default 0;
+}
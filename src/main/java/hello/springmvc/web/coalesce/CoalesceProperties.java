@@ -0,0 +1,34 @@
+package hello.springmvc.web.coalesce;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * hello.coalesce.*
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("hello.coalesce")
+public class CoalesceProperties {
+
+    /*
+        false 면 @Coalesce 를 무시하고 요청마다 핸들러를 실행한다.
+     */
+    private boolean enabled = true;
+
+    /*
+        @Coalesce(timeoutMs) 를 주지 않은 핸들러의 키별 제한 시간
+     */
+    private Duration timeout = Duration.ofSeconds(1);
+
+    /*
+        키 하나에 기다릴 수 있는 요청 수. 넘으면 기다리지 않고 503
+        (기다리는 동안 요청 스레드를 잡고 있으므로 톰캣 스레드 수보다 작게 잡는다)
+     */
+    private int maxWaiters = 100;
+}
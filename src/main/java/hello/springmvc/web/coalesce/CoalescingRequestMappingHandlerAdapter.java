@@ -0,0 +1,119 @@
+package hello.springmvc.web.coalesce;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Coalesce 가 붙은 핸들러는 메서드 호출(invokeForRequest)만 RequestCoalescer 로 감싼다.
+ *
+ * 인자 변환, 반환값 처리(메시지 컨버터, ETag, 캐시 저장)는 요청마다 그대로 하고
+ * 핸들러 메서드 실행만 같은 키의 요청끼리 한 번으로 합친다.
+ * 인터셉터보다 뒤라서 캐시(ResponseCacheInterceptor), 요청 수 제한을 통과한 요청만 합쳐진다.
+ *
+ * leader 의 결과를 받은 요청에는 JOINED_ATTRIBUTE 를 남긴다. 그 결과는 이 요청보다 먼저 시작한 실행의 것이라
+ * ResponseCacheAdvice 는 저장하지 않는다. (저장은 leader 요청이 자기 세대로 한 번만 한다)
+ */
+public class CoalescingRequestMappingHandlerAdapter extends RequestMappingHandlerAdapter {
+
+    public static final String JOINED_ATTRIBUTE = CoalescingRequestMappingHandlerAdapter.class.getName() + ".joined";
+
+    private static final CoalesceTarget NONE = new CoalesceTarget(null, null, 0);
+
+    private final RequestCoalescer coalescer;
+    private final Map<Method, CoalesceTarget> targets = new ConcurrentHashMap<>();
+
+    public CoalescingRequestMappingHandlerAdapter(RequestCoalescer coalescer) {
+        this.coalescer = coalescer;
+    }
+
+    @Override
+    protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+        if (!coalescer.isEnabled()) {
+            return super.createInvocableHandlerMethod(handlerMethod);
+        }
+        CoalesceTarget target = targets.computeIfAbsent(handlerMethod.getMethod(), method -> target(handlerMethod));
+        if (target == NONE) {
+            return super.createInvocableHandlerMethod(handlerMethod);
+        }
+        return new CoalescingInvocableHandlerMethod(handlerMethod, target);
+    }
+
+    private static CoalesceTarget target(HandlerMethod handlerMethod) {
+        Coalesce coalesce = handlerMethod.getMethodAnnotation(Coalesce.class);
+        if (coalesce == null) {
+            return NONE;
+        }
+        String name = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        return new CoalesceTarget(name, coalesce.key(), coalesce.timeoutMs());
+    }
+
+    private static final class CoalesceTarget {
+
+        final String name;
+        final String key;
+        final long timeoutMs;
+
+        CoalesceTarget(String name, String key, long timeoutMs) {
+            this.name = name;
+            this.key = key;
+            this.timeoutMs = timeoutMs;
+        }
+
+        /*
+            다른 핸들러의 같은 키와 섞이지 않도록 "클래스.메서드:" 를 앞에 붙인다. 키가 비어 있으면 요청 경로 + 쿼리
+                ex) MappingController.mappingPath:userA/1
+         */
+        @SuppressWarnings("unchecked")
+        String key(NativeWebRequest webRequest) {
+            if (key.isEmpty()) {
+                HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+                String query = request == null ? null : request.getQueryString();
+                String uri = request == null ? "" : request.getRequestURI();
+                return name + ":" + uri + (query == null ? "" : "?" + query);
+            }
+            Map<String, String> uriVariables = (Map<String, String>) webRequest.getAttribute(
+                    HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            String expanded = key;
+            if (uriVariables != null && key.indexOf('{') >= 0) {
+                for (Map.Entry<String, String> variable : uriVariables.entrySet()) {
+                    expanded = expanded.replace("{" + variable.getKey() + "}", variable.getValue());
+                }
+            }
+            return name + ":" + expanded;
+        }
+    }
+
+    private final class CoalescingInvocableHandlerMethod extends ServletInvocableHandlerMethod {
+
+        private final CoalesceTarget target;
+
+        CoalescingInvocableHandlerMethod(HandlerMethod handlerMethod, CoalesceTarget target) {
+            super(handlerMethod);
+            this.target = target;
+        }
+
+        @Override
+        public Object invokeForRequest(NativeWebRequest request, ModelAndViewContainer mavContainer,
+                                       Object... providedArgs) throws Exception {
+            boolean[] led = new boolean[1];
+            Object result = coalescer.execute(target.name, target.key(request), target.timeoutMs, () -> {
+                led[0] = true;
+                return super.invokeForRequest(request, mavContainer, providedArgs);
+            });
+            if (!led[0]) {
+                request.setAttribute(JOINED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+            }
+            return result;
+        }
+    }
+}
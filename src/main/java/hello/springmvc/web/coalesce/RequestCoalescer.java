@@ -0,0 +1,170 @@
+package hello.springmvc.web.coalesce;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 키별 실행 중인 호출(Flight)을 들고 있다가 같은 키로 온 호출을 거기에 붙인다.
+ *
+ * - 맵에는 지금 실행 중인 키만 있다. leader 가 끝나면 바로 지우므로 키 수는 동시에 실행 중인 leader 수를 넘지 않는다.
+ * - 키마다 기다리는 요청 수는 maxWaiters 까지. 넘으면 기다리지 않고 503
+ * - leader 가 시작한 뒤 timeout 이 지나면 기다리던 요청은 503, 새로 온 요청은 그 Flight 를 버리고 새 leader 가 된다.
+ *   (leader 가 멈춰도 그 키가 계속 막히지 않게, 멈춘 leader 는 끝나면 자기 Flight 만 지운다)
+ *
+ * 지표
+ * hello.coalesce.requests{name, result=leader|joined|rejected|timeout} : leader 수가 실제 핸들러 실행 수
+ * hello.coalesce.in-flight                                            : 실행 중인 키 수
+ */
+@Component
+public class RequestCoalescer {
+
+    private final CoalesceProperties properties;
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, Flight> flights = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counters> counters = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(CoalesceProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+        Gauge.builder("hello.coalesce.in-flight", flights, ConcurrentMap::size).register(registry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /*
+        timeoutMs 가 0 이하면 hello.coalesce.timeout
+     */
+    public Object execute(String name, String key, long timeoutMs, Callable<Object> call) throws Exception {
+        long timeoutNanos = timeoutMs > 0
+                ? TimeUnit.MILLISECONDS.toNanos(timeoutMs) : properties.getTimeout().toNanos();
+        Counters counters = counters(name);
+        while (true) {
+            long now = System.nanoTime();
+            Flight flight = flights.get(key);
+            if (flight == null || flight.expired(now)) {
+                Flight mine = new Flight(now + timeoutNanos);
+                boolean leader = flight == null
+                        ? flights.putIfAbsent(key, mine) == null
+                        : flights.replace(key, flight, mine);
+                if (!leader) {
+                    continue;
+                }
+                counters.leader.increment();
+                return lead(key, mine, call);
+            }
+
+            if (!flight.join(properties.getMaxWaiters())) {
+                counters.rejected.increment();
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "too many coalesced requests");
+            }
+            try {
+                Object result = flight.await(now);
+                counters.joined.increment();
+                return result;
+            } catch (TimeoutException e) {
+                counters.timeout.increment();
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "coalesced request timed out");
+            } finally {
+                flight.leave();
+            }
+        }
+    }
+
+    private Object lead(String key, Flight flight, Callable<Object> call) throws Exception {
+        try {
+            Object result = call.call();
+            flight.result.complete(result);
+            return result;
+        } catch (Throwable e) {
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    private Counters counters(String name) {
+        Counters existing = counters.get(name);
+        return existing != null ? existing : counters.computeIfAbsent(name, n -> new Counters(n, registry));
+    }
+
+    private static class Flight {
+
+        private final long expiresAt;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        Flight(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        boolean expired(long now) {
+            return now - expiresAt >= 0;
+        }
+
+        boolean join(int maxWaiters) {
+            if (waiters.incrementAndGet() > maxWaiters) {
+                waiters.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        void leave() {
+            waiters.decrementAndGet();
+        }
+
+        /*
+            leader 의 예외는 그대로 다시 던진다. (ResponseStatusException 404 등이 같이 전달됨)
+         */
+        Object await(long now) throws Exception {
+            try {
+                return result.get(expiresAt - now, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw e;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+                throw (Error) cause;
+            }
+        }
+    }
+
+    private static class Counters {
+
+        private final Counter leader;
+        private final Counter joined;
+        private final Counter rejected;
+        private final Counter timeout;
+
+        Counters(String name, MeterRegistry registry) {
+            this.leader = counter(name, "leader", registry);
+            this.joined = counter(name, "joined", registry);
+            this.rejected = counter(name, "rejected", registry);
+            this.timeout = counter(name, "timeout", registry);
+        }
+
+        private static Counter counter(String name, String result, MeterRegistry registry) {
+            return Counter.builder("hello.coalesce.requests")
+                    .tag("name", name).tag("result", result).register(registry);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package hello.springmvc.web.limit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * 요청 바디 크기 제한 (RequestBodyLimitProperties)
+ *
+ * - Content-Length 가 제한보다 크면 바디를 한 바이트도 읽지 않고 413 + Connection: close
+ * - Content-Length 가 없으면(chunked) getInputStream(), getReader() 를 세는 스트림으로 바꾸고
+ *   제한을 넘는 순간 RequestBodyTooLargeException 을 던진다. (RequestBodyTooLargeExceptionResolver 가 413 으로 바꿈)
+ *   그래서 v1, v2 의 StreamUtils.copyToString, HttpEntity, @RequestBody 모두 제한 크기 이상은 버퍼에 담지 않는다.
+ * - 압축된 바디는 전송된(압축된) 크기로 센다. 찾은 제한은 MAX_SIZE_ATTRIBUTE 로 남겨서
+ *   RequestDecompressionFilter 가 풀린 크기도 min(제한, max-inflated-size) 로 자른다.
+ * - form 파라미터는 톰캣이 원본 스트림에서 직접 파싱하므로 Content-Length 검사만 적용된다. (톰캣 maxPostSize 참고)
+ *
+ * 지표
+ * hello.request-body.rejected{reason=content-length|stream, rule} : 거절된 요청 수
+ *   rule 은 제한을 정한 설정 (endpoint:/경로, content-type:타입, default)
+ */
+@Slf4j
+public class RequestBodyLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * 이 요청에 적용된 최대 바디 크기 (Long, 바이트)
+     */
+    public static final String MAX_SIZE_ATTRIBUTE = RequestBodyLimitFilter.class.getName() + ".maxSize";
+
+    /**
+     * Content-Length 가 없는(chunked) 요청에서 지금까지 읽은 바디 바이트 수 (LongSupplier)
+     */
+    public static final String BYTES_READ_ATTRIBUTE = RequestBodyLimitFilter.class.getName() + ".bytesRead";
+
+    private final MeterRegistry registry;
+    private final Limit defaultLimit;
+    private final Map<String, Limit> endpointLimits = new HashMap<>();
+    private final Map<String, Limit> contentTypeLimits = new HashMap<>();
+
+    public RequestBodyLimitFilter(RequestBodyLimitProperties properties, MeterRegistry registry) {
+        this.registry = registry;
+        this.defaultLimit = new Limit("default", properties.getDefaultMaxSize());
+        properties.getEndpoints().forEach((path, size) ->
+                endpointLimits.put(path, new Limit("endpoint:" + path, size)));
+        properties.getContentTypes().forEach((type, size) -> {
+            String key = type.toLowerCase(Locale.ROOT);
+            contentTypeLimits.put(key, new Limit("content-type:" + key, size));
+        });
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Limit limit = limitOf(request);
+        request.setAttribute(MAX_SIZE_ATTRIBUTE, limit.maxSize);
+
+        long contentLength = request.getContentLengthLong();
+        if (contentLength > limit.maxSize) {
+            reject(limit, "content-length");
+            log.warn("request body too large {}, {}, {}",
+                    kv("uri", request.getRequestURI()), kv("contentLength", contentLength), kv("rule", limit.rule));
+            response.setHeader(HttpHeaders.CONNECTION, "close");
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(),
+                    "Request body exceeds " + limit.maxSize + " bytes");
+            return;
+        }
+
+        //Content-Length 가 제한 안쪽이면 톰캣이 그 이상 읽지 않는다. (압축된 바디는 풀린 크기를 다음 필터가 센다)
+        HttpServletRequest limited = request;
+        if (contentLength < 0) {
+            LimitedRequest limitedRequest = new LimitedRequest(request, limit);
+            request.setAttribute(BYTES_READ_ATTRIBUTE, (LongSupplier) limitedRequest::bytesRead);
+            limited = limitedRequest;
+        }
+        try {
+            filterChain.doFilter(limited, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            //핸들러 밖(다른 필터)에서 바디를 읽다가 넘친 경우
+            RequestBodyTooLargeException tooLarge = RequestBodyTooLargeException.find(e);
+            if (tooLarge == null || response.isCommitted()) {
+                throw e;
+            }
+            response.setHeader(HttpHeaders.CONNECTION, "close");
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), tooLarge.getMessage());
+        }
+    }
+
+    private Limit limitOf(HttpServletRequest request) {
+        if (!endpointLimits.isEmpty()) {
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            Limit limit = endpointLimits.get(path);
+            if (limit != null) {
+                return limit;
+            }
+        }
+        String contentType = request.getContentType();
+        if (contentType != null && !contentTypeLimits.isEmpty()) {
+            int semicolon = contentType.indexOf(';');
+            String mediaType = (semicolon < 0 ? contentType : contentType.substring(0, semicolon))
+                    .trim().toLowerCase(Locale.ROOT);
+            Limit limit = contentTypeLimits.get(mediaType);
+            if (limit != null) {
+                return limit;
+            }
+        }
+        return defaultLimit;
+    }
+
+    private void reject(Limit limit, String reason) {
+        registry.counter("hello.request-body.rejected", "reason", reason, "rule", limit.rule).increment();
+    }
+
+    private static class Limit {
+
+        private final String rule;
+        private final long maxSize;
+
+        Limit(String rule, DataSize maxSize) {
+            this.rule = rule;
+            this.maxSize = maxSize.toBytes();
+        }
+    }
+
+    private class LimitedRequest extends HttpServletRequestWrapper {
+
+        private final Limit limit;
+        private LimitedInputStream inputStream;
+
+        LimitedRequest(HttpServletRequest request, Limit limit) {
+            super(request);
+            this.limit = limit;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new LimitedInputStream(super.getInputStream(), limit);
+            }
+            return inputStream;
+        }
+
+        long bytesRead() {
+            return inputStream == null ? 0 : inputStream.read;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String characterEncoding = getCharacterEncoding();
+            Charset charset = characterEncoding == null
+                    ? StandardCharsets.ISO_8859_1 : Charset.forName(characterEncoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+
+    /*
+        읽은 바이트를 세다가 maxSize 를 넘으면 던진다.
+        한 번에 (남은 허용량 + 1) 바이트까지만 읽어서 제한을 넘은 뒤로는 더 읽지 않는다.
+        isReady, setReadListener 는 원래 스트림에 그대로 넘기므로 논블로킹 읽기도 그대로 동작한다.
+     */
+    private class LimitedInputStream extends ServletInputStream {
+
+        private final ServletInputStream delegate;
+        private final Limit limit;
+        private long read;
+        private boolean exceeded;
+
+        LimitedInputStream(ServletInputStream delegate, Limit limit) {
+            this.delegate = delegate;
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkNotExceeded();
+            int b = delegate.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkNotExceeded();
+            int allowed = (int) Math.min(len, limit.maxSize - read + 1);
+            int n = delegate.read(b, off, allowed);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws IOException {
+            read += n;
+            if (read > limit.maxSize) {
+                exceeded = true;
+                reject(limit, "stream");
+                throw tooLarge();
+            }
+        }
+
+        private void checkNotExceeded() throws IOException {
+            if (exceeded) {
+                throw tooLarge();
+            }
+        }
+
+        private RequestBodyTooLargeException tooLarge() {
+            return new RequestBodyTooLargeException("Request body exceeds " + limit.maxSize + " bytes", limit.maxSize);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            delegate.setReadListener(readListener);
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
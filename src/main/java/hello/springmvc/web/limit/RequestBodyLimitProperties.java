@@ -0,0 +1,30 @@
+package hello.springmvc.web.limit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * hello.body-limit.*
+ *
+ * 요청 바디 최대 크기. 엔드포인트 > Content-Type > 기본값 순서로 먼저 찾은 값을 쓴다.
+ *  hello.body-limit.default-max-size=10MB
+ *  hello.body-limit.endpoints.[/request-body-json-v1]=64KB
+ *  hello.body-limit.content-types.[text/plain]=1MB
+ *    (*키에 / 가 들어가므로 [] 로 감싸야 한다)
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("hello.body-limit")
+public class RequestBodyLimitProperties {
+
+    private DataSize defaultMaxSize = DataSize.ofMegabytes(10);
+    private Map<String, DataSize> endpoints = new HashMap<>();
+    private Map<String, DataSize> contentTypes = new HashMap<>();
+}
@@ -0,0 +1,40 @@
+package hello.springmvc.web.limit;
+
+import java.io.IOException;
+
+/**
+ * 요청 바디가 허용 크기를 넘었다. (413 Payload Too Large)
+ *
+ * 바디를 읽는 쪽(StreamUtils, HttpMessageConverter, JsonCodecs)에서는 보통의 IOException 으로 보이고
+ * 컨버터가 HttpMessageNotReadableException 으로 감싸더라도 RequestBodyTooLargeExceptionResolver 가 원인을 찾아 413 으로 바꾼다.
+ */
+public class RequestBodyTooLargeException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long maxSize;
+
+    public RequestBodyTooLargeException(String message, long maxSize) {
+        super(message);
+        this.maxSize = maxSize;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /*
+        원인(cause) 을 따라가면서 RequestBodyTooLargeException 을 찾는다. 없으면 null
+     */
+    public static RequestBodyTooLargeException find(Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof RequestBodyTooLargeException) {
+                return (RequestBodyTooLargeException) t;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return null;
+    }
+}
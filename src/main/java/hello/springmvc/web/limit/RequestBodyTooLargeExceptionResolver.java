@@ -0,0 +1,43 @@
+package hello.springmvc.web.limit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * 핸들러가 바디를 읽다가 RequestBodyTooLargeException 이 나면 413 으로 응답한다.
+ *
+ * HttpMessageConverter 는 IOException 을 HttpMessageNotReadableException 으로 감싸기 때문에
+ * 그대로 두면 DefaultHandlerExceptionResolver 가 400 으로 응답한다.
+ * 그래서 기본 리졸버들보다 앞에 둔다. (WebConfig.extendHandlerExceptionResolvers)
+ * 남은 바디는 읽지 않으니 Connection: close 로 연결을 끊는다.
+ */
+@Slf4j
+public class RequestBodyTooLargeExceptionResolver implements HandlerExceptionResolver {
+
+    @Override
+    public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response,
+                                         Object handler, Exception ex) {
+        RequestBodyTooLargeException tooLarge = RequestBodyTooLargeException.find(ex);
+        if (tooLarge == null || response.isCommitted()) {
+            return null;
+        }
+        log.warn("request body too large {}, {}",
+                kv("uri", request.getRequestURI()), kv("maxSize", tooLarge.getMaxSize()));
+        try {
+            response.setHeader(HttpHeaders.CONNECTION, "close");
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), tooLarge.getMessage());
+        } catch (IOException e) {
+            log.debug("failed to send 413", e);
+        }
+        return new ModelAndView();
+    }
+}
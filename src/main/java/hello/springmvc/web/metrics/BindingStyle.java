@@ -0,0 +1,109 @@
+package hello.springmvc.web.metrics;
+
+import hello.springmvc.ch6.basic.request.RequestParams;
+import hello.springmvc.ch6.basic.requestmapping.RequestHeaders;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpEntity;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.method.HandlerMethod;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.time.ZoneId;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * 핸들러가 요청 데이터를 받는 방식 (지표의 binding 태그)
+ *
+ * 파라미터가 여러 개면 아래쪽(바디를 읽는 쪽)이 우선이다.
+ * 예) requestBodyJsonV1(HttpServletRequest, HttpServletResponse) = Servlet
+ *     requestParamV4(String username, int age)                  = RequestParam (단순 타입 생략)
+ *     modelAttributeV2(HelloData helloData)                     = ModelAttribute (객체 생략)
+ */
+public enum BindingStyle {
+
+    NONE("None"),
+    SERVLET("Servlet"),
+    REQUEST_PARAM("RequestParam"),
+    MODEL_ATTRIBUTE("ModelAttribute"),
+    HTTP_ENTITY("HttpEntity"),
+    REQUEST_BODY("RequestBody");
+
+    private final String tagValue;
+
+    BindingStyle(String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    public String getTagValue() {
+        return tagValue;
+    }
+
+    public static BindingStyle of(HandlerMethod handlerMethod) {
+        BindingStyle style = NONE;
+        for (MethodParameter parameter : handlerMethod.getMethodParameters()) {
+            BindingStyle candidate = of(parameter);
+            if (candidate.ordinal() > style.ordinal()) {
+                style = candidate;
+            }
+        }
+        return style;
+    }
+
+    private static BindingStyle of(MethodParameter parameter) {
+        Class<?> type = parameter.getParameterType();
+        if (parameter.hasParameterAnnotation(RequestBody.class)) {
+            return REQUEST_BODY;
+        }
+        if (HttpEntity.class.isAssignableFrom(type)) {
+            return HTTP_ENTITY;
+        }
+        if (parameter.hasParameterAnnotation(ModelAttribute.class)) {
+            return MODEL_ATTRIBUTE;
+        }
+        if (parameter.hasParameterAnnotation(RequestParam.class) || RequestParams.class == type) {
+            return REQUEST_PARAM;
+        }
+        if (ServletRequest.class.isAssignableFrom(type) || ServletResponse.class.isAssignableFrom(type)
+                || InputStream.class.isAssignableFrom(type) || Reader.class.isAssignableFrom(type)
+                || OutputStream.class.isAssignableFrom(type) || Writer.class.isAssignableFrom(type)) {
+            return SERVLET;
+        }
+        if (parameter.getParameterAnnotations().length > 0 || RequestHeaders.class == type) {
+            //@PathVariable, @RequestHeader, @CookieValue, RequestHeaders ...
+            return NONE;
+        }
+
+        /*
+            애노테이션 생략
+            단순 타입 = @RequestParam, 직접 만든 객체 = @ModelAttribute
+            Model, Locale, HttpMethod 같은 자바/스프링 타입은 바인딩이 아니다.
+         */
+        if (isFrameworkType(type)) {
+            return NONE;
+        }
+        return BeanUtils.isSimpleProperty(type) ? REQUEST_PARAM : MODEL_ATTRIBUTE;
+    }
+
+    /*
+        스프링 타입(HttpMethod 는 enum 이라 BeanUtils.isSimpleProperty 도 true), javax 타입
+        요청에서 꺼내 주는 Locale, TimeZone, ZoneId (ServletRequestMethodArgumentResolver)
+        단순 값(String, Integer ...)이 아닌 java 타입 (Principal ...)
+     */
+    private static boolean isFrameworkType(Class<?> type) {
+        String typeName = type.getName();
+        if (typeName.startsWith("org.springframework.") || typeName.startsWith("javax.")
+                || type == Locale.class || type == TimeZone.class || ZoneId.class.isAssignableFrom(type)) {
+            return true;
+        }
+        return typeName.startsWith("java.") && !BeanUtils.isSimpleProperty(type);
+    }
+}
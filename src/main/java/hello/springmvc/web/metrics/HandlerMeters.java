@@ -0,0 +1,83 @@
+package hello.springmvc.web.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 핸들러 메서드 하나의 지표 묶음
+ *
+ * 요청마다 Timer.builder(...).register(...) 로 찾으면 태그 배열을 만들고 레지스트리를 조회하므로
+ * 핸들러 메서드당 한 번만 만들어서 HandlerMetrics 에 보관한다.
+ *
+ * handler 태그는 "클래스.메서드", 같은 이름의 메서드가 여럿(오버로드)이면 파라미터 타입까지 붙인다.
+ *   ex) MappingController.mappingPath(String,Long)
+ */
+@Getter
+public class HandlerMeters {
+
+    public static final String LATENCY = "hello.handler.latency";
+    public static final String ALLOCATED = "hello.handler.allocated";
+    public static final String BODY = "hello.handler.body";
+
+    private final String handler;
+    private final BindingStyle binding;
+    private final Timer latency;
+    private final DistributionSummary allocatedBytes;
+    private final DistributionSummary bodyBytes;
+
+    HandlerMeters(MeterRegistry registry, HandlerMethod handlerMethod) {
+        this.handler = nameOf(handlerMethod);
+        this.binding = BindingStyle.of(handlerMethod);
+
+        Tags tags = Tags.of("handler", handler, "binding", binding.getTagValue());
+        this.latency = Timer.builder(LATENCY)
+                .description("핸들러 처리 시간 (인터셉터 preHandle ~ afterCompletion)")
+                .tags(tags)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.allocatedBytes = DistributionSummary.builder(ALLOCATED)
+                .description("요청 스레드가 핸들러 처리 중 할당한 바이트")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(registry);
+        this.bodyBytes = DistributionSummary.builder(BODY)
+                .description("요청 바디 크기 (Content-Length, chunked 면 읽은 바이트)")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(registry);
+    }
+
+    static String nameOf(HandlerMethod handlerMethod) {
+        Method method = handlerMethod.getMethod();
+        String name = handlerMethod.getBeanType().getSimpleName() + "." + method.getName();
+        long sameName = Arrays.stream(method.getDeclaringClass().getDeclaredMethods())
+                .filter(declared -> declared.getName().equals(method.getName()))
+                .count();
+        if (sameName == 1) {
+            return name;
+        }
+        return Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", name + "(", ")"));
+    }
+
+    void record(long elapsedNanos, long allocated, long contentLength) {
+        latency.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (allocated >= 0) {
+            allocatedBytes.record(allocated);
+        }
+        if (contentLength >= 0) {
+            bodyBytes.record(contentLength);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package hello.springmvc.web.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 핸들러 메서드별 지표(HandlerMeters) 보관소
+ *
+ * hello.handler-metrics.allocation : 요청 스레드 할당 바이트 측정 여부 (기본 true)
+ *   com.sun.management.ThreadMXBean.getThreadAllocatedBytes 는 TLAB 카운터를 읽는 것이라 싸지만
+ *   지원하지 않는 JVM 이면 자동으로 끈다.
+ */
+@Slf4j
+@Component
+public class HandlerMetrics {
+
+    private final MeterRegistry registry;
+    private final com.sun.management.ThreadMXBean threadMXBean;
+    private final ConcurrentMap<Method, HandlerMeters> meters = new ConcurrentHashMap<>();
+
+    public HandlerMetrics(MeterRegistry registry,
+                          @Value("${hello.handler-metrics.allocation:true}") boolean allocation) {
+        this.registry = registry;
+        this.threadMXBean = allocation ? allocationMXBean() : null;
+    }
+
+    public HandlerMeters meters(HandlerMethod handlerMethod) {
+        HandlerMeters handlerMeters = meters.get(handlerMethod.getMethod());
+        if (handlerMeters != null) {
+            return handlerMeters;
+        }
+        return meters.computeIfAbsent(handlerMethod.getMethod(), method -> new HandlerMeters(registry, handlerMethod));
+    }
+
+    public List<HandlerMeters> getAll() {
+        return new ArrayList<>(meters.values());
+    }
+
+    /*
+        현재 스레드가 지금까지 할당한 바이트, 측정하지 않으면 -1
+     */
+    public long currentThreadAllocatedBytes() {
+        if (threadMXBean == null) {
+            return -1;
+        }
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean allocationMXBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            log.warn("ThreadMXBean 할당량 측정을 지원하지 않는 JVM, hello.handler.allocated 를 기록하지 않는다.");
+            return null;
+        }
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+        if (!allocationBean.isThreadAllocatedMemorySupported()) {
+            log.warn("ThreadMXBean 할당량 측정을 지원하지 않는 JVM, hello.handler.allocated 를 기록하지 않는다.");
+            return null;
+        }
+        if (!allocationBean.isThreadAllocatedMemoryEnabled()) {
+            allocationBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        return allocationBean;
+    }
+}
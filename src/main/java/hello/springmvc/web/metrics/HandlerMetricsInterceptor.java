@@ -0,0 +1,100 @@
+package hello.springmvc.web.metrics;
+
+import hello.springmvc.web.limit.RequestBodyLimitFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.function.LongSupplier;
+
+/**
+ * 핸들러 메서드 실행 시간, 요청 스레드 할당 바이트, 요청 바디 크기를 HandlerMeters 에 기록한다.
+ *
+ * 비동기 핸들러(DeferredResult, Callable)
+ * - 처음 디스패치가 끝나면 afterCompletion 대신 afterConcurrentHandlingStarted 가 호출되고,
+ *   결과가 나오면 ASYNC 디스패치로 preHandle ~ afterCompletion 이 다시 호출된다.
+ * - 시간은 처음 preHandle 부터 마지막 afterCompletion 까지 재고,
+ *   할당량은 두 번의 디스패치에서 요청 스레드가 할당한 양을 더한다.
+ *   (*RequestBodyExecutor 스레드에서 할당한 양은 포함되지 않음)
+ * 바디 크기는 Content-Length, 없으면(chunked) RequestBodyLimitFilter 가 센 실제로 읽은 바이트 수
+ *   둘 다 없으면(제한 필터를 끈 chunked 요청) 기록하지 않는다.
+ */
+public class HandlerMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String SAMPLE_ATTRIBUTE = HandlerMetricsInterceptor.class.getName() + ".sample";
+
+    private final HandlerMetrics handlerMetrics;
+
+    public HandlerMetricsInterceptor(HandlerMetrics handlerMetrics) {
+        this.handlerMetrics = handlerMetrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        Sample sample = (Sample) request.getAttribute(SAMPLE_ATTRIBUTE);
+        if (sample == null) {
+            request.setAttribute(SAMPLE_ATTRIBUTE, new Sample(handlerMetrics.meters((HandlerMethod) handler),
+                    System.nanoTime(), handlerMetrics.currentThreadAllocatedBytes()));
+        } else {
+            sample.resume(handlerMetrics.currentThreadAllocatedBytes());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Sample sample = (Sample) request.getAttribute(SAMPLE_ATTRIBUTE);
+        if (sample != null) {
+            sample.pause(handlerMetrics.currentThreadAllocatedBytes());
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Sample sample = (Sample) request.getAttribute(SAMPLE_ATTRIBUTE);
+        if (sample == null) {
+            return;
+        }
+        request.removeAttribute(SAMPLE_ATTRIBUTE);
+        sample.pause(handlerMetrics.currentThreadAllocatedBytes());
+        sample.meters.record(System.nanoTime() - sample.startNanos, sample.allocated, bodyLength(request));
+    }
+
+    private static long bodyLength(HttpServletRequest request) {
+        long contentLength = request.getContentLengthLong();
+        if (contentLength >= 0) {
+            return contentLength;
+        }
+        Object bytesRead = request.getAttribute(RequestBodyLimitFilter.BYTES_READ_ATTRIBUTE);
+        return bytesRead instanceof LongSupplier ? ((LongSupplier) bytesRead).getAsLong() : -1;
+    }
+
+    private static class Sample {
+        private final HandlerMeters meters;
+        private final long startNanos;
+        private long allocationMark;
+        private long allocated;
+
+        Sample(HandlerMeters meters, long startNanos, long allocationMark) {
+            this.meters = meters;
+            this.startNanos = startNanos;
+            this.allocationMark = allocationMark;
+            this.allocated = allocationMark < 0 ? -1 : 0;
+        }
+
+        void pause(long allocatedBytes) {
+            if (allocated >= 0 && allocationMark >= 0) {
+                allocated += allocatedBytes - allocationMark;
+            }
+            allocationMark = -1;
+        }
+
+        void resume(long allocatedBytes) {
+            allocationMark = allocatedBytes;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package hello.springmvc.web.metrics;
+
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /actuator/handlerstats 응답 한 줄 (핸들러 메서드 하나)
+ * 시간은 ms, 크기는 bytes, max 는 최근 구간(기본 2분)의 최댓값
+ */
+@Getter
+public class HandlerStats {
+
+    private final String handler;
+    private final String binding;
+    private final long count;
+    private final double totalMs;
+    private final double meanMs;
+    private final double maxMs;
+    private final double p50Ms;
+    private final double p95Ms;
+    private final double p99Ms;
+    private final double meanAllocatedBytes;
+    private final double maxAllocatedBytes;
+    private final double meanBodyBytes;
+    private final double maxBodyBytes;
+
+    HandlerStats(HandlerMeters meters) {
+        HistogramSnapshot latency = meters.getLatency().takeSnapshot();
+        this.handler = meters.getHandler();
+        this.binding = meters.getBinding().getTagValue();
+        this.count = latency.count();
+        this.totalMs = latency.total(TimeUnit.MILLISECONDS);
+        this.meanMs = latency.mean(TimeUnit.MILLISECONDS);
+        this.maxMs = latency.max(TimeUnit.MILLISECONDS);
+        this.p50Ms = percentile(latency, 0.5);
+        this.p95Ms = percentile(latency, 0.95);
+        this.p99Ms = percentile(latency, 0.99);
+        this.meanAllocatedBytes = meters.getAllocatedBytes().mean();
+        this.maxAllocatedBytes = meters.getAllocatedBytes().max();
+        this.meanBodyBytes = meters.getBodyBytes().mean();
+        this.maxBodyBytes = meters.getBodyBytes().max();
+    }
+
+    private static double percentile(HistogramSnapshot snapshot, double percentile) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+}
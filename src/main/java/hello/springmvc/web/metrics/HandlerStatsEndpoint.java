@@ -0,0 +1,46 @@
+package hello.springmvc.web.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 핸들러 메서드별 지연시간/할당량 요약
+ *
+ * GET /actuator/handlerstats                                        전체, 누적 처리 시간이 큰 순서
+ * GET /actuator/handlerstats/RequestParamController.requestParamV1   핸들러 하나
+ * GET /actuator/handlerstats/MappingController.mappingPath(String,Long)   오버로드된 핸들러는 파라미터 타입까지
+ *
+ * 관리 포트(management.server.port)는 127.0.0.1 에만 열려 있어서 로컬에서만 조회할 수 있다.
+ * 전체 지표는 /actuator/metrics/hello.handler.latency?tag=handler:... 로도 볼 수 있다.
+ */
+@Component
+@Endpoint(id = "handlerstats")
+@RequiredArgsConstructor
+public class HandlerStatsEndpoint {
+
+    private final HandlerMetrics handlerMetrics;
+
+    @ReadOperation
+    public List<HandlerStats> handlers() {
+        return handlerMetrics.getAll().stream()
+                .map(HandlerStats::new)
+                .sorted(Comparator.comparingDouble(HandlerStats::getTotalMs).reversed())
+                .collect(Collectors.toList());
+    }
+
+    @ReadOperation
+    public HandlerStats handler(@Selector String handler) {
+        return handlerMetrics.getAll().stream()
+                .filter(meters -> meters.getHandler().equals(handler))
+                .findFirst()
+                .map(HandlerStats::new)
+                .orElse(null);
+    }
+}
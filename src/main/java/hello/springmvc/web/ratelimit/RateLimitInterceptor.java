@@ -0,0 +1,108 @@
+package hello.springmvc.web.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 규칙(RateLimitProperties.Rule) 하나에 인터셉터 하나. 경로는 addPathPatterns 로 건다. (WebConfig)
+ *
+ * 버킷이 비었으면 핸들러를 호출하지 않고 429 + Retry-After(초)
+ * 허용되는 요청에서는 키를 꺼내고(톰캣/핸들러 매핑이 이미 만든 String) 버킷에 CAS 하는 것뿐이라 할당이 없다.
+ * 비동기 디스패치(ASYNC)는 같은 요청이므로 다시 세지 않는다.
+ * 원격 주소 버킷(remoteAddressLimiter)을 켠 HEADER 규칙은 헤더 값 버킷과 원격 주소 버킷을 모두 통과해야 한다.
+ *   (X-Client-Id 를 바꿔 가며 보내도 주소 하나가 받는 양은 그 버킷만큼)
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiter rateLimiter;
+    private final RateLimiter remoteAddressLimiter;
+    private final RateLimitProperties.KeySource keySource;
+    private final String keyName;
+    private final Counter rejected;
+    private final List<String> paths;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter, RateLimiter remoteAddressLimiter,
+                                RateLimitProperties.Rule rule, Counter rejected) {
+        if (rule.getPaths().isEmpty()) {
+            throw new IllegalArgumentException("rate limit rule has no paths : " + rule.getName());
+        }
+        if (rule.getKey() != RateLimitProperties.KeySource.REMOTE_ADDRESS && rule.getKeyName() == null) {
+            throw new IllegalArgumentException("rate limit rule needs key-name : " + rule.getName());
+        }
+        this.rateLimiter = rateLimiter;
+        this.remoteAddressLimiter = remoteAddressLimiter;
+        this.keySource = rule.getKey();
+        this.keyName = rule.getKeyName();
+        this.rejected = rejected;
+        this.paths = rule.getPaths();
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        long wait = acquire(request);
+        if (wait == 0) {
+            return true;
+        }
+
+        rejected.increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return false;
+    }
+
+    /*
+        두 버킷을 먼저 확인(check)하고 둘 다 남아 있을 때만 토큰을 쓴다.
+        확인과 사용 사이에 다른 요청이 주소 버킷을 비웠으면 헤더 버킷에서 쓴 토큰을 되돌린다.
+     */
+    private long acquire(HttpServletRequest request) {
+        String key = key(request);
+        if (remoteAddressLimiter == null) {
+            return rateLimiter.tryAcquire(key);
+        }
+        String remoteAddress = request.getRemoteAddr();
+        long wait = Math.max(rateLimiter.check(key), remoteAddressLimiter.check(remoteAddress));
+        if (wait > 0) {
+            return wait;
+        }
+        wait = rateLimiter.tryAcquire(key);
+        if (wait > 0) {
+            return wait;
+        }
+        wait = remoteAddressLimiter.tryAcquire(remoteAddress);
+        if (wait > 0) {
+            rateLimiter.release(key);
+        }
+        return wait;
+    }
+
+    private String key(HttpServletRequest request) {
+        String key = null;
+        if (keySource == RateLimitProperties.KeySource.HEADER) {
+            key = request.getHeader(keyName);
+        } else if (keySource == RateLimitProperties.KeySource.PATH_VARIABLE) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> variables =
+                    (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            key = variables == null ? null : variables.get(keyName);
+        }
+        return key == null ? request.getRemoteAddr() : key;
+    }
+}
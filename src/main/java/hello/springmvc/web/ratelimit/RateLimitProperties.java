@@ -0,0 +1,67 @@
+package hello.springmvc.web.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * hello.rate-limit.*
+ *
+ * 규칙 예)
+ *  hello.rate-limit.rules[0].name=users
+ *  hello.rate-limit.rules[0].paths=/mapping/users/*
+ *  hello.rate-limit.rules[0].key=path-variable
+ *  hello.rate-limit.rules[0].key-name=userId
+ *  hello.rate-limit.rules[0].permits-per-second=100
+ *  hello.rate-limit.rules[0].burst=200
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("hello.rate-limit")
+public class RateLimitProperties {
+
+    private List<Rule> rules = new ArrayList<>();
+
+    /*
+        이 시간 동안 요청이 없던 키는 버킷이 다 찬 상태라 지워도 결과가 같다. 그 주기로 지운다.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(1);
+
+    /*
+        규칙별 키 수 상한. 넘으면 새 키들은 해시로 나눈 버킷 몇 개를 같이 쓴다. (키를 바꿔 가며 보내는 클라이언트 대비)
+     */
+    private int maxKeys = 100_000;
+
+    public enum KeySource {
+        HEADER, PATH_VARIABLE, REMOTE_ADDRESS
+    }
+
+    @Getter
+    @Setter
+    public static class Rule {
+        private String name;
+        private List<String> paths = new ArrayList<>();
+        private KeySource key = KeySource.REMOTE_ADDRESS;
+        /*
+            HEADER 면 헤더 이름, PATH_VARIABLE 이면 경로 변수 이름
+            값이 없는 요청은 원격 주소로 센다.
+         */
+        private String keyName;
+        private double permitsPerSecond = 100;
+        private int burst = 100;
+        /*
+            HEADER 규칙은 클라이언트가 헤더 값을 바꿔 가며 새 버킷을 받을 수 있다. 값을 주면 원격 주소 버킷도 같이 확인한다.
+            0 이면 원격 주소 버킷을 쓰지 않는다. (로드 밸런서 뒤에서는 모든 클라이언트가 주소 하나를 나눠 쓰므로 기본은 끔)
+            켤 때는 그 주소 뒤의 클라이언트 수만큼 permits-per-second 보다 크게 잡는다.
+            remote-address-burst 가 0 이면 remote-address-permits-per-second (1초 분량)
+         */
+        private double remoteAddressPermitsPerSecond;
+        private int remoteAddressBurst;
+    }
+}
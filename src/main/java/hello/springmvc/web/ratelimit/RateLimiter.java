@@ -0,0 +1,128 @@
+package hello.springmvc.web.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 키별 토큰 버킷 (GCRA, Generic Cell Rate Algorithm)
+ *
+ * 버킷 하나가 AtomicLong 하나(TAT, 다음 요청이 도착할 것으로 예상되는 시각, 나노초)다.
+ * - 요청이 오면 TAT 를 max(TAT, now) + interval 로 CAS 한다. 락이 없다.
+ * - max(TAT, now) - now 가 tolerance(= interval * (burst - 1)) 를 넘으면 버킷이 빈 것이다.
+ * 토큰 수와 마지막 충전 시각을 따로 들고 있을 필요가 없어서 객체가 작고, 허용/거절 판정에 할당이 없다.
+ * (*처음 보는 키만 AtomicLong 하나를 만든다)
+ *
+ * 키가 maxKeys 개 넘게 쌓이면 새 키는 해시로 고른 OVERFLOW_STRIPES 개 버킷 중 하나를 같이 쓴다.
+ * 키를 바꿔 가며 키 공간을 채운 클라이언트가 있어도 새 클라이언트 전부가 버킷 하나에 몰려 굶지 않는다.
+ */
+public class RateLimiter {
+
+    static final int OVERFLOW_STRIPES = 256;
+
+    private final String name;
+    private final long interval;
+    private final long tolerance;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong[] overflow = new AtomicLong[OVERFLOW_STRIPES];
+
+    public RateLimiter(String name, double permitsPerSecond, int burst, int maxKeys) {
+        this(name, permitsPerSecond, burst, maxKeys, System::nanoTime);
+    }
+
+    RateLimiter(String name, double permitsPerSecond, int burst, int maxKeys, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be positive : " + name);
+        }
+        this.name = name;
+        this.interval = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.tolerance = interval * (burst - 1);
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+        long now = nanoClock.getAsLong();
+        for (int i = 0; i < OVERFLOW_STRIPES; i++) {
+            overflow[i] = new AtomicLong(now);
+        }
+    }
+
+    /*
+        허용이면 0, 거절이면 다시 시도할 수 있을 때까지 남은 나노초
+     */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = bucket(key, now);
+        while (true) {
+            long tat = bucket.get();
+            long start = Math.max(tat, now);
+            long wait = start - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(tat, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /*
+        tryAcquire 와 같은 판정이지만 토큰을 쓰지 않는다. 처음 보는 키는 버킷을 만들지 않고 0
+     */
+    public long check(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() < maxKeys) {
+                return 0;
+            }
+            bucket = overflow[stripe(key)];
+        }
+        return Math.max(0, Math.max(bucket.get(), now) - now - tolerance);
+    }
+
+    /*
+        tryAcquire 로 쓴 토큰 하나를 되돌린다. (다른 버킷에서 거절돼 요청을 받지 않은 경우)
+     */
+    public void release(String key) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = overflow[stripe(key)];
+        }
+        bucket.addAndGet(-interval);
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            return overflow[stripe(key)];
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    static int stripe(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (OVERFLOW_STRIPES - 1);
+    }
+
+    /*
+        TAT + idle 이 지난 버킷은 다 찬 상태라 새로 만든 버킷과 같다. 지워도 판정이 바뀌지 않는다.
+        지우는 순간 같은 키로 들어온 요청 하나는 지워진 버킷에 기록될 수 있다. (토큰 하나 덜 쓰는 정도)
+     */
+    public void evictIdle(long idleNanos) {
+        long now = nanoClock.getAsLong();
+        buckets.values().removeIf(bucket -> now - bucket.get() > idleNanos);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,75 @@
+package hello.springmvc.web.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 규칙별 RateLimiter, RateLimitInterceptor 를 만들고 오래 쓰지 않은 키를 주기적으로 지운다.
+ *
+ * 지표
+ * hello.rate-limit.rejected{rule} : 429 로 거절한 요청 수
+ * hello.rate-limit.keys{rule}     : 들고 있는 키(버킷) 수
+ *   HEADER 규칙의 원격 주소 버킷(remote-address-permits-per-second 를 준 규칙만)은 rule={name}.remote-address 로 따로 센다.
+ */
+@Component
+public class RateLimiters {
+
+    private final List<RateLimiter> rateLimiters = new ArrayList<>();
+    private final List<RateLimitInterceptor> interceptors = new ArrayList<>();
+    private final ScheduledExecutorService evictor;
+
+    public RateLimiters(RateLimitProperties properties, MeterRegistry registry) {
+        for (RateLimitProperties.Rule rule : properties.getRules()) {
+            RateLimiter rateLimiter = rateLimiter(rule.getName(), rule.getPermitsPerSecond(), rule.getBurst(),
+                    properties.getMaxKeys(), registry);
+            RateLimiter remoteAddressLimiter = null;
+            if (rule.getKey() == RateLimitProperties.KeySource.HEADER && rule.getRemoteAddressPermitsPerSecond() > 0) {
+                remoteAddressLimiter = rateLimiter(rule.getName() + ".remote-address",
+                        rule.getRemoteAddressPermitsPerSecond(),
+                        rule.getRemoteAddressBurst() > 0 ? rule.getRemoteAddressBurst()
+                                : (int) Math.ceil(rule.getRemoteAddressPermitsPerSecond()),
+                        properties.getMaxKeys(), registry);
+            }
+            Counter rejected = Counter.builder("hello.rate-limit.rejected").tag("rule", rule.getName())
+                    .register(registry);
+            interceptors.add(new RateLimitInterceptor(rateLimiter, remoteAddressLimiter, rule, rejected));
+        }
+
+        long idleNanos = properties.getIdleTimeout().toNanos();
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!rateLimiters.isEmpty()) {
+            evictor.scheduleWithFixedDelay(() -> rateLimiters.forEach(limiter -> limiter.evictIdle(idleNanos)),
+                    idleNanos, idleNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private RateLimiter rateLimiter(String name, double permitsPerSecond, int burst, int maxKeys,
+                                    MeterRegistry registry) {
+        RateLimiter rateLimiter = new RateLimiter(name, permitsPerSecond, burst, maxKeys);
+        Gauge.builder("hello.rate-limit.keys", rateLimiter, RateLimiter::size).tag("rule", name).register(registry);
+        rateLimiters.add(rateLimiter);
+        return rateLimiter;
+    }
+
+    public List<RateLimitInterceptor> getInterceptors() {
+        return interceptors;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        evictor.shutdown();
+    }
+}
@@ -0,0 +1,158 @@
+package hello.springmvc.web.resource;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+
+/**
+ * 메모리에 올려 둔 정적 리소스 하나
+ *
+ * 원본, gzip, brotli 를 미리 만들어 두고 Accept-Encoding 에 맞는 것을 그대로 쓴다. (요청마다 압축하지 않음)
+ * 압축본이 원본보다 크면 만들지 않는다. (작은 파일)
+ * ETag 는 내용 해시에 인코딩을 붙인 강한 ETag ("{md5}", "{md5}-gz", "{md5}-br")
+ */
+public final class StaticAsset {
+
+    private final String path;
+    private final String versionedPath;
+    private final String contentType;
+    private final Representation identity;
+    private final Representation gzip;
+    private final Representation brotli;
+
+    StaticAsset(String path, String hash, MediaType contentType, byte[] identity, byte[] gzip, byte[] brotli) {
+        this.path = path;
+        this.versionedPath = versionedPath(path, hash);
+        this.contentType = contentType.toString();
+        this.identity = new Representation(null, identity, "\"" + hash + "\"");
+        this.gzip = smaller(gzip, identity) ? new Representation("gzip", gzip, "\"" + hash + "-gz\"") : null;
+        this.brotli = smaller(brotli, identity) ? new Representation("br", brotli, "\"" + hash + "-br\"") : null;
+    }
+
+    /*
+        /basic/hello-form.html => /basic/hello-form-{md5}.html (스프링 VersionResourceResolver 의 내용 버전과 같은 모양)
+     */
+    static String versionedPath(String path, String hash) {
+        String extension = StringUtils.getFilenameExtension(path);
+        if (extension == null) {
+            return path + "-" + hash;
+        }
+        String base = path.substring(0, path.length() - extension.length() - 1);
+        return base + "-" + hash + "." + extension;
+    }
+
+    private static boolean smaller(byte[] encoded, byte[] identity) {
+        return encoded != null && encoded.length < identity.length;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getVersionedPath() {
+        return versionedPath;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public int getSize() {
+        return identity.body.length;
+    }
+
+    /*
+        q 값이 높은 것, 같으면 br > gzip > 원본 순서. 헤더가 없으면 원본
+     */
+    Representation select(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty() || (gzip == null && brotli == null)) {
+            return identity;
+        }
+        double brotliQuality = brotli == null ? 0 : quality(acceptEncoding, "br");
+        double gzipQuality = gzip == null ? 0 : quality(acceptEncoding, "gzip");
+        if (brotliQuality > 0 && brotliQuality >= gzipQuality) {
+            return brotli;
+        }
+        return gzipQuality > 0 ? gzip : identity;
+    }
+
+    /*
+        Accept-Encoding 에서 coding 의 q 값 (없으면 * 의 q 값, 그것도 없으면 0)
+     */
+    static double quality(String acceptEncoding, String coding) {
+        double wildcard = 0;
+        int start = 0;
+        while (start < acceptEncoding.length()) {
+            int end = acceptEncoding.indexOf(',', start);
+            if (end < 0) {
+                end = acceptEncoding.length();
+            }
+            String element = acceptEncoding.substring(start, end);
+            start = end + 1;
+
+            int semicolon = element.indexOf(';');
+            String name = (semicolon < 0 ? element : element.substring(0, semicolon)).trim();
+            double quality = semicolon < 0 ? 1 : parseQuality(element.substring(semicolon + 1));
+            if (name.equalsIgnoreCase(coding)) {
+                return quality;
+            }
+            if (name.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        return wildcard;
+    }
+
+    private static double parseQuality(String parameters) {
+        String parameter = parameters.trim();
+        if (!parameter.startsWith("q=")) {
+            return 1;
+        }
+        try {
+            return Double.parseDouble(parameter.substring(2).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 인코딩 하나의 바디와 ETag
+     */
+    static final class Representation {
+
+        final String encoding;
+        final byte[] body;
+        final String etag;
+
+        Representation(String encoding, byte[] body, String etag) {
+            this.encoding = encoding;
+            this.body = body;
+            this.etag = etag;
+        }
+
+        /*
+            metrics 태그 값
+         */
+        String encodingName() {
+            return encoding == null ? "identity" : encoding;
+        }
+
+        /*
+            If-None-Match 는 약한 비교 (W/ 를 떼고 비교, * 는 항상 일치)
+         */
+        boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : StringUtils.commaDelimitedListToStringArray(ifNoneMatch)) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
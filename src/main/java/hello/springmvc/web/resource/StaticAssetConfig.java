@@ -0,0 +1,40 @@
+package hello.springmvc.web.resource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 정적 리소스 서빙 (hello.static-assets.enabled, 기본 true)
+ *
+ * 리소스 경로마다 StaticAssetHandler 를 정확한 URL 로 등록한다.
+ * 순서 1 : 컨트롤러(RequestMappingHandlerMapping, 0) 다음, 웰컴 페이지(2)와 부트 기본 리소스 핸들러(/**)보다 먼저
+ *   / 는 웰컴 페이지가 index.html 로 forward 하고, 그 요청을 여기서 받는다.
+ * 등록되지 않은 경로(새로 추가했는데 재시작 안 한 파일 등)는 부트 기본 리소스 핸들러로 넘어간다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "hello.static-assets.enabled", matchIfMissing = true)
+public class StaticAssetConfig {
+
+    @Bean
+    public StaticAssets staticAssets(StaticAssetProperties properties, MeterRegistry registry) {
+        return new StaticAssets(properties, registry);
+    }
+
+    @Bean
+    public SimpleUrlHandlerMapping staticAssetHandlerMapping(StaticAssets staticAssets,
+                                                             StaticAssetProperties properties) {
+        String immutable = "public, max-age=" + properties.getVersionedMaxAge().getSeconds() + ", immutable";
+        Map<String, Object> urlMap = new LinkedHashMap<>();
+        for (StaticAsset asset : staticAssets.getAssets()) {
+            urlMap.put(asset.getPath(), new StaticAssetHandler(asset, properties.getCacheControl(), staticAssets));
+            urlMap.put(asset.getVersionedPath(), new StaticAssetHandler(asset, immutable, staticAssets));
+        }
+        return new SimpleUrlHandlerMapping(urlMap, 1);
+    }
+}
@@ -0,0 +1,61 @@
+package hello.springmvc.web.resource;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.HttpRequestHandler;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 정적 리소스 경로 하나를 서빙한다. (원래 경로, 해시가 붙은 경로마다 하나씩)
+ *
+ * 리소스 조회, 파일 읽기, 압축 없이 미리 만들어 둔 바이트를 쓴다.
+ * - Accept-Encoding 으로 원본 / gzip / br 중 하나를 고른다. (Vary: Accept-Encoding)
+ * - If-None-Match 가 고른 것의 ETag 와 같으면 바디 없이 304
+ * - GET, HEAD 외에는 405
+ */
+public class StaticAssetHandler implements HttpRequestHandler {
+
+    private final StaticAsset asset;
+    private final String cacheControl;
+    private final StaticAssets assets;
+
+    public StaticAssetHandler(StaticAsset asset, String cacheControl, StaticAssets assets) {
+        this.asset = asset;
+        this.cacheControl = cacheControl;
+        this.assets = assets;
+    }
+
+    @Override
+    public void handleRequest(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String method = request.getMethod();
+        boolean head = "HEAD".equals(method);
+        if (!head && !"GET".equals(method)) {
+            response.setHeader(HttpHeaders.ALLOW, "GET, HEAD");
+            response.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+
+        StaticAsset.Representation representation = asset.select(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.ETAG, representation.etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+
+        if (representation.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            assets.recordNotModified(representation);
+            return;
+        }
+
+        response.setContentType(asset.getContentType());
+        if (representation.encoding != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, representation.encoding);
+        }
+        response.setContentLength(representation.body.length);
+        if (!head) {
+            response.getOutputStream().write(representation.body);
+        }
+        assets.recordSent(representation);
+    }
+}
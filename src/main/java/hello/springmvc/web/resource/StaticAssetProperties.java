@@ -0,0 +1,37 @@
+package hello.springmvc.web.resource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * hello.static-assets.*
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("hello.static-assets")
+public class StaticAssetProperties {
+
+    /*
+        false 면 스프링 부트 기본 리소스 핸들러(ResourceHttpRequestHandler)가 그대로 서빙한다.
+     */
+    private boolean enabled = true;
+
+    private String location = "classpath:/static/";
+
+    /*
+        빌드 단계(precompressStaticAssets)가 만든 경로별 내용 해시. 없으면 시작할 때 직접 계산한다.
+     */
+    private String manifest = "classpath:/META-INF/static-assets.properties";
+
+    /*
+        원래 경로(/index.html)는 바뀔 수 있으니 매번 ETag 로 확인하게 한다. (바뀌지 않았으면 304)
+        해시가 붙은 경로(/index-{md5}.html)는 내용이 바뀌면 경로도 바뀌므로 오래 캐시해도 된다.
+     */
+    private String cacheControl = "no-cache";
+    private Duration versionedMaxAge = Duration.ofDays(365);
+}
@@ -0,0 +1,166 @@
+package hello.springmvc.web.resource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * hello.static-assets.location 아래 정적 리소스를 시작할 때 전부 메모리에 올린다.
+ *
+ * - 빌드 단계(precompressStaticAssets)가 만든 .gz, .br 가 옆에 있으면 그것을 쓴다.
+ *   .gz 가 없으면 (IDE 에서 바로 실행 등) 여기서 gzip 으로 압축한다. brotli 는 빌드에서 만든 것만 쓴다.
+ * - 내용 해시(md5)는 빌드 단계가 만든 manifest 에 있으면 그대로, 없으면 여기서 계산한다.
+ *
+ * 지표
+ * hello.static-assets.requests{encoding, status=200|304} : 응답 수
+ * hello.static-assets.bytes{encoding}                    : 보낸 바디 바이트 수
+ */
+@Slf4j
+public class StaticAssets {
+
+    private static final String[] ENCODINGS = {"identity", "gzip", "br"};
+
+    private final List<StaticAsset> assets;
+    private final Map<String, Counter> sent = new HashMap<>();
+    private final Map<String, Counter> notModified = new HashMap<>();
+    private final Map<String, Counter> bytes = new HashMap<>();
+
+    public StaticAssets(StaticAssetProperties properties, MeterRegistry registry) {
+        this.assets = Collections.unmodifiableList(load(properties.getLocation(), properties.getManifest()));
+        for (String encoding : ENCODINGS) {
+            sent.put(encoding, Counter.builder("hello.static-assets.requests")
+                    .tag("encoding", encoding).tag("status", "200").register(registry));
+            notModified.put(encoding, Counter.builder("hello.static-assets.requests")
+                    .tag("encoding", encoding).tag("status", "304").register(registry));
+            bytes.put(encoding, Counter.builder("hello.static-assets.bytes")
+                    .baseUnit("bytes").tag("encoding", encoding).register(registry));
+        }
+    }
+
+    public List<StaticAsset> getAssets() {
+        return assets;
+    }
+
+    /*
+        원래 경로 => 해시가 붙은 경로 (템플릿 등에서 링크를 만들 때), 없는 경로면 그대로
+     */
+    public String versionedUrl(String path) {
+        for (StaticAsset asset : assets) {
+            if (asset.getPath().equals(path)) {
+                return asset.getVersionedPath();
+            }
+        }
+        return path;
+    }
+
+    void recordSent(StaticAsset.Representation representation) {
+        sent.get(representation.encodingName()).increment();
+        bytes.get(representation.encodingName()).increment(representation.body.length);
+    }
+
+    void recordNotModified(StaticAsset.Representation representation) {
+        notModified.get(representation.encodingName()).increment();
+    }
+
+    private static List<StaticAsset> load(String location, String manifestLocation) {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        try {
+            Properties manifest = new Properties();
+            Resource manifestResource = resolver.getResource(manifestLocation);
+            if (manifestResource.exists()) {
+                manifest = PropertiesLoaderUtils.loadProperties(manifestResource);
+            }
+
+            String root = resolver.getResource(location).getURL().toString();
+            List<StaticAsset> assets = new ArrayList<>();
+            long identityBytes = 0;
+            int precompressed = 0;
+            for (Resource resource : resolver.getResources(location + "**")) {
+                String url = resource.getURL().toString();
+                String filename = resource.getFilename();
+                if (!resource.isReadable() || url.endsWith("/") || !url.startsWith(root) || filename == null
+                        || filename.endsWith(".gz") || filename.endsWith(".br")) {
+                    continue;
+                }
+
+                String path = "/" + url.substring(root.length());
+                byte[] body = read(resource);
+                byte[] gzip = readSibling(resource, filename + ".gz");
+                byte[] brotli = readSibling(resource, filename + ".br");
+                if (gzip != null) {
+                    precompressed++;
+                } else {
+                    gzip = gzip(body);
+                }
+                String hash = manifest.getProperty(path);
+                if (hash == null) {
+                    hash = DigestUtils.md5DigestAsHex(body);
+                }
+                assets.add(new StaticAsset(path, hash, contentType(filename), body, gzip, brotli));
+                identityBytes += body.length;
+            }
+            log.info("static assets loaded {}, {}, {}, {}", kv("location", location), kv("assets", assets.size()),
+                    kv("precompressed", precompressed), kv("bytes", identityBytes));
+            return assets;
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to load static assets from " + location, e);
+        }
+    }
+
+    private static byte[] read(Resource resource) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            return StreamUtils.copyToByteArray(in);
+        }
+    }
+
+    private static byte[] readSibling(Resource resource, String filename) throws IOException {
+        Resource sibling = resource.createRelative(filename);
+        return sibling.exists() ? read(sibling) : null;
+    }
+
+    /*
+        text/* 는 charset 을 붙인다. (리소스는 UTF-8 로 저장한다고 가정)
+     */
+    private static MediaType contentType(String filename) {
+        MediaType mediaType = MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        if ("text".equals(mediaType.getType()) && mediaType.getCharset() == null) {
+            return new MediaType(mediaType, StandardCharsets.UTF_8);
+        }
+        return mediaType;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,40 @@
+package hello.springmvc.ch6.basic.request;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LazyRequestParamMapResolverTest {
+
+    LazyRequestParamMapResolver resolver = new LazyRequestParamMapResolver();
+
+    @Test
+    void onlyMarkedParametersGetTheReadOnlyView() throws Exception {
+        assertThat(resolver.supportsParameter(parameter("lazy", Map.class))).isTrue();
+        assertThat(resolver.supportsParameter(parameter("lazyMulti", MultiValueMap.class))).isTrue();
+        //표시가 없으면 기본 resolver 의 수정 가능한 복사본
+        assertThat(resolver.supportsParameter(parameter("copy", Map.class))).isFalse();
+    }
+
+    private static MethodParameter parameter(String method, Class<?> type) throws NoSuchMethodException {
+        return new MethodParameter(Handlers.class.getDeclaredMethod(method, type), 0);
+    }
+
+    @SuppressWarnings("unused")
+    static class Handlers {
+
+        void lazy(@RequestParam @LazyParams Map<String, String> params) {
+        }
+
+        void lazyMulti(@RequestParam @LazyParams MultiValueMap<String, String> params) {
+        }
+
+        void copy(@RequestParam Map<String, String> params) {
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package hello.springmvc.ch6.basic.request;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RawBodyReaderTest {
+
+    @TempDir
+    Path spoolDirectory;
+
+    RawBodySpool spool;
+
+    @AfterEach
+    void shutdown() {
+        if (spool != null) {
+            spool.shutdown();
+        }
+    }
+
+    @Test
+    void spoolFileOutlivesReadUntilRetention() throws Exception {
+        spool = new RawBodySpool(spoolDirectory.toString(), Duration.ofHours(1));
+        RawBodyReader reader = new RawBodyReader(16, 2, 8, spool);
+
+        RawBodySummary summary = reader.read(body("hello raw body, longer than one chunk"));
+
+        assertThat(summary.getPrefix()).isEqualTo("hello ra");
+        assertThat(summary.getSpooledTo().getFileName().toString())
+                .isEqualTo("raw-body-" + summary.getSha256() + ".bin");
+        assertThat(Files.size(summary.getSpooledTo())).isEqualTo(37);
+
+        spool.cleanUp();
+        assertThat(spoolFiles()).isOne();
+
+        Files.setLastModifiedTime(summary.getSpooledTo(), FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        spool.cleanUp();
+        assertThat(spoolFiles()).isZero();
+    }
+
+    @Test
+    void partialSpoolFileIsDeletedWhenReadFails() throws Exception {
+        spool = new RawBodySpool(spoolDirectory.toString(), Duration.ofHours(1));
+        RawBodyReader reader = new RawBodyReader(16, 2, 8, spool);
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("client went away");
+            }
+        };
+
+        assertThatThrownBy(() -> reader.read(failing)).hasMessage("client went away");
+        assertThat(spoolFiles()).isZero();
+    }
+
+    @Test
+    void prefixIsTrimmedToCharacterBoundary() throws Exception {
+        RawBodyReader reader = new RawBodyReader(16, 2, 8, new RawBodySpool("", Duration.ofHours(1)));
+
+        //"안녕하세요" 는 한 글자에 3바이트, 8바이트에서 자르면 세 번째 글자가 걸친다.
+        RawBodySummary summary = reader.read(body("안녕하세요"));
+
+        assertThat(summary.getPrefix()).isEqualTo("안녕");
+        assertThat(summary.getSpooledTo()).isNull();
+    }
+
+    private long spoolFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spoolDirectory)) {
+            return files.count();
+        }
+    }
+
+    private static ByteArrayInputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,83 @@
+package hello.springmvc.ch6.basic.request;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "hello.batch.size=2")
+@AutoConfigureMockMvc
+class RequestBodyJsonBatchControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void ndjsonSkipsBadRecord() throws Exception {
+        String body = "{\"username\":\"hello\", \"age\":20}\n"
+                + "{\"username\":\"bad\", \"age\":\"abc\"}\n"
+                + "{\"username\":\"spring\", \"age\":30}\n"
+                + "{\"username\":\"boot\", \"age\":40}\n";
+
+        mockMvc.perform(post("/request-body-json-batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(4))
+                .andExpect(jsonPath("$.accepted").value(3))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.batches").value(2))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2));
+    }
+
+    @Test
+    void jsonArray() throws Exception {
+        String body = "[{\"username\":\"hello\", \"age\":20}, {\"username\":\"spring\", \"age\":30}]";
+
+        mockMvc.perform(post("/request-body-json-batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.failed").value(0))
+                .andExpect(jsonPath("$.aborted").value(false));
+    }
+
+    @Test
+    void syntaxErrorAborts() throws Exception {
+        String body = "{\"username\":\"hello\", \"age\":20}\n"
+                + "{\"username\":\"broken\n";
+
+        mockMvc.perform(post("/request-body-json-batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.aborted").value(true));
+    }
+
+    @Test
+    void syntaxErrorInsideValueAborts() throws Exception {
+        //잘못된 이스케이프(\q)는 값을 읽을 때 발견돼서 JsonMappingException 으로 감싸진 JsonParseException 이 된다.
+        String body = "{\"username\":\"hello\", \"age\":20}\n"
+                + "{\"username\":\"bro\\qken\", \"age\":30}\n"
+                + "{\"username\":\"spring\", \"age\":40}\n";
+
+        mockMvc.perform(post("/request-body-json-batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.aborted").value(true))
+                .andExpect(jsonPath("$.errors[0].line").value(2));
+    }
+}
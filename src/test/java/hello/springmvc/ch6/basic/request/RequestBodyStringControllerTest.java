@@ -0,0 +1,44 @@
+package hello.springmvc.ch6.basic.request;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "hello.request-body.execution.endpoints.request-body-string-v2=callable")
+@AutoConfigureMockMvc
+class RequestBodyStringControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void syncModeReadsOnRequestThread() throws Exception {
+        MvcResult result = mockMvc.perform(post("/request-body-string-v1").content("hello"))
+                .andExpect(request().asyncResult("ok"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("ok"));
+    }
+
+    @Test
+    void callableModeReadsOnExecutorThread() throws Exception {
+        MvcResult result = mockMvc.perform(post("/request-body-string-v2").content("hello"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("ok"));
+    }
+}
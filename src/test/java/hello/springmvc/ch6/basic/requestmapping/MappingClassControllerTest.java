@@ -0,0 +1,164 @@
+package hello.springmvc.ch6.basic.requestmapping;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MappingClassControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void cachedResponseWithEtag() throws Exception {
+        mockMvc.perform(post("/mapping/users/userA"))
+                .andExpect(status().isOk());
+
+        String etag = mockMvc.perform(get("/mapping/users/userA"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("get path userId =userA"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"");
+
+        mockMvc.perform(get("/mapping/users/userA"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string("get path userId =userA"));
+
+        mockMvc.perform(get("/mapping/users/userA").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void deleteEvictsCachedResponse() throws Exception {
+        mockMvc.perform(post("/mapping/users/userB"))
+                .andExpect(status().isOk());
+        String etag = mockMvc.perform(get("/mapping/users/userB"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/mapping/users/userB").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(delete("/mapping/users/userB"))
+                .andExpect(status().isOk());
+
+        //캐시가 지워져서 miss 로 핸들러가 다시 실행된다.
+        double misses = misses();
+        mockMvc.perform(get("/mapping/users/userB"))
+                .andExpect(status().isNotFound());
+        assertThat(misses()).isEqualTo(misses + 1);
+
+        //다시 추가하면 바디가 같으니 ETag 도 같다.
+        mockMvc.perform(post("/mapping/users/userB"));
+        mockMvc.perform(get("/mapping/users/userB"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    void ordersAreStored() throws Exception {
+        mockMvc.perform(get("/mapping/users/userF/orders/1"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/mapping/users/userF/orders/1"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/mapping/users/userF"));
+        mockMvc.perform(post("/mapping/users/userF/orders/1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/mapping/users/userF/orders/1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("ok"));
+
+        //주문 삭제가 캐시된 응답을 지운다.
+        mockMvc.perform(delete("/mapping/users/userF/orders/1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/mapping/users/userF/orders/1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void bulkRetryIsReplayed() throws Exception {
+        String operations = "{\"operations\":[{\"op\":\"add\",\"userId\":\"userC\"},"
+                + "{\"op\":\"add\",\"userId\":\"userD\"}]}";
+
+        mockMvc.perform(asyncDispatch(bulk("retry-1", operations)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(2))
+                .andExpect(jsonPath("$.replayed").value(0))
+                .andExpect(jsonPath("$.items[1].result").value("add path userId=userD"));
+
+        mockMvc.perform(asyncDispatch(bulk("retry-1", operations)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(2))
+                .andExpect(jsonPath("$.replayed").value(2));
+
+        mockMvc.perform(post("/mapping/users/_bulk")
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\":[{\"op\":\"add\",\"userId\":\"userE\"}]}"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void bulkRunsSameUserInOrder() throws Exception {
+        StringBuilder operations = new StringBuilder("{\"operations\":[");
+        for (int i = 0; i < 30; i++) {
+            operations.append(i == 0 ? "" : ",")
+                    .append("{\"op\":\"add\",\"userId\":\"userG\"},")
+                    .append("{\"op\":\"update\",\"userId\":\"userG\"},")
+                    .append("{\"op\":\"delete\",\"userId\":\"userG\"}");
+        }
+        operations.append("]}");
+
+        mockMvc.perform(asyncDispatch(bulk("order-1", operations.toString())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(90))
+                .andExpect(jsonPath("$.items[89].result").value("delete path userId=userG"));
+        mockMvc.perform(get("/mapping/users/userG"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void bulkWithoutJsonIsNotAUser() throws Exception {
+        mockMvc.perform(post("/mapping/users/_bulk")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("userA"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        mockMvc.perform(get("/mapping/users/_bulk"))
+                .andExpect(status().isNotFound());
+    }
+
+    private MvcResult bulk(String idempotencyKey, String operations) throws Exception {
+        return mockMvc.perform(post("/mapping/users/_bulk")
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(operations))
+                .andReturn();
+    }
+
+    private double misses() {
+        return meterRegistry.get("hello.response-cache.requests").tag("result", "miss").counter().count();
+    }
+}
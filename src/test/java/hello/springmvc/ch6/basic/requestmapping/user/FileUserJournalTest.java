@@ -0,0 +1,115 @@
+package hello.springmvc.ch6.basic.requestmapping.user;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileUserJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoverAfterRestart() throws Exception {
+        FileUserJournal journal = newJournal(1 << 20, 8);
+        UserStore store = new UserStore(journal);
+        store.create("userA", 1);
+        store.create("userB", 1);
+        store.addOrder("userA", 10, 2);
+        store.addOrder("userA", 11, 3);
+        store.removeOrder("userA", 10, 4);
+        store.delete("userB");
+        journal.close();
+
+        journal = newJournal(1 << 20, 8);
+        UserStore recovered = new UserStore(journal);
+        assertThat(recovered.size()).isEqualTo(1);
+        assertThat(recovered.get("userA").hasOrder(11)).isTrue();
+        assertThat(recovered.get("userA").hasOrder(10)).isFalse();
+        assertThat(recovered.get("userA").getUpdatedAt()).isEqualTo(4);
+        journal.close();
+    }
+
+    @Test
+    void truncateTornTail() throws Exception {
+        FileUserJournal journal = newJournal(1 << 20, 8);
+        UserStore store = new UserStore(journal);
+        store.create("userA", 1);
+        store.addOrder("userA", 10, 2);
+        journal.close();
+
+        //마지막 레코드를 쓰다가 죽은 것처럼 길이만 있고 바디가 없는 레코드를 붙인다.
+        List<Path> segments = segments();
+        Path segment = segments.get(segments.size() - 1);
+        Files.write(segment, ByteBuffer.allocate(6).putInt(40).array(), StandardOpenOption.APPEND);
+        long torn = Files.size(segment);
+
+        journal = newJournal(1 << 20, 8);
+        UserStore recovered = new UserStore(journal);
+        assertThat(recovered.get("userA").hasOrder(10)).isTrue();
+        assertThat(Files.size(segment)).isEqualTo(torn - 6);
+        journal.close();
+    }
+
+    @Test
+    void compactSegmentsIntoSnapshot() throws Exception {
+        //레코드마다 세그먼트가 넘어가고 세그먼트 2개마다 스냅샷을 쓴다.
+        FileUserJournal journal = newJournal(1, 2);
+        UserStore store = new UserStore(journal);
+        for (int i = 0; i < 20; i++) {
+            store.create("user" + i, i);
+            store.addOrder("user" + i, i, i);
+        }
+        journal.close();
+
+        journal = newJournal(1, 2);
+        UserStore recovered = new UserStore(journal);
+        assertThat(recovered.size()).isEqualTo(20);
+        assertThat(recovered.orderCount()).isEqualTo(20);
+        assertThat(recovered.get("user7").hasOrder(7)).isTrue();
+        journal.close();
+    }
+
+    @Test
+    void writeFailureRejectsMutations() throws Exception {
+        //레코드마다 세그먼트가 넘어가는데 다음 세그먼트 자리에 디렉터리가 있어서 열기(쓰기)가 실패한다.
+        FileUserJournal journal = newJournal(1, 8);
+        UserStore store = new UserStore(journal);
+        store.create("userA", 1);
+        Files.createDirectory(directory.resolve(String.format("segment-%020d.log", 2)));
+
+        assertThatThrownBy(() -> store.addOrder("userA", 10, 2)).isInstanceOf(UncheckedIOException.class);
+
+        //실패 뒤의 변경은 메모리에도 반영되지 않는다.
+        assertThatThrownBy(() -> store.create("userB", 3)).isInstanceOf(UncheckedIOException.class);
+        assertThatThrownBy(() -> store.addOrder("userA", 11, 4)).isInstanceOf(UncheckedIOException.class);
+        assertThat(store.get("userB")).isNull();
+        assertThat(store.get("userA").hasOrder(11)).isFalse();
+        assertThat(store.orderCount()).isEqualTo(1);
+        journal.close();
+    }
+
+    private FileUserJournal newJournal(long segmentSize, int compactSegments) {
+        return new FileUserJournal(directory, segmentSize, Duration.ZERO, compactSegments);
+    }
+
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("segment-"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
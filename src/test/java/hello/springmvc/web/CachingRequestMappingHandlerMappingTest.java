@@ -0,0 +1,94 @@
+package hello.springmvc.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingRequestMappingHandlerMappingTest {
+
+    PathPatternParser patternParser = new PathPatternParser();
+    CachingRequestMappingHandlerMapping mapping = new CachingRequestMappingHandlerMapping(100);
+    ModeHandlers handlers = new ModeHandlers();
+
+    @Test
+    void paramsMappingRegisteredAtRuntime() throws Exception {
+        mapping.setPatternParser(patternParser);
+        mapping.registerMapping(info().build(), handlers, method("any"));
+
+        //params 조건이 없을 때 캐시된 조회 결과
+        assertThat(lookup(request(null))).isEqualTo("any");
+        assertThat(lookup(request("debug"))).isEqualTo("any");
+        assertThat(mapping.getCacheSize()).isEqualTo(1);
+
+        mapping.registerMapping(info().params("mode=debug").build(), handlers, method("debug"));
+
+        assertThat(mapping.getCacheSize()).isZero();
+        assertThat(lookup(request("debug"))).isEqualTo("debug");
+        assertThat(lookup(request(null))).isEqualTo("any");
+        assertThat(lookup(request("debug"))).isEqualTo("debug");
+        assertThat(lookup(request("info"))).isEqualTo("any");
+    }
+
+    @Test
+    void formBodyIsNotReadForCacheKey() throws Exception {
+        mapping.setPatternParser(patternParser);
+        mapping.registerMapping(info().params("mode=debug").build(), handlers, method("debug"));
+        mapping.registerMapping(RequestMappingInfo.paths("/form").methods(RequestMethod.POST)
+                .options(config()).build(), handlers, method("any"));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/form");
+        request.setContentType("application/x-www-form-urlencoded");
+        request.setContent("mode=debug".getBytes(StandardCharsets.UTF_8));
+        ServletRequestPathUtils.parseAndCache(request);
+
+        assertThat(lookup(request)).isEqualTo("any");
+        assertThat(mapping.getCacheSize()).isZero();
+    }
+
+    private RequestMappingInfo.BuilderConfiguration config() {
+        RequestMappingInfo.BuilderConfiguration config = new RequestMappingInfo.BuilderConfiguration();
+        config.setPatternParser(patternParser);
+        return config;
+    }
+
+    private RequestMappingInfo.Builder info() {
+        return RequestMappingInfo.paths("/mode").methods(RequestMethod.GET).options(config());
+    }
+
+    private String lookup(MockHttpServletRequest request) throws Exception {
+        return ((HandlerMethod) mapping.getHandler(request).getHandler()).getMethod().getName();
+    }
+
+    private static MockHttpServletRequest request(String mode) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/mode");
+        if (mode != null) {
+            request.addParameter("mode", mode);
+        }
+        ServletRequestPathUtils.parseAndCache(request);
+        return request;
+    }
+
+    private static Method method(String name) throws NoSuchMethodException {
+        return ModeHandlers.class.getMethod(name);
+    }
+
+    static class ModeHandlers {
+
+        public String any() {
+            return "any";
+        }
+
+        public String debug() {
+            return "debug";
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package hello.springmvc.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.ControllerAdviceBean;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConstantResponseReturnValueHandlerTest {
+
+    HandlerMethod handlerMethod = new HandlerMethod(new Handlers(), ReflectionUtils.findMethod(Handlers.class, "ok"));
+    RecordingFallback fallback = new RecordingFallback();
+
+    @Test
+    void negotiateByQualityAndCompatibility() throws Exception {
+        ConstantResponseReturnValueHandler handler = handler(List.of());
+
+        assertThat(writesConstant(handler, "text/plain;q=0.9")).isTrue();
+        assertThat(writesConstant(handler, "*/*;q=0.8")).isTrue();
+        assertThat(writesConstant(handler, "text/html;q=0.5, text/*;q=0.9")).isTrue();
+        //더 우선인 타입이 다르거나 text/plain 을 거절하면 원래대로 콘텐츠 협상
+        assertThat(writesConstant(handler, "application/json, text/plain;q=0.5")).isFalse();
+        assertThat(writesConstant(handler, "text/plain;q=0, */*")).isFalse();
+        assertThat(writesConstant(handler, "text/plain;charset=ISO-8859-1")).isFalse();
+    }
+
+    @Test
+    void handlerWithResponseBodyAdviceIsNotConstant() {
+        ConstantResponseReturnValueHandler handler = handler(List.of(new ControllerAdviceBean(new AllAdvice())));
+
+        assertThat(handler.getConstantHandlerCount()).isZero();
+        assertThat(handler.supportsReturnType(handlerMethod.getReturnType())).isFalse();
+    }
+
+    private ConstantResponseReturnValueHandler handler(List<ControllerAdviceBean> advice) {
+        return new ConstantResponseReturnValueHandler(
+                Map.of(RequestMappingInfo.paths("/ok").build(), handlerMethod), advice, fallback);
+    }
+
+    private boolean writesConstant(ConstantResponseReturnValueHandler handler, String accept) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/ok");
+        request.addHeader("Accept", accept);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        fallback.called = false;
+
+        handler.handleReturnValue("ok", handlerMethod.getReturnType(), new ModelAndViewContainer(),
+                new ServletWebRequest(request, response));
+
+        if (fallback.called) {
+            return false;
+        }
+        assertThat(response.getContentAsString()).isEqualTo("ok");
+        assertThat(response.getContentType()).isEqualTo("text/plain;charset=UTF-8");
+        return true;
+    }
+
+    static class Handlers {
+
+        @ResponseBody
+        @ConstantResponse
+        public String ok() {
+            return "ok";
+        }
+    }
+
+    static class AllAdvice implements ResponseBodyAdvice<Object> {
+
+        @Override
+        public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+            return true;
+        }
+
+        @Override
+        public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                      ServerHttpRequest request, ServerHttpResponse response) {
+            return body;
+        }
+    }
+
+    static class RecordingFallback implements HandlerMethodReturnValueHandler {
+
+        boolean called;
+
+        @Override
+        public boolean supportsReturnType(MethodParameter returnType) {
+            return true;
+        }
+
+        @Override
+        public void handleReturnValue(Object returnValue, MethodParameter returnType,
+                                      ModelAndViewContainer mavContainer, NativeWebRequest webRequest) {
+            called = true;
+        }
+    }
+}
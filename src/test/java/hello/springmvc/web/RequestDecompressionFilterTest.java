@@ -0,0 +1,81 @@
+package hello.springmvc.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RequestDecompressionFilterTest {
+
+    private static final String JSON = "{\"username\":\"hello\", \"age\":20}";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void gzipJson() throws Exception {
+        byte[] body = gzip(JSON);
+        mockMvc.perform(post("/request-body-json-v5")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("hello"))
+                .andExpect(jsonPath("$.age").value(20));
+    }
+
+    @Test
+    void deflateString() throws Exception {
+        byte[] body = deflate(JSON);
+        mockMvc.perform(post("/request-body-string-v4")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .header(HttpHeaders.CONTENT_ENCODING, "deflate")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().string("ok"));
+    }
+
+    @Test
+    void unsupportedEncoding() throws Exception {
+        mockMvc.perform(post("/request-body-json-v5")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "br")
+                        .content(JSON))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(header().string(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"));
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] deflate(String text) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream out = new DeflaterOutputStream(buffer)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,72 @@
+package hello.springmvc.web.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheTest {
+
+    ResponseCache responseCache = new ResponseCache(new SimpleMeterRegistry(), 100, 2, Duration.ofMinutes(1));
+
+    @Test
+    void putAfterEvictIsSkipped() {
+        //GET miss => (핸들러 실행 중) DELETE 무효화 => GET 이 변경 전 바디를 저장하려 함
+        long generation = responseCache.generation("user:userA");
+        responseCache.evict("user:userA");
+        CachedResponse stale = responseCache.put("user:userA", "/users/userA|*/*", generation,
+                MediaType.TEXT_PLAIN, body("userA"));
+
+        assertThat(stale.getEtag()).isNotNull();
+        assertThat(responseCache.get("user:userA", "/users/userA|*/*")).isNull();
+
+        //무효화 뒤에 시작한 miss 는 저장된다.
+        responseCache.put("user:userA", "/users/userA|*/*", responseCache.generation("user:userA"),
+                MediaType.TEXT_PLAIN, body("userA"));
+        assertThat(responseCache.get("user:userA", "/users/userA|*/*")).isNotNull();
+    }
+
+    @Test
+    void variantsPerTagAreBounded() {
+        long generation = responseCache.generation("user:userB");
+        for (int i = 0; i < 10; i++) {
+            responseCache.put("user:userB", "/users/userB|type/" + i, generation, MediaType.TEXT_PLAIN, body("b"));
+        }
+        assertThat(responseCache.get("user:userB", "/users/userB|type/0")).isNotNull();
+        assertThat(responseCache.get("user:userB", "/users/userB|type/1")).isNotNull();
+        assertThat(responseCache.get("user:userB", "/users/userB|type/2")).isNull();
+    }
+
+    @Test
+    void acceptIsNormalized() {
+        assertThat(ResponseCacheInterceptor.accept(request(null))).isEqualTo("*/*");
+        assertThat(ResponseCacheInterceptor.accept(request("text/html;q=0.5, application/json;charset=UTF-8")))
+                .isEqualTo("application/json,text/html");
+        assertThat(ResponseCacheInterceptor.accept(request("application/json, text/html;q=0.5")))
+                .isEqualTo("application/json,text/html");
+        assertThat(ResponseCacheInterceptor.accept(request("not a media type"))).isNull();
+
+        MockHttpServletRequest produces = request("text/html, application/json;q=0.9, */*;q=0.1");
+        produces.setAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE, Set.of(MediaType.APPLICATION_JSON));
+        assertThat(ResponseCacheInterceptor.accept(produces)).isEqualTo("application/json");
+    }
+
+    private static MockHttpServletRequest request(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/userA");
+        if (accept != null) {
+            request.addHeader("Accept", accept);
+        }
+        return request;
+    }
+
+    private static byte[] body(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,101 @@
+package hello.springmvc.web.coalesce;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescerTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    CoalesceProperties properties = new CoalesceProperties();
+    ExecutorService executor = Executors.newCachedThreadPool();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger calls = new AtomicInteger();
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareLeaderResult() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(properties, registry);
+        Future<Object> leader = executor.submit(() -> coalescer.execute("test", "a", 0, this::blockingCall));
+        started.await();
+
+        List<Future<Object>> followers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            followers.add(executor.submit(() -> coalescer.execute("test", "a", 0, this::blockingCall)));
+        }
+        //뒤에 온 요청이 모두 기다리기 시작할 시간
+        Thread.sleep(200);
+        release.countDown();
+
+        assertThat(leader.get(1, TimeUnit.SECONDS)).isEqualTo("value");
+        for (Future<Object> follower : followers) {
+            assertThat(follower.get(1, TimeUnit.SECONDS)).isEqualTo("value");
+        }
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(count("leader")).isEqualTo(1);
+        assertThat(count("joined")).isEqualTo(8);
+    }
+
+    @Test
+    void rejectOverMaxWaiters() throws Exception {
+        properties.setMaxWaiters(0);
+        RequestCoalescer coalescer = new RequestCoalescer(properties, registry);
+        executor.submit(() -> coalescer.execute("test", "a", 0, this::blockingCall));
+        started.await();
+
+        assertThatThrownBy(() -> coalescer.execute("test", "a", 0, () -> "follower"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(count("rejected")).isEqualTo(1);
+        //다른 키는 영향 없음
+        assertThat(coalescer.execute("test", "b", 0, () -> "b")).isEqualTo("b");
+    }
+
+    @Test
+    void timeoutThenNextCallerLeads() throws Exception {
+        properties.setTimeout(Duration.ofMillis(100));
+        RequestCoalescer coalescer = new RequestCoalescer(properties, registry);
+        executor.submit(() -> coalescer.execute("test", "a", 0, this::blockingCall));
+        started.await();
+
+        assertThatThrownBy(() -> coalescer.execute("test", "a", 0, () -> "follower"))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThat(count("timeout")).isEqualTo(1);
+
+        //멈춘 leader 의 Flight 는 지났으므로 새 leader 가 된다.
+        assertThat(coalescer.execute("test", "a", 0, () -> "second")).isEqualTo("second");
+        assertThat(count("leader")).isEqualTo(2);
+    }
+
+    private Object blockingCall() throws InterruptedException {
+        calls.incrementAndGet();
+        started.countDown();
+        release.await();
+        return "value";
+    }
+
+    private double count(String result) {
+        return registry.get("hello.coalesce.requests").tag("name", "test").tag("result", result).counter().count();
+    }
+}
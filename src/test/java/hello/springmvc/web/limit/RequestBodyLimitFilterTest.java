@@ -0,0 +1,140 @@
+package hello.springmvc.web.limit;
+
+import hello.springmvc.web.RequestDecompressionFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.unit.DataSize;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.LongSupplier;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestBodyLimitFilterTest {
+
+    SimpleMeterRegistry registry;
+    RequestBodyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RequestBodyLimitProperties properties = new RequestBodyLimitProperties();
+        properties.setDefaultMaxSize(DataSize.ofBytes(16));
+        properties.getEndpoints().put("/large", DataSize.ofBytes(1024));
+        registry = new SimpleMeterRegistry();
+        filter = new RequestBodyLimitFilter(properties, registry);
+    }
+
+    @Test
+    void rejectContentLengthBeforeRead() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/request-body-string-v1");
+        request.setContent(new byte[17]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+        assertThat(rejected("content-length", "default")).isEqualTo(1);
+    }
+
+    @Test
+    void cutOffChunkedBody() throws Exception {
+        MockHttpServletRequest request = chunked("/request-body-string-v1", 17);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(new ReadingServlet()));
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(rejected("stream", "default")).isEqualTo(1);
+    }
+
+    @Test
+    void endpointLimitWins() throws Exception {
+        MockHttpServletRequest request = chunked("/large", 1024);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(new ReadingServlet()));
+
+        assertThat(response.getContentAsString()).isEqualTo("1024");
+    }
+
+    @Test
+    void countBytesReadFromChunkedBody() throws Exception {
+        MockHttpServletRequest request = chunked("/large", 100);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new ReadingServlet()));
+
+        LongSupplier bytesRead = (LongSupplier) request.getAttribute(RequestBodyLimitFilter.BYTES_READ_ATTRIBUTE);
+        assertThat(bytesRead.getAsLong()).isEqualTo(100);
+    }
+
+    @Test
+    void limitInflatedBody() throws Exception {
+        //압축된 크기(Content-Length)는 제한 안쪽이지만 풀면 /large 의 1KB 를 넘는다.
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/large");
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        request.setContent(gzip(new byte[4096]));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response,
+                new MockFilterChain(new ReadingServlet(), new RequestDecompressionFilter(1 << 20)));
+
+        assertThat(request.getContentLengthLong()).isLessThan(1024);
+        assertThat(response.getStatus()).isEqualTo(413);
+    }
+
+    private double rejected(String reason, String rule) {
+        return registry.counter("hello.request-body.rejected", "reason", reason, "rule", rule).count();
+    }
+
+    /*
+        Content-Length 없이 들어온 바디 (chunked)
+     */
+    private static MockHttpServletRequest chunked(String uri, int size) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri) {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+        };
+        request.setContent(new byte[size]);
+        return request;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(body);
+        }
+        return buffer.toByteArray();
+    }
+
+    static class ReadingServlet extends HttpServlet {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+            byte[] body = StreamUtils.copyToByteArray(req.getInputStream());
+            resp.getWriter().write(String.valueOf(body.length));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package hello.springmvc.web.metrics;
+
+import hello.springmvc.ch6.basic.requestmapping.MappingController;
+import hello.springmvc.ch6.basic.requestmapping.RequestHeaderController;
+import hello.springmvc.ch6.basic.requestmapping.RequestHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HandlerMetersTest {
+
+    MappingController controller = new MappingController(null);
+
+    @Test
+    void overloadedHandlersHaveDistinctNames() throws Exception {
+        assertThat(name("mappingPath", String.class)).isEqualTo("MappingController.mappingPath(String)");
+        assertThat(name("mappingPath", String.class, Long.class))
+                .isEqualTo("MappingController.mappingPath(String,Long)");
+        assertThat(name("helloBasic")).isEqualTo("MappingController.helloBasic");
+    }
+
+    @Test
+    void requestScopedTypesAreNotRequestParams() throws Exception {
+        //HttpMethod(enum), Locale 은 BeanUtils.isSimpleProperty 로는 단순 값이지만 요청에서 꺼내 주는 타입
+        HandlerMethod headers = new HandlerMethod(new RequestHeaderController(), "headers",
+                HttpMethod.class, Locale.class, RequestHeaders.class, String.class);
+
+        assertThat(BindingStyle.of(headers)).isEqualTo(BindingStyle.NONE);
+    }
+
+    private String name(String method, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return HandlerMeters.nameOf(new HandlerMethod(controller, method, parameterTypes));
+    }
+}
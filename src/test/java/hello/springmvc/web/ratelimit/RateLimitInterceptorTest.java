@@ -0,0 +1,60 @@
+package hello.springmvc.web.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitInterceptorTest {
+
+    @Test
+    void rotatingHeaderIsLimitedByRemoteAddress() {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setName("test");
+        rule.setPaths(List.of("/request-param-*"));
+        rule.setKey(RateLimitProperties.KeySource.HEADER);
+        rule.setKeyName("X-Client-Id");
+        Counter rejected = new SimpleMeterRegistry().counter("rejected");
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(new RateLimiter("test", 0.001, 2, 100),
+                new RateLimiter("test.remote-address", 0.001, 2, 100), rule, rejected);
+
+        assertThat(preHandle(interceptor, "10.0.0.1", "client-1")).isTrue();
+        assertThat(preHandle(interceptor, "10.0.0.1", "client-2")).isTrue();
+        assertThat(preHandle(interceptor, "10.0.0.1", "client-3")).isFalse();
+        //다른 주소는 따로 센다.
+        assertThat(preHandle(interceptor, "10.0.0.2", "client-4")).isTrue();
+        assertThat(rejected.count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectedByRemoteAddressKeepsHeaderToken() {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setName("test");
+        rule.setPaths(List.of("/request-param-*"));
+        rule.setKey(RateLimitProperties.KeySource.HEADER);
+        rule.setKeyName("X-Client-Id");
+        Counter rejected = new SimpleMeterRegistry().counter("rejected");
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(new RateLimiter("test", 0.001, 2, 100),
+                new RateLimiter("test.remote-address", 0.001, 2, 100), rule, rejected);
+
+        assertThat(preHandle(interceptor, "10.0.0.1", "client-1")).isTrue();
+        assertThat(preHandle(interceptor, "10.0.0.1", "client-2")).isTrue();
+        assertThat(preHandle(interceptor, "10.0.0.1", "client-3")).isFalse();
+        //주소 버킷에서 거절된 client-3 은 헤더 토큰을 쓰지 않았다.
+        assertThat(preHandle(interceptor, "10.0.0.2", "client-3")).isTrue();
+        assertThat(preHandle(interceptor, "10.0.0.3", "client-3")).isTrue();
+        assertThat(preHandle(interceptor, "10.0.0.4", "client-3")).isFalse();
+    }
+
+    private static boolean preHandle(RateLimitInterceptor interceptor, String remoteAddress, String clientId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/request-param-v1");
+        request.setRemoteAddr(remoteAddress);
+        request.addHeader("X-Client-Id", clientId);
+        return interceptor.preHandle(request, new MockHttpServletResponse(), null);
+    }
+}
@@ -0,0 +1,74 @@
+package hello.springmvc.web.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    AtomicLong now = new AtomicLong(SECOND);
+
+    @Test
+    void burstThenRejectUntilRefill() {
+        //초당 10개(100ms 마다 1개), 한 번에 3개까지
+        RateLimiter rateLimiter = new RateLimiter("test", 10, 3, 100, now::get);
+
+        assertThat(rateLimiter.tryAcquire("a")).isZero();
+        assertThat(rateLimiter.tryAcquire("a")).isZero();
+        assertThat(rateLimiter.tryAcquire("a")).isZero();
+        assertThat(rateLimiter.tryAcquire("a")).isEqualTo(SECOND / 10);
+        assertThat(rateLimiter.tryAcquire("b")).isZero();
+
+        now.addAndGet(SECOND / 10);
+        assertThat(rateLimiter.tryAcquire("a")).isZero();
+        assertThat(rateLimiter.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void checkDoesNotSpendAndReleaseRefunds() {
+        RateLimiter rateLimiter = new RateLimiter("test", 10, 1, 100, now::get);
+
+        assertThat(rateLimiter.check("a")).isZero();
+        assertThat(rateLimiter.size()).isZero();
+        assertThat(rateLimiter.tryAcquire("a")).isZero();
+        assertThat(rateLimiter.check("a")).isEqualTo(SECOND / 10);
+
+        rateLimiter.release("a");
+        assertThat(rateLimiter.check("a")).isZero();
+        assertThat(rateLimiter.tryAcquire("a")).isZero();
+    }
+
+    @Test
+    void evictIdleKeys() {
+        RateLimiter rateLimiter = new RateLimiter("test", 10, 3, 100, now::get);
+        rateLimiter.tryAcquire("a");
+        rateLimiter.tryAcquire("b");
+
+        now.addAndGet(SECOND);
+        rateLimiter.tryAcquire("b");
+        rateLimiter.evictIdle(SECOND / 2);
+
+        assertThat(rateLimiter.size()).isEqualTo(1);
+    }
+
+    @Test
+    void keysOverLimitShareStripedBuckets() {
+        RateLimiter rateLimiter = new RateLimiter("test", 10, 1, 1, now::get);
+        assertThat(rateLimiter.tryAcquire("a")).isZero();
+
+        //키 공간이 찬 뒤 한 키가 자기 줄(stripe)을 다 써도 다른 줄의 새 키는 통과한다.
+        assertThat(rateLimiter.tryAcquire("b")).isZero();
+        assertThat(rateLimiter.tryAcquire("b")).isPositive();
+        String other = "c";
+        while (RateLimiter.stripe(other) == RateLimiter.stripe("b")) {
+            other += "c";
+        }
+        assertThat(rateLimiter.tryAcquire(other)).isZero();
+        assertThat(rateLimiter.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,63 @@
+package hello.springmvc.web.resource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StaticAssetHandlerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    StaticAssets staticAssets;
+
+    @Test
+    void gzipWithEtagThenNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/index.html").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).endsWith("-gz\"");
+
+        mockMvc.perform(get("/index.html")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        //인코딩이 다르면 다른 ETag 라 304 가 아니다.
+        mockMvc.perform(get("/index.html").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void versionedUrlIsImmutable() throws Exception {
+        String versioned = staticAssets.versionedUrl("/basic/hello-form.html");
+        assertThat(versioned).matches("/basic/hello-form-[0-9a-f]{32}\\.html");
+
+        mockMvc.perform(get(versioned))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"));
+    }
+
+    @Test
+    void acceptEncodingQuality() {
+        assertThat(StaticAsset.quality("gzip;q=0.5, br", "gzip")).isEqualTo(0.5);
+        assertThat(StaticAsset.quality("gzip;q=0, *", "gzip")).isZero();
+        assertThat(StaticAsset.quality("*;q=0.3", "br")).isEqualTo(0.3);
+        assertThat(StaticAsset.quality("deflate", "br")).isZero();
+    }
+}